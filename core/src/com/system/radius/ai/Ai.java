@@ -8,6 +8,8 @@ import com.system.radius.ai.action.Action;
 import com.system.radius.ai.action.BombBlocksAction;
 import com.system.radius.ai.action.BombPlayerAction;
 import com.system.radius.ai.action.DefenseAction;
+import com.system.radius.ai.path.DistanceField;
+import com.system.radius.ai.path.PathCache;
 import com.system.radius.enums.PlayerState;
 import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.board.WorldConstants;
@@ -27,7 +29,7 @@ public class Ai {
 
   private static final float PATH_CHANGE_INTERVAL = 0.1f;
 
-  private BoardState boardState = BoardState.getInstance();
+  private final BoardState boardState;
 
   private List<Action> actionList;
 
@@ -43,6 +45,36 @@ public class Ai {
 
   private int[][] board;
 
+  /**
+   * The distances from the player over the board, shared by the actions of a decision.
+   */
+  private final DistanceField distanceField = new DistanceField();
+
+  /**
+   * The paths found on the boards of this AI, shared by its actions.
+   */
+  private final PathCache pathCache = new PathCache();
+
+  /**
+   * The version of the board state the current board was constructed from.
+   */
+  private long boardStateVersion = -1;
+
+  /**
+   * The speed level of the player when the current board was constructed.
+   */
+  private float boardSpeedLevel;
+
+  /**
+   * The version of the current board, renewed every time the board is constructed.
+   */
+  private long boardVersion = PathCache.NO_VERSION;
+
+  /**
+   * The last version handed out, to the board of this AI or to the boards of its actions.
+   */
+  private long lastVersion = PathCache.NO_VERSION;
+
   private int index;
 
   public Ai(Player player, int index) {
@@ -50,6 +82,7 @@ public class Ai {
 
     this.index = index;
     this.player = player;
+    this.boardState = player.getBoardState();
 
     initializeActions();
 
@@ -202,6 +235,29 @@ public class Ai {
 
   }
 
+  /**
+   * Constructs the board again only if the board state or the player's speed changed since it was
+   * last constructed, as the costs would be the same otherwise.
+   */
+  private void updateBoard() {
+
+    long version = boardState.getVersion();
+    float speedLevel = player.getSpeedLevel();
+    int x = boardState.getExactX(player);
+    int y = boardState.getExactY(player);
+
+    if (board == null || version != boardStateVersion || speedLevel != boardSpeedLevel) {
+      board = boardState.constructBoardRep(player);
+      boardStateVersion = version;
+      boardSpeedLevel = speedLevel;
+      boardVersion = createBoardVersion();
+
+      distanceField.compute(board, x, y);
+    } else if (!distanceField.hasSource(x, y)) {
+      distanceField.compute(board, x, y);
+    }
+  }
+
   public Player getPlayer() {
     return player;
   }
@@ -210,6 +266,65 @@ public class Ai {
     return board;
   }
 
+  /**
+   * @return The distances from the player's position when the board was last constructed.
+   */
+  public DistanceField getDistanceField() {
+    return distanceField;
+  }
+
+  /**
+   * @return The version of the current board, which identifies its exact costs.
+   */
+  public long getBoardVersion() {
+    return boardVersion;
+  }
+
+  /**
+   * Finds the version of one of the boards of this AI: its own board, or the hypothetical board
+   * of one of its actions.
+   *
+   * @param board - The board to be looked up.
+   * @return The version of the board, or {@link PathCache#NO_VERSION} if the board is unknown.
+   */
+  public long getBoardVersion(int[][] board) {
+
+    if (board == this.board) {
+      return boardVersion;
+    }
+
+    for (Action action : actionList) {
+      if (action.getHypotheticalBoard() == board) {
+        return action.getBoardVersion();
+      }
+    }
+
+    return PathCache.NO_VERSION;
+  }
+
+  /**
+   * Hands out a version that no board of this AI had so far, such that the paths cached for the
+   * boards never mix.
+   *
+   * @return The new version.
+   */
+  public long createBoardVersion() {
+    return ++lastVersion;
+  }
+
+  /**
+   * @return {@code true} if the board was constructed from the current state of the board and
+   * the current speed of the player; {@code false} otherwise.
+   */
+  public boolean isBoardCurrent() {
+    return board != null && boardStateVersion == boardState.getVersion() &&
+        boardSpeedLevel == player.getSpeedLevel();
+  }
+
+  public PathCache getPathCache() {
+    return pathCache;
+  }
+
   public int getIndex() {
     return index;
   }
@@ -234,7 +349,7 @@ public class Ai {
 
         // Create a representation of the board for the actions to be evaluated.
         // The board should be updated every time something has happened.
-        board = boardState.constructBoardRep(player);
+        updateBoard();
 
 //      AStarUtils.printMaze(board);
         decide();
@@ -2,7 +2,10 @@ package com.system.radius.ai.action;
 
 import com.system.radius.ai.Ai;
 import com.system.radius.ai.Node;
+import com.system.radius.ai.path.DistanceField;
 import com.system.radius.objects.board.WorldConstants;
+import com.system.radius.utils.AStarUtils;
+import com.system.radius.utils.IncrementalAStarUtils;
 import com.system.radius.utils.NodeUtils;
 
 import java.util.ArrayList;
@@ -14,6 +17,12 @@ public class AcquireBonusAction extends MultiTargetAction {
     super(ai, chained);
   }
 
+  @Override
+  protected AStarUtils createPathFinder() {
+    // A bonus stays where it is until it is taken.
+    return new IncrementalAStarUtils();
+  }
+
   @Override
   protected void chooseTarget(Node source) {
 
@@ -29,9 +38,9 @@ public class AcquireBonusAction extends MultiTargetAction {
     if (currentTarget == null) {
 
       if (mainTarget != null) {
-        actionPath = pathFinder.findShortestPath(hypotheticalBoard, source, mainTarget);
+        keepMainPath(source);
       } else {
-        actionPath = null;
+        clearActionPath();
       }
 
       return;
@@ -39,20 +48,26 @@ public class AcquireBonusAction extends MultiTargetAction {
 
     mainTarget = currentTarget;
     LOGGER.info("Got a target!");
-    actionPath = pathFinder.findShortestPath(hypotheticalBoard, source, mainTarget);
+    keepMainPath(source);
 
   }
 
-  private List<Node> findTargets(List<Node> spaces) {
+  /**
+   * Finds the bonuses among the spaces that can be reached.
+   *
+   * @param field - The distances from the source of the action.
+   * @return The reachable spaces that have a bonus.
+   */
+  private List<Node> findTargets(DistanceField field) {
 
     List<Node> bonuses = new ArrayList<>();
-    for (Node space : spaces) {
-      int x = space.getX();
-      int y = space.getY();
+    int width = field.getWidth();
+    for (int i = 0; i < field.getReachedCount(); i++) {
+      int cell = field.getReachedCell(i);
 
-      if (boardState.getChar(x, y) == WorldConstants.BOARD_BONUS) {
-        // Find the bonus-marked area from the given spaces.
-        bonuses.add(space);
+      if (boardState.getChar(cell % width, cell / width) == WorldConstants.BOARD_BONUS) {
+        // Find the bonus-marked area from the reachable spaces.
+        bonuses.add(field.createNode(cell));
       }
     }
 
@@ -62,8 +77,8 @@ public class AcquireBonusAction extends MultiTargetAction {
   @Override
   public boolean isDoable(int[][] parentBoard, Node sourceNode) {
 
-    hypotheticalBoard = boardState.copyBoard(ai.getBoard());
-    boardState.adaptBoard(hypotheticalBoard, parentBoard);
+    prepareBoard(parentBoard);
+    findDistances(sourceNode);
 
     if (!isTargetAcquired()) {
       return false;
@@ -71,19 +86,18 @@ public class AcquireBonusAction extends MultiTargetAction {
 
     chooseTarget(sourceNode);
 
-    return actionPath != null;
+    return hasActionPath();
   }
 
   @Override
   public boolean isTargetAcquired() {
 
-    Node playerNode = NodeUtils.createNode(player);
+    if (distanceField == null) {
+      findDistances(NodeUtils.createNode(player));
+    }
 
     possibleTargets.clear();
-    List<Node> emptySpaces = pathFinder.searchSpaces(hypotheticalBoard, playerNode,
-        (int) (WorldConstants.WORLD_HEIGHT * WorldConstants.WORLD_WIDTH));
-
-    possibleTargets.addAll(findTargets(emptySpaces));
+    possibleTargets.addAll(findTargets(distanceField));
     return possibleTargets.size() > 0;
   }
 
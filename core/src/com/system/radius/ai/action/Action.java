@@ -2,10 +2,16 @@ package com.system.radius.ai.action;
 
 import com.system.radius.ai.Ai;
 import com.system.radius.ai.Node;
+import com.system.radius.ai.path.DistanceField;
+import com.system.radius.ai.path.PathBuffer;
+import com.system.radius.ai.path.PathCache;
+import com.system.radius.objects.board.BoardOverlay;
 import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.players.Player;
 import com.system.radius.utils.AStarUtils;
 import com.system.radius.utils.BombermanLogger;
+import com.system.radius.utils.HierarchicalAStarUtils;
+import com.system.radius.utils.JumpPointAStarUtils;
 import com.system.radius.utils.NodeUtils;
 
 import java.util.ArrayList;
@@ -14,6 +20,11 @@ import java.util.List;
 
 public abstract class Action {
 
+  /**
+   * The board size, in cells, from which the hierarchical path finder is used by default.
+   */
+  private static final int HIERARCHICAL_CELLS = 64 * 48;
+
   protected final BombermanLogger LOGGER;
 
   /**
@@ -22,9 +33,9 @@ public abstract class Action {
   protected List<Node> actionPath;
 
   /**
-   * A board state instance.
+   * The state of the board the player is on.
    */
-  protected BoardState boardState = BoardState.getInstance();
+  protected BoardState boardState;
 
   /**
    * The artificial intelligence using this action.
@@ -66,16 +77,93 @@ public abstract class Action {
    */
   protected int[][] hypotheticalBoard;
 
+  /**
+   * The board taking turns with the hypothetical board, for when the parent board is this
+   * action's own hypothetical board.
+   */
+  private int[][] spareBoard;
+
+  /**
+   * The layers of changes over the hypothetical board, attached to it for every check. The
+   * hypothetical board is changed through it alone, so that its version follows the changes.
+   */
+  protected final BoardOverlay overlay = new BoardOverlay();
+
+  /**
+   * The version of the board the hypothetical board was copied from.
+   */
+  private long baseVersion = PathCache.NO_VERSION;
+
+  /**
+   * The count of the changes of the overlay right after the hypothetical board was copied.
+   */
+  private long baseChanges;
+
+  /**
+   * The version given to the hypothetical board once changed, and the count of the changes of the
+   * overlay it was given for.
+   */
+  private long changedVersion = PathCache.NO_VERSION;
+
+  private long changedChanges;
+
+  /**
+   * Indicates that the hypothetical board was adapted from a parent action, and so it differs
+   * from the board the AI has for the current decision.
+   */
+  protected boolean adapted;
+
+  /**
+   * The distances from the source of the action, as used by the current check.
+   */
+  protected DistanceField distanceField;
+
+  /**
+   * The distances computed by this action itself, for when the AI's own field does not apply.
+   */
+  private final DistanceField localField = new DistanceField();
+
+  /**
+   * The path found by the last check, in cells. The actions that compare paths keep their action
+   * path here, and only turn it into nodes once it is asked for, see {@link #getActionPath()}.
+   */
+  protected final PathBuffer foundPath = new PathBuffer();
+
+  /**
+   * The number of cells from the start of {@link #foundPath} making up the action path, or -1 if
+   * the action path is held in nodes.
+   */
+  private int foundLength = -1;
+
   public Action(Ai ai, Action... chained) {
     this.ai = ai;
     this.player = ai.getPlayer();
+    this.boardState = player.getBoardState();
 
     LOGGER = new BombermanLogger(this.getClass().getSimpleName() + ai.getIndex());
 
-    pathFinder = new AStarUtils();
+    pathFinder = createPathFinder();
+    pathFinder.setPathCache(ai.getPathCache());
     addChainedAction(chained);
   }
 
+  /**
+   * Creates the path finder for this action. Actions that keep asking for paths to the same target
+   * may use an incremental path finder instead. Large boards get a hierarchical path finder by
+   * default, through which an action may also ask for the first segment of a long path only, while
+   * the others get a path finder that jumps over the open stretches of the board.
+   *
+   * @return The path finder tool.
+   */
+  protected AStarUtils createPathFinder() {
+
+    if (boardState.getBoardWidth() * boardState.getBoardHeight() >= HIERARCHICAL_CELLS) {
+      return new HierarchicalAStarUtils();
+    }
+
+    return new JumpPointAStarUtils();
+  }
+
   public void addChainedAction(Action... actions) {
     if (actions == null || actions.length == 0) {
       return;
@@ -119,6 +207,137 @@ public abstract class Action {
    */
   public abstract boolean isDoable(int[][] parentBoard, Node sourceNode);
 
+  /**
+   * Checks if the current action is doable after a parent action whose changes are held in
+   * layers over its board. The parent's board is copied by default; an action may instead work on
+   * a layer of its own over the parent's board, as long as the layer is discarded before
+   * returning.
+   *
+   * @param parentOverlay - The layers over the board of the parent action.
+   * @param sourceNode    - The node as the source of the current action.
+   * @return {@code true} if the action can be done; {@code false} otherwise.
+   */
+  public boolean isDoableOnLayer(BoardOverlay parentOverlay, Node sourceNode) {
+
+    return isDoable(parentOverlay.getBoard(), sourceNode);
+  }
+
+  /**
+   * Creates the hypothetical board for the current check, from the AI's board and the board of
+   * the parent action.
+   *
+   * @param parentBoard - The state of the board after the parent action is completed.
+   */
+  protected void prepareBoard(int[][] parentBoard) {
+
+    // The version is looked up first, as the parent board may be the board being replaced.
+    long version = parentBoard != null ? ai.getBoardVersion(parentBoard) : ai.getBoardVersion();
+
+    if (hypotheticalBoard == null || hypotheticalBoard == parentBoard) {
+      // The parent board must stay intact while it is being copied, so the other board is used.
+      int[][] board = spareBoard != null ? spareBoard : boardState.createBoard();
+      spareBoard = hypotheticalBoard;
+      hypotheticalBoard = board;
+    }
+
+    // The parent board is taken whole, otherwise the AI's board is the starting point.
+    boardState.copyBoard(parentBoard != null ? parentBoard : ai.getBoard(), hypotheticalBoard);
+    overlay.attach(hypotheticalBoard);
+
+    adapted = parentBoard != null;
+    baseVersion = version;
+    baseChanges = overlay.getChanges();
+    changedVersion = PathCache.NO_VERSION;
+  }
+
+  /**
+   * Gets the distances from the source over the hypothetical board. The AI's field for the
+   * current decision is shared if it applies, otherwise the distances are computed once here.
+   *
+   * @param source - The source of the action.
+   * @return The distance field from the source.
+   */
+  protected DistanceField findDistances(Node source) {
+
+    DistanceField field = ai.getDistanceField();
+    if (adapted || !field.hasSource(source.getX(), source.getY())) {
+      localField.compute(hypotheticalBoard, source);
+      field = localField;
+    }
+
+    distanceField = field;
+    return field;
+  }
+
+  /**
+   * Finds the shortest path from the source to the target on the hypothetical board. The path is
+   * read from the AI's distance field if it applies, without searching again.
+   *
+   * @param source - The source of the path.
+   * @param target - The target of the path.
+   * @param path   - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise.
+   */
+  protected boolean findPath(Node source, Node target, PathBuffer path) {
+
+    DistanceField field = ai.getDistanceField();
+    if (!adapted && field.hasSource(source.getX(), source.getY())) {
+      return field.extractPath(target.getX(), target.getY(), path);
+    }
+
+    return pathFinder.findShortestPath(hypotheticalBoard, getBoardVersion(), source, target,
+        path);
+  }
+
+  /**
+   * Finds the first part of the path from the source to the target on the hypothetical board, for
+   * the actions that only need to know where to go next, and will ask again at the next decision.
+   * A path read from the AI's distance field is always whole.
+   *
+   * @param source - The source of the path.
+   * @param target - The target of the path.
+   * @param path   - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise.
+   * @see AStarUtils#findFirstSegment(int[][], long, Node, Node, PathBuffer)
+   */
+  protected boolean findFirstSegment(Node source, Node target, PathBuffer path) {
+
+    DistanceField field = ai.getDistanceField();
+    if (!adapted && field.hasSource(source.getX(), source.getY())) {
+      return field.extractPath(target.getX(), target.getY(), path);
+    }
+
+    return pathFinder.findFirstSegment(hypotheticalBoard, getBoardVersion(), source, target,
+        path);
+  }
+
+  /**
+   * Gets the version of the hypothetical board, for caching the paths found on it. The board
+   * shares the version of the board it was copied from until it is changed, and then gets a new
+   * version for every count of the changes it is read at.
+   *
+   * @return The version, or {@link PathCache#NO_VERSION} if the board was copied from an unknown
+   * board, or is not the board the overlay is attached to at the moment.
+   */
+  public long getBoardVersion() {
+
+    if (baseVersion == PathCache.NO_VERSION || hypotheticalBoard != overlay.getBoard()) {
+      return PathCache.NO_VERSION;
+    }
+
+    long changes = overlay.getChanges();
+    if (changes == baseChanges) {
+      return baseVersion;
+    }
+
+    if (changedVersion == PathCache.NO_VERSION || changedChanges != changes) {
+      changedVersion = ai.createBoardVersion();
+      changedChanges = changes;
+    }
+
+    return changedVersion;
+  }
+
   /**
    * Attempts to retrieve the target for this action.
    *
@@ -136,7 +355,57 @@ public abstract class Action {
    */
   public abstract void onComplete();
 
+  /**
+   * Takes the start of {@link #foundPath} as the action path. No node is created until the path
+   * is handed over through {@link #getActionPath()}.
+   *
+   * @param length - The number of cells making up the action path.
+   */
+  protected void keepFoundPath(int length) {
+    actionPath = null;
+    foundLength = length;
+  }
+
+  /**
+   * Clears the action path, whether it is held in nodes or in cells.
+   */
+  protected void clearActionPath() {
+    actionPath = null;
+    foundLength = -1;
+  }
+
+  /**
+   * @return {@code true} if there is an action path, which may be empty; {@code false}
+   * otherwise.
+   */
+  protected boolean hasActionPath() {
+    return foundLength >= 0 || actionPath != null;
+  }
+
+  /**
+   * @return The length of the action path, or 0 if there is none.
+   */
+  protected int getActionPathLength() {
+
+    if (foundLength >= 0) {
+      return foundLength;
+    }
+
+    return actionPath != null ? actionPath.size() : 0;
+  }
+
+  /**
+   * Gets the path to be walked. A path kept in cells is turned into nodes here, once.
+   *
+   * @return The path, or {@code null} if there is none.
+   */
   public List<Node> getActionPath() {
+
+    if (foundLength >= 0) {
+      actionPath = foundPath.toNodes(foundLength);
+      foundLength = -1;
+    }
+
     return actionPath;
   }
 
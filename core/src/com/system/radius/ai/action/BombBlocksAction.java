@@ -2,8 +2,12 @@ package com.system.radius.ai.action;
 
 import com.system.radius.ai.Ai;
 import com.system.radius.ai.Node;
+import com.system.radius.ai.path.DistanceField;
 import com.system.radius.objects.board.WorldConstants;
+import com.system.radius.objects.bombs.BlastKernel;
+import com.system.radius.utils.AStarUtils;
 import com.system.radius.utils.BombUtils;
+import com.system.radius.utils.IncrementalAStarUtils;
 import com.system.radius.utils.NodeUtils;
 
 import java.util.ArrayList;
@@ -17,19 +21,26 @@ public class BombBlocksAction extends MultiTargetAction {
     super(ai, chained);
   }
 
+  @Override
+  protected AStarUtils createPathFinder() {
+    // The block being bombed stays the target for several decisions in a row.
+    return new IncrementalAStarUtils();
+  }
+
   @Override
   protected void chooseTarget(Node source) {
 
     // Choose the target which has the most number of blocks that can be destroyed,
     // and if the defense action can be doable when the action for the target is complete.
-    int range = player.getFirePower();
+    int firePower = player.getFirePower();
+    BlastKernel kernel = BlastKernel.forType(player.getBombType());
     Node currentTarget = null;
 
     for (Node target : possibleTargets) {
       int x = target.getX();
       int y = target.getY();
 
-      int tempTargetCount = boardState.checkBlocks(x, y, range);
+      int tempTargetCount = boardState.checkBlocks(kernel, x, y, firePower);
       if (tempTargetCount <= targetsCount ||
           (currentTarget != null && currentTarget.getCost() < target.getCost())) {
         // Do not process a target that has less destruction.
@@ -37,17 +48,21 @@ public class BombBlocksAction extends MultiTargetAction {
         continue;
       }
 
-      // Back-up the hypothetical board before conducting anything on it.
-      int[][] tempBoard = boardState.copyBoard(hypotheticalBoard);
+      // The theoretical bomb goes on its own layer, so that it can be taken back afterwards.
+      overlay.push();
 
       // Continue processing the target here. Apply a bomb at the specified position,
       // then check for the if the chained action is still doable.
-      BombUtils.updateBoardCost(tempBoard, target, player);
-      tempBoard[y][x] = -2;
+      BombUtils.updateBoardCost(overlay, target, player);
+      overlay.set(x, y, -2);
 
       LOGGER.info("Checking target: (" + x + ", " + y + ")");
       // There should be at least one chained action for this.
-      if (activeChainedAction != null && activeChainedAction.isDoable(tempBoard, target)) {
+      boolean doable = activeChainedAction != null &&
+          activeChainedAction.isDoableOnLayer(overlay, target);
+      overlay.pop();
+
+      if (doable) {
         // If the action is doable (along with the chained action), mark the processed target
         // as the current target.
         currentTarget = target;
@@ -62,12 +77,12 @@ public class BombBlocksAction extends MultiTargetAction {
     if (currentTarget == null) {
 
       if (targetsCount == 0) {
-        actionPath = null;
+        clearActionPath();
         return;
       }
 
       if (mainTarget != null) {
-        actionPath = pathFinder.findShortestPath(hypotheticalBoard, source, mainTarget);
+        keepMainPath(source);
       }
 
       return;
@@ -75,29 +90,32 @@ public class BombBlocksAction extends MultiTargetAction {
 
     mainTarget = currentTarget;
     LOGGER.info("Current targets: " + targetsCount);
-    actionPath = pathFinder.findShortestPath(hypotheticalBoard, source, mainTarget);
+    keepMainPath(source);
 
   }
 
   /**
-   * Finds targets based on the empty spaces.
+   * Finds targets among the reachable spaces, in the order of their distance.
    *
-   * @param emptySpaces - The list of empty spaces.
+   * @param field - The distances from the source of the action.
+   * @param from  - The order of the first space to be checked.
+   * @param to    - The order after the last space to be checked.
    * @return The possible targets that has blocks around.
    */
-  private List<Node> findTargets(List<Node> emptySpaces) {
+  private List<Node> findTargets(DistanceField field, int from, int to) {
 
     List<Node> targets = new ArrayList<>();
 
-    int range = player.getFirePower();
+    int firePower = player.getFirePower();
+    BlastKernel kernel = BlastKernel.forType(player.getBombType());
+    int width = field.getWidth();
     // Then check for the number of blocks that could be destroyed for each of the spaces.
-    for (Node space : emptySpaces) {
-      int x = space.getX();
-      int y = space.getY();
+    for (int i = from; i < to; i++) {
+      int cell = field.getReachedCell(i);
 
-      if (boardState.checkBlocks(x, y, range) > 0) {
+      if (boardState.checkBlocks(kernel, cell % width, cell / width, firePower) > 0) {
         // If the area has more than one destroyable block, then it is a possible target.
-        targets.add(space);
+        targets.add(field.createNode(cell));
       }
     }
 
@@ -111,7 +129,8 @@ public class BombBlocksAction extends MultiTargetAction {
       return false;
     }
 
-    hypotheticalBoard = boardState.copyBoard(ai.getBoard());
+    prepareBoard(parentBoard);
+    findDistances(sourceNode);
     if (parentBoard == null) {
       LOGGER.info("Checking action doability from AI.");
     } else {
@@ -119,9 +138,6 @@ public class BombBlocksAction extends MultiTargetAction {
 //      AStarUtils.printMaze(parentBoard, hypotheticalBoard);
     }
 
-    boardState.adaptBoard(hypotheticalBoard, parentBoard);
-
-    // Apply the adaptation of parent board.
     if (!isTargetAcquired()) {
       LOGGER.info("Target not found!");
       return false;
@@ -129,30 +145,27 @@ public class BombBlocksAction extends MultiTargetAction {
 
     chooseTarget(sourceNode);
 
-    LOGGER.info("Has an action path: " + (actionPath != null));
-    return actionPath != null;
+    LOGGER.info("Has an action path: " + hasActionPath());
+    return hasActionPath();
   }
 
   @Override
   public boolean isTargetAcquired() {
 
+    if (distanceField == null) {
+      findDistances(NodeUtils.createNode(player));
+    }
+
     possibleTargets.clear();
-    // Find empty spaces with the default depth value.
-    List<Node> emptySpaces = pathFinder.searchSpaces(hypotheticalBoard,
-        NodeUtils.createNode(player),
+    // Look for targets among the nearest spaces first.
+    int reached = distanceField.getReachedCount();
+    int near = Math.min(reached,
         (int) (player.getSpeedLevel() * WorldConstants.DETECTION_RANGE));
 
-    possibleTargets.addAll(findTargets(emptySpaces));
+    possibleTargets.addAll(findTargets(distanceField, 0, near));
 
     if (possibleTargets.size() == 0) {
-
-      List<Node> largerEmptySpaces = pathFinder.searchSpaces(hypotheticalBoard,
-          NodeUtils.createNode(player),
-          (int) (WorldConstants.WORLD_HEIGHT * WorldConstants.WORLD_WIDTH));
-
-      possibleTargets.addAll(findTargets(NodeUtils.removeDuplicates(largerEmptySpaces,
-          emptySpaces)));
-
+      possibleTargets.addAll(findTargets(distanceField, near, reached));
     }
 
     return possibleTargets.size() > 0;
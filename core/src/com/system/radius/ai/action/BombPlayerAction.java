@@ -6,105 +6,105 @@ import com.system.radius.enums.PlayerState;
 import com.system.radius.objects.players.Player;
 import com.system.radius.utils.BombUtils;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class BombPlayerAction extends Action {
 
+  /**
+   * Indicates that only the first segment of the way to the enemy is known, so the action path
+   * leads closer to the enemy rather than to the bombing spot.
+   */
+  private boolean approaching;
+
   public BombPlayerAction(Ai ai, Action... chained) {
     super(ai, chained);
   }
 
-  private void processPath() {
+  /**
+   * Finds where to plant the bomb along the path to the enemy: the walk stops where the rest of
+   * the path runs straight to the enemy, within the range of the fire.
+   *
+   * @return The number of cells to be walked, from the start of the found path.
+   */
+  private int findBombingLength() {
 
-    int size = actionPath.size();
+    int size = foundPath.getLength();
     if (size == 0) {
-      return;
+      return 0;
     }
 
     int range = player.getFirePower();
-
-    // Find a path to the player that is straight.
-    List<Node> straightPath = new ArrayList<>();
-
-    // Remove the last two paths to determine the direction.
-    Node finalNode = actionPath.get(size - 1);
-
-    straightPath.add(finalNode);
-
     if (range == 1 || size == 1) {
       // Special behavior if the AI only has 1 range.
-      actionPath.removeAll(straightPath);
-      return;
+      return size - 1;
     }
 
-    int exactX = boardState.getExactX(player);
-    int exactY = boardState.getExactY(player);
-    actionPath.add(0, new Node(null, exactX, exactY, 0, 0));
-
-    size = actionPath.size();
-
-    Node lastNodeChecked = actionPath.get(size - 2);
-    straightPath.add(0, lastNodeChecked);
-
-    int finalNodeX = finalNode.getX();
-    int finalNodeY = finalNode.getY();
+    // The cells are counted from the player's cell, which comes before the found path.
+    int cells = size + 1;
 
-    int lastNodeX = lastNodeChecked.getX();
-    int lastNodeY = lastNodeChecked.getY();
+    int lastX = getPathX(cells - 2);
+    int lastY = getPathY(cells - 2);
+    boolean horizontal = getPathX(cells - 1) != lastX;
+    boolean vertical = getPathY(cells - 1) != lastY;
 
-    boolean horizontal = finalNodeX != lastNodeX;
-    boolean vertical = finalNodeY != lastNodeY;
-
-    // Start from the third node to the last, since the first two were already checked.
-    for (int i = size - 3; i >= 0; i--) {
-
-      Node node = actionPath.get(i);
+    // The straight stretch ends at the enemy. It starts with the last two cells, then grows
+    // backwards for as long as the path keeps the same direction.
+    int straight = cells - 2;
+    for (int i = cells - 3; i >= 0; i--) {
 
       if (horizontal) {
-        int nodeX = node.getX();
-
-        if (nodeX == lastNodeX) {
-//          straightPath.remove(straightPath.size() - 1);
-          straightPath.remove(0);
+        int x = getPathX(i);
+        if (x == lastX) {
+          // The path turns here, the cell after the turn is where the stretch begins.
+          straight = i + 2;
           break;
         }
 
-        lastNodeX = nodeX;
+        lastX = x;
 
       } else if (vertical) {
-        int nodeY = node.getY();
-
-        if (nodeY == lastNodeY) {
-//          straightPath.remove(straightPath.size() - 1);
-          straightPath.remove(0);
+        int y = getPathY(i);
+        if (y == lastY) {
+          straight = i + 2;
           break;
         }
 
-        lastNodeY = nodeY;
+        lastY = y;
 
       }
-      straightPath.add(0, node);
+      straight = i;
 
     }
 
-    if (straightPath.size() > range) {
-      int spSize = straightPath.size();
-      straightPath = straightPath.subList(spSize - range, spSize);
-    }
+    // The fire only reaches as far as the range of the bomb.
+    straight = Math.max(straight, cells - range);
+
+    // Without the player's cell, the cells before the straight stretch are walked.
+    return Math.max(straight - 1, 0);
+  }
+
+  /**
+   * @param index - The index of the cell, 0 being the player's cell and the found path following.
+   * @return The X coordinate of the cell.
+   */
+  private int getPathX(int index) {
+    return index == 0 ? boardState.getExactX(player) : foundPath.getX(index - 1);
+  }
 
-    actionPath.remove(0);
-    actionPath.removeAll(straightPath);
+  /**
+   * @param index - The index of the cell, 0 being the player's cell and the found path following.
+   * @return The Y coordinate of the cell.
+   */
+  private int getPathY(int index) {
+    return index == 0 ? boardState.getExactY(player) : foundPath.getY(index - 1);
   }
 
   @Override
   public boolean isDoable(int[][] parentBoard, Node source) {
 
-    // Create the board based on the current events.
-    hypotheticalBoard = boardState.copyBoard(ai.getBoard());
-
-    // Adapt the values from the parent board for the projection of future behavior.
-    boardState.adaptBoard(hypotheticalBoard, parentBoard);
+    // Create the board based on the current events, adapting the values from the parent board
+    // for the projection of future behavior.
+    prepareBoard(parentBoard);
 
     if (!isTargetAcquired()) {
       return false;
@@ -116,25 +116,40 @@ public class BombPlayerAction extends Action {
       source = new Node(null, playerX, playerY, 0, 0);
     }
 
-    actionPath = pathFinder.findShortestPath(hypotheticalBoard, source, target);
+    // The enemy keeps moving and the way is planned again at every decision, so only the next
+    // leg of it is needed.
+    if (!findFirstSegment(source, target, foundPath)) {
+      // There is no way to reach the target. This action cannot be done.
+      clearActionPath();
+      return false;
+    }
 
     // This means that there is a definite path from the AI to the enemy.
-    boolean canAct = actionPath != null && actionPath.size() != 0;
+    boolean canAct = foundPath.getLength() != 0;
     if (canAct) {
       complete = false;
     }
 
-    if (actionPath == null) {
-      // There is no way to reach the target. This action cannot be done.
-      return false;
+    int last = foundPath.getLength() - 1;
+    approaching = canAct && (foundPath.getX(last) != target.getX() ||
+        foundPath.getY(last) != target.getY());
+    if (approaching) {
+      // The enemy is farther than the first leg, which is walked whole before looking again.
+      keepFoundPath(foundPath.getLength());
+      return true;
     }
-    // Path processing removes some part of the path acquired, which is why the size is saved.
-    processPath();
-    if (actionPath.size() > 0) {
-      Node lastNode = actionPath.get(actionPath.size() - 1);
-      BombUtils.updateBoardCost(hypotheticalBoard, lastNode, player);
+
+    // Only the walk up to the bombing spot is kept, the path is not turned into nodes unless it
+    // is to be walked.
+    int length = findBombingLength();
+    keepFoundPath(length);
+    if (length > 0) {
+      Node lastNode = new Node(null, foundPath.getX(length - 1), foundPath.getY(length - 1), 0,
+          0);
+      BombUtils.updateBoardCost(overlay, lastNode, player);
+      adapted = true;
       // There should be at least one chained action.
-      activeChainedAction.isDoable(hypotheticalBoard, lastNode);
+      activeChainedAction.isDoableOnLayer(overlay, lastNode);
     }
 
     return canAct;
@@ -148,16 +163,7 @@ public class BombPlayerAction extends Action {
     int playerX = boardState.getExactX(player);
     int playerY = boardState.getExactY(player);
 
-    int playerMinX = playerX - detectionRange;
-    int playerMaxX = playerX + detectionRange;
-
-    int playerMinY = playerY - detectionRange;
-    int playerMaxY = playerY + detectionRange;
-
-    int diffX = Integer.MAX_VALUE;
-    int diffY = Integer.MAX_VALUE;
-
-    target = null;
+    long enemies = 0;
     List<Player> players = boardState.getPlayers();
     for (Player enemy : players) {
 
@@ -168,22 +174,15 @@ public class BombPlayerAction extends Action {
         continue;
       }
 
-      int enemyX = boardState.getExactX(enemy);
-      int enemyY = boardState.getExactY(enemy);
-
-      if (enemyX >= playerMinX && enemyX <= playerMaxX && enemyY >= playerMinY && enemyY <= playerMaxY) {
-
-        int tempX = Math.abs(enemyX - playerX);
-        int tempY = Math.abs(enemyY - playerY);
-
-        if (tempX < diffX && tempY < diffY) {
-
-          target = new Node(null, enemyX, enemyY, 0, 0);
-          diffX = tempX;
-          diffY = tempY;
+      enemies |= 1L << enemy.getId();
+    }
 
-        }
-      }
+    // The closest enemy is looked up from the cells around the player.
+    target = null;
+    int nearest = boardState.getOccupancy().findNearest(playerX, playerY, detectionRange, enemies);
+    if (nearest >= 0) {
+      Player enemy = players.get(nearest);
+      target = new Node(null, boardState.getExactX(enemy), boardState.getExactY(enemy), 0, 0);
     }
 
     return target != null;
@@ -192,7 +191,8 @@ public class BombPlayerAction extends Action {
   @Override
   public void act() {
 
-    if (!isDoable()) {
+    if (!isDoable() || approaching) {
+      // Either the enemy is out of reach, or the way to it is still being walked.
       return;
     }
 
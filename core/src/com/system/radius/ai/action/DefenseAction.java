@@ -2,9 +2,14 @@ package com.system.radius.ai.action;
 
 import com.system.radius.ai.Ai;
 import com.system.radius.ai.Node;
-import com.system.radius.objects.board.WorldConstants;
+import com.system.radius.ai.path.DistanceField;
+import com.system.radius.objects.board.BitBoard;
+import com.system.radius.objects.board.BoardOverlay;
 import com.system.radius.objects.players.Player;
+import com.system.radius.utils.AStarUtils;
+import com.system.radius.utils.ConfigUtils;
 import com.system.radius.utils.NodeUtils;
+import com.system.radius.utils.SpaceTimeAStarUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,10 +20,30 @@ public class DefenseAction extends MultiTargetAction {
 
   private int lastCost = 0;
 
+  /**
+   * The overlay through which the safe spaces are marked: this action's own, or the one of the
+   * parent action while checking on a layer over its board.
+   */
+  private BoardOverlay marking = overlay;
+
+  /**
+   * Whether the safe spaces are looked up from the bit boards of the board state whenever the
+   * hypothetical board is still the AI's board, instead of searching the hypothetical board.
+   */
+  private boolean bitBoardSearch = true;
+
+  private BitBoard safeCells;
+
   public DefenseAction(Ai ai, Action... chained) {
     super(ai, chained);
   }
 
+  @Override
+  protected AStarUtils createPathFinder() {
+    // Escaping is where getting through a fire area before it goes off matters the most.
+    return new SpaceTimeAStarUtils(player);
+  }
+
   @Override
   protected void chooseTarget(Node source) {
 
@@ -30,32 +55,44 @@ public class DefenseAction extends MultiTargetAction {
       target = null;
     }
 
+    // The current target stays unless a cheaper safe space is found.
+    DistanceField field = findDistances(source);
+    Node best = null;
+    int bestCost = target != null ? (int) target.getCost() : DistanceField.UNREACHABLE;
+
     for (Node node : possibleTargets) {
-//      if (source.toString().equals(node.toString())) {
-//        // There will be no need to update the action path as the current target node is reached.
-//        // Once the AI is safe, the current values for the fire path in the hypothetical board
-//        // will be turned into blockers. Further added bombs after this should not be affected.
-//        safe = true;
-//        actionPath = new ArrayList<>();
-//        break;
-//      }
-
-      int spacesCounter = pathFinder.searchSpaces(hypotheticalBoard, node, range).size();
-      List<Node> path = pathFinder.findShortestPath(hypotheticalBoard, source, node);
-
-      if (path == null || spacesCounter < spacesNear) {
+
+      int cost = field.getDistance(node.getX(), node.getY());
+      if (cost == DistanceField.UNREACHABLE) {
+        continue;
+      }
+
+      int spacesCounter = pathFinder.countSpaces(hypotheticalBoard, node, range);
+      if (spacesCounter < spacesNear) {
         continue;
       }
 
-      // Get the last node from the path.
-      node = path.get(path.size() - 1);
-      if (target == null || node.getCost() < target.getCost()) {
-        target = node;
-        actionPath = path;
+      if (cost < bestCost) {
+        best = node;
+        bestCost = cost;
         spacesNear = spacesCounter;
+      }
+    }
 
-        lastCost = getBoardCost(target);
+    if (best != null) {
+      // The distances only rank the safe spaces, the path to the chosen one is planned around
+      // the bomb timers. The ranked path is kept if there is no timely way. The path stays in
+      // cells, as most checks only ask whether there is an escape at all.
+      if (pathFinder.findShortestPath(hypotheticalBoard, source, best, foundPath) ||
+          field.extractPath(best.getX(), best.getY(), foundPath)) {
+        keepFoundPath(foundPath.getLength());
+      } else {
+        clearActionPath();
       }
+
+      target = field.createNode(best.getY() * field.getWidth() + best.getX());
+
+      lastCost = getBoardCost(target);
     }
 
   }
@@ -74,8 +111,8 @@ public class DefenseAction extends MultiTargetAction {
   private void blockFirePaths() {
 
     int ms = (int) player.getSpeedLevel();
-    int h = (int) WorldConstants.WORLD_HEIGHT;
-    int w = (int) WorldConstants.WORLD_WIDTH;
+    int h = boardState.getBoardHeight();
+    int w = boardState.getBoardWidth();
     for (int i = 0; i < h; i++) {
       for (int j = 0; j < w; j++) {
 
@@ -84,7 +121,7 @@ public class DefenseAction extends MultiTargetAction {
           continue;
         }
 
-        hypotheticalBoard[i][j] = -1;
+        overlay.set(j, i, -1);
       }
     }
 
@@ -94,7 +131,7 @@ public class DefenseAction extends MultiTargetAction {
   public boolean isDoable(int[][] parentBoard, Node source) {
 
     boolean chained = parentBoard != null;
-    hypotheticalBoard = boardState.copyBoard(ai.getBoard());
+    prepareBoard(parentBoard);
 //    if (!chained) {
 //      LOGGER.info("Checking action doability from AI.");
 //    } else {
@@ -102,7 +139,34 @@ public class DefenseAction extends MultiTargetAction {
 //      AStarUtils.printMaze(parentBoard, hypotheticalBoard);
 //    }
 
-    boardState.adaptBoard(hypotheticalBoard, parentBoard);
+    marking = overlay;
+
+    return checkDoable(source);
+  }
+
+  /**
+   * Checks the escape on a layer over the parent's board, instead of on a copy of it. The safe
+   * spaces are marked within the layer, which is discarded once the path is found.
+   */
+  @Override
+  public boolean isDoableOnLayer(BoardOverlay parentOverlay, Node source) {
+
+    int[][] ownBoard = hypotheticalBoard;
+    hypotheticalBoard = parentOverlay.getBoard();
+    marking = parentOverlay;
+    adapted = true;
+
+    parentOverlay.push();
+    boolean doable = checkDoable(source);
+    parentOverlay.pop();
+
+    hypotheticalBoard = ownBoard;
+    marking = overlay;
+
+    return doable;
+  }
+
+  private boolean checkDoable(Node source) {
 
     isTargetAcquired();
 
@@ -110,18 +174,10 @@ public class DefenseAction extends MultiTargetAction {
 
     // This action can sometimes be not doable. lol
     // Especially if checking from the side of bombing blocks.
-    boolean doable = actionPath != null && possibleTargets.size() != 0;
+    boolean doable = hasActionPath() && possibleTargets.size() != 0;
 
     if (doable) {
-      if (chained) {
-        Node lastNode = actionPath.size() > 0 ? actionPath.get(actionPath.size() - 1) :
-            NodeUtils.createNode(player);
-        int x = lastNode.getX();
-        int y = lastNode.getY();
-        parentBoard[y][x] = 0;
-      }
-
-      LOGGER.info("Action is doable! Current path size: " + actionPath.size());
+      LOGGER.info("Action is doable! Current path size: " + getActionPathLength());
     } else {
       LOGGER.info("Defense action cannot be done!");
     }
@@ -134,7 +190,29 @@ public class DefenseAction extends MultiTargetAction {
 
     possibleTargets.clear();
 //    LOGGER.info("Cleared safety spaces: " + possibleTargets.size());
-    int detectionRange = (int) Math.max(WorldConstants.WORLD_WIDTH, WorldConstants.WORLD_HEIGHT);
+    int detectionRange = Math.max(boardState.getBoardWidth(), boardState.getBoardHeight());
+
+    if (bitBoardSearch && !adapted && ai.isBoardCurrent()) {
+      findSafeCells(detectionRange);
+    } else {
+      searchSafeSpaces(detectionRange);
+    }
+
+    if (possibleTargets.size() > 0) {
+      // The safe spaces are now free to move into, the board no longer matches the AI's board.
+      adapted = true;
+    }
+
+    return possibleTargets.size() > 0;
+  }
+
+  /**
+   * Searches the hypothetical board for the reachable spaces that no fire covers, marking them as
+   * free to move into.
+   *
+   * @param detectionRange - The maximum number of steps from the player.
+   */
+  private void searchSafeSpaces(int detectionRange) {
 
     List<Node> emptySpaces = pathFinder.searchSpaces(hypotheticalBoard,
         NodeUtils.createNode(player), detectionRange);
@@ -150,13 +228,48 @@ public class DefenseAction extends MultiTargetAction {
 //      LOGGER.info("Comparing: " + hypotheticalBoard[y][x] + " vs. " + movementCost);
       if (hypotheticalBoard[y][x] == movementCost || hypotheticalBoard[y][x] == 0) {
 //        LOGGER.info("Adding safe space!");
-        hypotheticalBoard[y][x] = 0;
+        marking.set(x, y, 0);
         possibleTargets.add(space);
       }
 
     }
+  }
 
-    return possibleTargets.size() > 0;
+  /**
+   * Looks up the same spaces as {@link #searchSafeSpaces(int)} from the bit boards of the board
+   * state, which only holds while the hypothetical board is the AI's board, built from the current
+   * state of the board.
+   *
+   * @param detectionRange - The maximum number of steps from the player.
+   */
+  private void findSafeCells(int detectionRange) {
+
+    int width = boardState.getBoardWidth();
+    if (safeCells == null) {
+      safeCells = new BitBoard(width, boardState.getBoardHeight());
+    }
+
+    Node source = NodeUtils.createNode(player);
+    boardState.getBoardBits().findSafeCells(source.getX(), source.getY(), detectionRange,
+        safeCells);
+
+    for (int cell = safeCells.nextSetCell(0); cell >= 0; cell = safeCells.nextSetCell(cell + 1)) {
+      int x = cell % width;
+      int y = cell / width;
+
+      marking.set(x, y, 0);
+      possibleTargets.add(new Node(null, x, y, 0, 0));
+    }
+  }
+
+  /**
+   * Switches the lookup of the safe spaces between the bit boards of the board state and the
+   * search over the hypothetical board.
+   *
+   * @param bitBoardSearch - {@code true} to use the bit boards whenever they apply.
+   */
+  public void setBitBoardSearch(boolean bitBoardSearch) {
+    this.bitBoardSearch = bitBoardSearch;
   }
 
   @Override
@@ -168,6 +281,11 @@ public class DefenseAction extends MultiTargetAction {
 //    LOGGER.info("Attempting to act. Is AI safe: " + safe);
 
     // Once this act method is called, it is automatically assumed that the AI is already safe.
+    // The remote bombs only go off when set off, which is now.
+    if (ConfigUtils.isBombKindsEnabled() && player.hasRemoteBombs()) {
+      player.triggerBomb();
+    }
+
     blockFirePaths();
     Node sourceNode = NodeUtils.createNode(player);
     for (Action action : chainedActions) {
@@ -29,12 +29,33 @@ public abstract class MultiTargetAction extends Action {
    */
   protected abstract void chooseTarget(Node source);
 
+  /**
+   * Keeps the path to the main target as the action path. On the AI's board the path finder is
+   * asked for it, as the main target tends to stay put across the decisions, and an incremental
+   * path finder only repairs its search from the cells that changed since. An adapted board is a
+   * one-off, so the path is read from the distance field instead.
+   *
+   * @param source - The origin of action.
+   */
+  protected void keepMainPath(Node source) {
+
+    boolean found = adapted ?
+        distanceField.extractPath(mainTarget.getX(), mainTarget.getY(), foundPath) :
+        pathFinder.findShortestPath(hypotheticalBoard, source, mainTarget, foundPath);
+
+    if (found) {
+      keepFoundPath(foundPath.getLength());
+    } else {
+      clearActionPath();
+    }
+  }
+
   @Override
   public void onComplete() {
 
     possibleTargets.clear();
     mainTarget = null;
-    actionPath = null;
+    clearActionPath();
 
   }
 
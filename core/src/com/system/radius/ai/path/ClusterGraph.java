@@ -0,0 +1,617 @@
+package com.system.radius.ai.path;
+
+import java.util.Arrays;
+
+/**
+ * An abstraction of a cost board for hierarchical path finding (HPA*). The board is split into
+ * square clusters, and the passable stretches along the border of two clusters are connected by
+ * entrances. Each entrance gives one node to each of the two clusters, and the movement costs
+ * between the nodes of a cluster are computed in advance, so a long path is searched over the
+ * few nodes of the graph instead of over every cell of the board.
+ * <p>
+ * The graph keeps a copy of the costs it was built from. When it is updated with a new board,
+ * only the clusters with changed cells are refreshed, along with their neighbors if an entrance
+ * between them moved.
+ * <p>
+ * The paths found through the graph are near-optimal: they always pass through the entrances,
+ * which may not lie on the cheapest path.
+ */
+public class ClusterGraph {
+
+  /**
+   * The cost given to the nodes that cannot reach each other.
+   */
+  public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  /**
+   * The length from which a stretch along a border gets an entrance at each of its ends instead
+   * of a single one at its middle.
+   */
+  private static final int LONG_ENTRANCE = 6;
+
+  private final int clusterSize;
+
+  private int width;
+
+  private int height;
+
+  private int clustersX;
+
+  private int clustersY;
+
+  /**
+   * The costs the graph was built from, as {@code y * width + x}.
+   */
+  private int[] costs;
+
+  /**
+   * The entrances between each cluster and the cluster to its east, as pairs of the cell on the
+   * west side and the cell on the east side.
+   */
+  private int[][] verticalEntrances;
+
+  /**
+   * The entrances between each cluster and the cluster to its north, as pairs of the cell on the
+   * south side and the cell on the north side.
+   */
+  private int[][] horizontalEntrances;
+
+  /**
+   * The cell of each node, per cluster.
+   */
+  private int[][] nodeCells;
+
+  /**
+   * The global id of the node on the other side of the entrance of each node, per cluster.
+   */
+  private int[][] nodePartners;
+
+  /**
+   * The movement costs between the nodes of each cluster, as {@code from * nodeCount + to}.
+   */
+  private int[][] intraCosts;
+
+  /**
+   * The global id of the first node of each cluster, with one more entry for the node count.
+   */
+  private int[] nodeOffsets;
+
+  /**
+   * The cluster of each node, by global id.
+   */
+  private int[] nodeClusters;
+
+  private boolean[] dirtyClusters;
+
+  private boolean[] changedClusters;
+
+  private final LocalSearch localSearch;
+
+  private int refreshed;
+
+  public ClusterGraph(int clusterSize) {
+    this.clusterSize = clusterSize;
+    this.localSearch = new LocalSearch(clusterSize);
+  }
+
+  /**
+   * Brings the graph up to date with the board. The graph is built from scratch for a new board
+   * size, otherwise only the clusters with changed cells are refreshed.
+   *
+   * @param board - The board with the movement costs.
+   * @return {@code true} if anything changed; {@code false} otherwise.
+   */
+  public boolean update(int[][] board) {
+
+    if (costs == null || board.length != height || board[0].length != width) {
+      build(board);
+      return true;
+    }
+
+    boolean changed = false;
+    for (int y = 0; y < height; y++) {
+      int[] row = board[y];
+      for (int x = 0; x < width; x++) {
+
+        int cell = y * width + x;
+        if (costs[cell] != row[x]) {
+          costs[cell] = row[x];
+          dirtyClusters[getCluster(x, y)] = true;
+          changed = true;
+        }
+      }
+    }
+
+    if (!changed) {
+      return false;
+    }
+
+    refresh();
+    return true;
+  }
+
+  private void build(int[][] board) {
+
+    height = board.length;
+    width = board[0].length;
+    clustersX = (width + clusterSize - 1) / clusterSize;
+    clustersY = (height + clusterSize - 1) / clusterSize;
+
+    costs = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      System.arraycopy(board[y], 0, costs, y * width, width);
+    }
+
+    int clusters = clustersX * clustersY;
+    verticalEntrances = new int[clusters][];
+    horizontalEntrances = new int[clusters][];
+    nodeCells = new int[clusters][];
+    nodePartners = new int[clusters][];
+    intraCosts = new int[clusters][];
+    nodeOffsets = new int[clusters + 1];
+    dirtyClusters = new boolean[clusters];
+    changedClusters = new boolean[clusters];
+
+    Arrays.fill(dirtyClusters, true);
+    refresh();
+  }
+
+  /**
+   * Finds the entrances around the dirty clusters again, and computes the costs within every
+   * cluster whose cells or nodes changed.
+   */
+  private void refresh() {
+
+    int clusters = clustersX * clustersY;
+    for (int cluster = 0; cluster < clusters; cluster++) {
+      changedClusters[cluster] = dirtyClusters[cluster];
+    }
+
+    for (int cluster = 0; cluster < clusters; cluster++) {
+
+      if (!dirtyClusters[cluster]) {
+        continue;
+      }
+
+      int cx = cluster % clustersX;
+      int cy = cluster / clustersX;
+      if (cx > 0) {
+        findVerticalEntrances(cluster - 1);
+      }
+      if (cx + 1 < clustersX) {
+        findVerticalEntrances(cluster);
+      }
+      if (cy > 0) {
+        findHorizontalEntrances(cluster - clustersX);
+      }
+      if (cy + 1 < clustersY) {
+        findHorizontalEntrances(cluster);
+      }
+    }
+
+    collectNodes();
+
+    refreshed = 0;
+    for (int cluster = 0; cluster < clusters; cluster++) {
+      if (changedClusters[cluster]) {
+        computeIntraCosts(cluster);
+        refreshed++;
+      }
+      dirtyClusters[cluster] = false;
+    }
+  }
+
+  private void findVerticalEntrances(int cluster) {
+
+    int cx = cluster % clustersX;
+    int cy = cluster / clustersX;
+    int westX = Math.min((cx + 1) * clusterSize, width) - 1;
+    int minY = cy * clusterSize;
+    int maxY = Math.min(minY + clusterSize, height) - 1;
+
+    int[] entrances = findEntrances(westX, minY, 0, 1, maxY - minY + 1, 1);
+    if (!Arrays.equals(entrances, verticalEntrances[cluster])) {
+      verticalEntrances[cluster] = entrances;
+      changedClusters[cluster] = true;
+      changedClusters[cluster + 1] = true;
+    }
+  }
+
+  private void findHorizontalEntrances(int cluster) {
+
+    int cx = cluster % clustersX;
+    int cy = cluster / clustersX;
+    int southY = Math.min((cy + 1) * clusterSize, height) - 1;
+    int minX = cx * clusterSize;
+    int maxX = Math.min(minX + clusterSize, width) - 1;
+
+    int[] entrances = findEntrances(minX, southY, 1, 0, maxX - minX + 1, width);
+    if (!Arrays.equals(entrances, horizontalEntrances[cluster])) {
+      horizontalEntrances[cluster] = entrances;
+      changedClusters[cluster] = true;
+      changedClusters[cluster + clustersX] = true;
+    }
+  }
+
+  /**
+   * Finds the entrances along a border, walking the cells on its near side.
+   *
+   * @param x      - The X coordinate of the first near cell.
+   * @param y      - The Y coordinate of the first near cell.
+   * @param dx     - The X step along the border.
+   * @param dy     - The Y step along the border.
+   * @param length - The number of cells along the border.
+   * @param across - The cell offset from a near cell to the far cell facing it.
+   * @return The entrances, as pairs of the near cell and the far cell.
+   */
+  private int[] findEntrances(int x, int y, int dx, int dy, int length, int across) {
+
+    int[] found = new int[length * 2];
+    int count = 0;
+    int runStart = -1;
+
+    for (int i = 0; i <= length; i++) {
+
+      int cell = (y + i * dy) * width + (x + i * dx);
+      boolean open = i < length && costs[cell] >= 0 && costs[cell + across] >= 0;
+      if (open && runStart < 0) {
+        runStart = i;
+      } else if (!open && runStart >= 0) {
+
+        int runEnd = i - 1;
+        int step = dy * width + dx;
+        int first = y * width + x;
+        if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+          found[count++] = first + runStart * step;
+          found[count++] = first + runStart * step + across;
+          found[count++] = first + runEnd * step;
+          found[count++] = first + runEnd * step + across;
+        } else {
+          int middle = (runStart + runEnd) / 2;
+          found[count++] = first + middle * step;
+          found[count++] = first + middle * step + across;
+        }
+
+        runStart = -1;
+      }
+    }
+
+    return Arrays.copyOf(found, count);
+  }
+
+  /**
+   * Lays out the nodes of every cluster from the entrances, and links each node to its partner on
+   * the other side of the entrance. The nodes of a cluster come from its southern, western,
+   * eastern and northern borders, in that order.
+   */
+  private void collectNodes() {
+
+    int clusters = clustersX * clustersY;
+
+    int total = 0;
+    for (int cluster = 0; cluster < clusters; cluster++) {
+
+      nodeOffsets[cluster] = total;
+
+      int count = 0;
+      count += countPairs(southBorder(cluster));
+      count += countPairs(westBorder(cluster));
+      count += countPairs(verticalEntrances[cluster]);
+      count += countPairs(horizontalEntrances[cluster]);
+
+      if (nodeCells[cluster] == null || nodeCells[cluster].length != count) {
+        nodeCells[cluster] = new int[count];
+        nodePartners[cluster] = new int[count];
+      }
+
+      total += count;
+    }
+    nodeOffsets[clusters] = total;
+
+    if (nodeClusters == null || nodeClusters.length < total) {
+      nodeClusters = new int[total];
+    }
+
+    for (int cluster = 0; cluster < clusters; cluster++) {
+
+      int cx = cluster % clustersX;
+      int cy = cluster / clustersX;
+      int index = 0;
+
+      // Southern border, this cluster is the north side.
+      if (cy > 0) {
+        int south = cluster - clustersX;
+        index = addNodes(cluster, index, horizontalEntrances[south], 1, south,
+            northOffset(south));
+      }
+
+      // Western border, this cluster is the east side.
+      if (cx > 0) {
+        int west = cluster - 1;
+        index = addNodes(cluster, index, verticalEntrances[west], 1, west, eastOffset(west));
+      }
+
+      // Eastern border, this cluster is the west side.
+      if (cx + 1 < clustersX) {
+        int east = cluster + 1;
+        index = addNodes(cluster, index, verticalEntrances[cluster], 0, east, westOffset(east));
+      }
+
+      // Northern border, this cluster is the south side.
+      if (cy + 1 < clustersY) {
+        int north = cluster + clustersX;
+        addNodes(cluster, index, horizontalEntrances[cluster], 0, north, 0);
+      }
+    }
+  }
+
+  private int addNodes(int cluster, int index, int[] entrances, int side, int other,
+                       int otherOffset) {
+
+    int offset = nodeOffsets[cluster];
+    for (int i = 0; i < entrances.length; i += 2) {
+      nodeCells[cluster][index] = entrances[i + side];
+      nodePartners[cluster][index] = nodeOffsets[other] + otherOffset + i / 2;
+      nodeClusters[offset + index] = cluster;
+      index++;
+    }
+
+    return index;
+  }
+
+  private int westOffset(int cluster) {
+    return countPairs(southBorder(cluster));
+  }
+
+  private int eastOffset(int cluster) {
+    return westOffset(cluster) + countPairs(westBorder(cluster));
+  }
+
+  private int northOffset(int cluster) {
+    return eastOffset(cluster) + countPairs(verticalEntrances[cluster]);
+  }
+
+  private int[] southBorder(int cluster) {
+    return cluster / clustersX > 0 ? horizontalEntrances[cluster - clustersX] : null;
+  }
+
+  private int[] westBorder(int cluster) {
+    return cluster % clustersX > 0 ? verticalEntrances[cluster - 1] : null;
+  }
+
+  private static int countPairs(int[] entrances) {
+    return entrances == null ? 0 : entrances.length / 2;
+  }
+
+  private void computeIntraCosts(int cluster) {
+
+    int[] cells = nodeCells[cluster];
+    int count = cells.length;
+
+    int[] matrix = intraCosts[cluster];
+    if (matrix == null || matrix.length != count * count) {
+      matrix = new int[count * count];
+      intraCosts[cluster] = matrix;
+    }
+
+    for (int from = 0; from < count; from++) {
+
+      spread(cluster, cells[from], false);
+      for (int to = 0; to < count; to++) {
+        matrix[from * count + to] = localSearch.getDistance(cells[to] % width,
+            cells[to] / width);
+      }
+    }
+  }
+
+  /**
+   * Computes the movement costs between a cell and every cell of a cluster, without leaving the
+   * cluster. The costs can then be read with {@link #getLocalDistance(int)}.
+   *
+   * @param cluster - The cluster to be searched.
+   * @param cell    - The cell to start from, which must be in the cluster.
+   * @param reverse - {@code true} for the costs of moving from every cell to the given cell;
+   *                {@code false} for the costs of moving from the given cell to every cell.
+   */
+  public void spread(int cluster, int cell, boolean reverse) {
+
+    int minX = (cluster % clustersX) * clusterSize;
+    int minY = (cluster / clustersX) * clusterSize;
+    int maxX = Math.min(minX + clusterSize, width) - 1;
+    int maxY = Math.min(minY + clusterSize, height) - 1;
+
+    localSearch.spread(costs, width, minX, minY, maxX, maxY, cell % width, cell / width, reverse);
+  }
+
+  /**
+   * @param cell - A cell of the cluster last spread over.
+   * @return The cost computed by the last spread, or {@link #UNREACHABLE}.
+   */
+  public int getLocalDistance(int cell) {
+    return localSearch.getDistance(cell % width, cell / width);
+  }
+
+  public int getCluster(int x, int y) {
+    return (y / clusterSize) * clustersX + (x / clusterSize);
+  }
+
+  /**
+   * Gets the bounds of a cluster.
+   *
+   * @param cluster - The cluster.
+   * @param bounds  - The array to receive the lowest X, lowest Y, highest X and highest Y.
+   */
+  public void getBounds(int cluster, int[] bounds) {
+
+    bounds[0] = (cluster % clustersX) * clusterSize;
+    bounds[1] = (cluster / clustersX) * clusterSize;
+    bounds[2] = Math.min(bounds[0] + clusterSize, width) - 1;
+    bounds[3] = Math.min(bounds[1] + clusterSize, height) - 1;
+  }
+
+  /**
+   * @return The number of nodes over all the clusters.
+   */
+  public int getNodeCount() {
+    return nodeOffsets[clustersX * clustersY];
+  }
+
+  public int getNodeCell(int node) {
+
+    int cluster = nodeClusters[node];
+    return nodeCells[cluster][node - nodeOffsets[cluster]];
+  }
+
+  public int getNodeCluster(int node) {
+    return nodeClusters[node];
+  }
+
+  /**
+   * @param node - The global id of a node.
+   * @return The global id of the node on the other side of its entrance.
+   */
+  public int getPartner(int node) {
+
+    int cluster = nodeClusters[node];
+    return nodePartners[cluster][node - nodeOffsets[cluster]];
+  }
+
+  public int getFirstNode(int cluster) {
+    return nodeOffsets[cluster];
+  }
+
+  public int getClusterNodeCount(int cluster) {
+    return nodeCells[cluster].length;
+  }
+
+  /**
+   * @param from - The global id of the node to move from.
+   * @param to   - The global id of the node to move to, in the same cluster.
+   * @return The movement cost within the cluster, or {@link #UNREACHABLE}.
+   */
+  public int getIntraCost(int from, int to) {
+
+    int cluster = nodeClusters[from];
+    int offset = nodeOffsets[cluster];
+    int count = nodeCells[cluster].length;
+
+    return intraCosts[cluster][(from - offset) * count + (to - offset)];
+  }
+
+  /**
+   * @param cell - The cell, as {@code y * width + x}.
+   * @return The cost of the cell as of the last update.
+   */
+  public int getCost(int cell) {
+    return costs[cell];
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * @return The number of clusters whose costs were computed by the last update.
+   */
+  public int getRefreshed() {
+    return refreshed;
+  }
+
+  /**
+   * A Dijkstra search bounded to a single cluster.
+   */
+  private static class LocalSearch {
+
+    private final int size;
+
+    private final int[] distances;
+
+    private final int[] stamps;
+
+    private final IndexedMinHeap openHeap;
+
+    private int generation;
+
+    private int minX;
+
+    private int minY;
+
+    LocalSearch(int size) {
+
+      this.size = size;
+      distances = new int[size * size];
+      stamps = new int[size * size];
+      openHeap = new IndexedMinHeap(size * size);
+    }
+
+    void spread(int[] costs, int width, int minX, int minY, int maxX, int maxY, int sourceX,
+                int sourceY, boolean reverse) {
+
+      this.minX = minX;
+      this.minY = minY;
+
+      openHeap.clear();
+      if (++generation == 0) {
+        Arrays.fill(stamps, 0);
+        generation = 1;
+      }
+
+      int source = (sourceY - minY) * size + (sourceX - minX);
+      if (reverse && costs[sourceY * width + sourceX] < 0) {
+        // Nothing can move into the source.
+        return;
+      }
+
+      stamps[source] = generation;
+      distances[source] = 0;
+      openHeap.put(source, 0);
+
+      while (!openHeap.isEmpty()) {
+
+        int local = openHeap.poll();
+        int x = minX + local % size;
+        int y = minY + local / size;
+        int distance = distances[local];
+
+        // Moving backwards, the cost is the one of the cell being left towards the source.
+        int leaving = reverse ? 1 + costs[y * width + x] : 0;
+
+        for (int i = 0; i < 4; i++) {
+
+          int childX = x + (i == 1 ? -1 : i == 2 ? 1 : 0);
+          int childY = y + (i == 0 ? -1 : i == 3 ? 1 : 0);
+          if (childX < minX || childX > maxX || childY < minY || childY > maxY) {
+            continue;
+          }
+
+          int value = costs[childY * width + childX];
+          if (value < 0) {
+            continue;
+          }
+
+          int child = (childY - minY) * size + (childX - minX);
+          int childDistance = distance + (reverse ? leaving : 1 + value);
+          if (stamps[child] == generation &&
+              (childDistance >= distances[child] || !openHeap.contains(child))) {
+            continue;
+          }
+
+          stamps[child] = generation;
+          distances[child] = childDistance;
+          openHeap.put(child, childDistance);
+        }
+      }
+    }
+
+    int getDistance(int x, int y) {
+
+      int local = (y - minY) * size + (x - minX);
+      return stamps[local] == generation ? distances[local] : UNREACHABLE;
+    }
+  }
+
+}
@@ -0,0 +1,240 @@
+package com.system.radius.ai.path;
+
+import com.system.radius.ai.Node;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The cheapest movement cost from one source cell to every reachable cell of a board, along with
+ * the cell that leads to each of them. Once computed, the distance to any cell is a lookup, and
+ * the path to any cell can be extracted in as many steps as the path is long.
+ * <p>
+ * The costs follow the same rules as the A* search: stepping into a cell costs
+ * {@code 1 + board[y][x]}, and cells with negative values cannot be entered.
+ */
+public class DistanceField {
+
+  /**
+   * The distance given for the cells that cannot be reached.
+   */
+  public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  private int width;
+
+  private int height;
+
+  private int[] distances;
+
+  private int[] parents;
+
+  /**
+   * Marks the cells reached by the current computation, by holding its generation.
+   */
+  private int[] stamps;
+
+  /**
+   * The reached cells, in the order they were settled, which is by increasing distance.
+   */
+  private int[] settled;
+
+  private int settledCount;
+
+  private IndexedMinHeap openHeap;
+
+  private int generation;
+
+  private int sourceX = -1;
+
+  private int sourceY = -1;
+
+  /**
+   * Computes the distances from the source to every cell of the board.
+   *
+   * @param board   - The board with the movement costs.
+   * @param sourceX - The X coordinate of the source.
+   * @param sourceY - The Y coordinate of the source.
+   */
+  public void compute(int[][] board, int sourceX, int sourceY) {
+
+    prepare(board);
+
+    this.sourceX = sourceX;
+    this.sourceY = sourceY;
+
+    int source = sourceY * width + sourceX;
+    distances[source] = 0;
+    parents[source] = -1;
+    stamps[source] = generation;
+
+    int discovered = 0;
+    openHeap.put(source, discovered++);
+
+    while (!openHeap.isEmpty()) {
+
+      int cell = openHeap.poll();
+      settled[settledCount++] = cell;
+
+      int x = cell % width;
+      int y = cell / width;
+      int distance = distances[cell];
+
+      for (int i = 0; i < 4; i++) {
+
+        int childX = x + (i == 1 ? -1 : i == 2 ? 1 : 0);
+        int childY = y + (i == 0 ? -1 : i == 3 ? 1 : 0);
+        if (childX < 0 || childX >= width || childY < 0 || childY >= height ||
+            board[childY][childX] < 0) {
+          continue;
+        }
+
+        int child = childY * width + childX;
+        int childDistance = distance + 1 + board[childY][childX];
+        if (stamps[child] == generation &&
+            (childDistance >= distances[child] || !openHeap.contains(child))) {
+          // Either there is already a cheaper way, or the child is already settled.
+          continue;
+        }
+
+        stamps[child] = generation;
+        distances[child] = childDistance;
+        parents[child] = cell;
+        openHeap.put(child, ((long) childDistance << 32) | discovered++);
+      }
+    }
+  }
+
+  /**
+   * Computes the distances from the source node to every cell of the board.
+   *
+   * @param board  - The board with the movement costs.
+   * @param source - The source node.
+   */
+  public void compute(int[][] board, Node source) {
+    compute(board, source.getX(), source.getY());
+  }
+
+  private void prepare(int[][] board) {
+
+    int cells = board.length * board[0].length;
+    if (distances == null || distances.length != cells) {
+      distances = new int[cells];
+      parents = new int[cells];
+      stamps = new int[cells];
+      settled = new int[cells];
+      openHeap = new IndexedMinHeap(cells);
+      generation = 0;
+    }
+
+    width = board[0].length;
+    height = board.length;
+    settledCount = 0;
+    openHeap.clear();
+
+    if (++generation == 0) {
+      // The generation wrapped around, the old stamps can no longer be trusted.
+      Arrays.fill(stamps, 0);
+      generation = 1;
+    }
+  }
+
+  /**
+   * Checks if this field was computed from the given source.
+   *
+   * @param x - The X coordinate of the source.
+   * @param y - The Y coordinate of the source.
+   * @return {@code true} if the field has the given source; {@code false} otherwise.
+   */
+  public boolean hasSource(int x, int y) {
+    return distances != null && x == sourceX && y == sourceY;
+  }
+
+  public boolean isReachable(int x, int y) {
+    return distances != null && stamps[y * width + x] == generation;
+  }
+
+  /**
+   * @param x - The X coordinate of the cell.
+   * @param y - The Y coordinate of the cell.
+   * @return The movement cost from the source to the cell, or {@link #UNREACHABLE}.
+   */
+  public int getDistance(int x, int y) {
+    return isReachable(x, y) ? distances[y * width + x] : UNREACHABLE;
+  }
+
+  /**
+   * @return The number of cells that can be reached from the source, including the source.
+   */
+  public int getReachedCount() {
+    return settledCount;
+  }
+
+  /**
+   * Gets a reached cell. The cells are ordered by their distance from the source, the source
+   * being the first.
+   *
+   * @param index - The order of the cell.
+   * @return The cell, as {@code y * width + x}.
+   */
+  public int getReachedCell(int index) {
+    return settled[index];
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Creates a node for a reached cell, holding the distance to it as the cost.
+   *
+   * @param cell - The reached cell, as {@code y * width + x}.
+   * @return The node for the cell.
+   */
+  public Node createNode(int cell) {
+    return new Node(null, cell % width, cell / width, distances[cell], 0);
+  }
+
+  /**
+   * Writes the path from the source to the target into the buffer. The path follows the same
+   * convention as the A* paths: the source is excluded, unless it is the target itself.
+   *
+   * @param x    - The X coordinate of the target.
+   * @param y    - The Y coordinate of the target.
+   * @param path - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise.
+   */
+  public boolean extractPath(int x, int y, PathBuffer path) {
+
+    path.reset(width, width * height);
+    if (!isReachable(x, y)) {
+      return false;
+    }
+
+    int target = y * width + x;
+    int source = sourceY * width + sourceX;
+    if (target == source) {
+      path.add(target, 0);
+      return true;
+    }
+
+    for (int cell = target; cell != source; cell = parents[cell]) {
+      path.add(cell, distances[cell]);
+    }
+
+    path.reverse();
+    return true;
+  }
+
+  /**
+   * Creates the path from the source to the target.
+   *
+   * @param x    - The X coordinate of the target.
+   * @param y    - The Y coordinate of the target.
+   * @param path - The buffer to be used while extracting the path.
+   * @return The path in nodes, or {@code null} if the target cannot be reached.
+   */
+  public List<Node> getPath(int x, int y, PathBuffer path) {
+    return extractPath(x, y, path) ? path.toNodes() : null;
+  }
+
+}
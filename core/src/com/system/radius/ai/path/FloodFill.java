@@ -0,0 +1,168 @@
+package com.system.radius.ai.path;
+
+import java.util.Arrays;
+
+/**
+ * A breadth-first flood over the passable cells of a board, i.e. the cells with non-negative
+ * values. The flood counts the steps (hops) from the source to every cell it reaches, and can be
+ * limited to a radius so that only the cells within that many steps are reached.
+ * <p>
+ * The queue is a ring buffer of cells, and the reached cells are marked with a generation stamp,
+ * so a flood costs as much as the number of cells it reaches and does not allocate once the
+ * buffers fit the board.
+ */
+public class FloodFill {
+
+  /**
+   * The radius to be used for a flood without limit.
+   */
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+
+  private int width;
+
+  private int height;
+
+  /**
+   * The ring buffer of cells to be visited. As every cell is queued at most once, it also keeps
+   * the reached cells in the order they were reached.
+   */
+  private int[] queue;
+
+  private int[] hops;
+
+  private int[] stamps;
+
+  private int generation;
+
+  private int count;
+
+  /**
+   * Floods the board from the source.
+   *
+   * @param board   - The board to be flooded, negative values are not passable.
+   * @param sourceX - The X coordinate of the source.
+   * @param sourceY - The Y coordinate of the source.
+   * @param radius  - The maximum number of steps from the source, or {@link #UNLIMITED}.
+   * @return The number of cells reached, including the source.
+   */
+  public int fill(int[][] board, int sourceX, int sourceY, int radius) {
+
+    prepare(board);
+
+    int source = sourceY * width + sourceX;
+    stamps[source] = generation;
+    hops[source] = 0;
+
+    int head = 0;
+    int tail = 0;
+    queue[tail] = source;
+    tail = next(tail);
+    count = 1;
+
+    while (head != tail) {
+
+      int cell = queue[head];
+      head = next(head);
+
+      int hop = hops[cell] + 1;
+      if (hop > radius) {
+        // The flood is done layer by layer, the rest of the queue is at the limit as well.
+        break;
+      }
+
+      int x = cell % width;
+      int y = cell / width;
+
+      if (y - 1 >= 0) {
+        tail = visit(board, x, y - 1, hop, tail);
+      }
+      if (x - 1 >= 0) {
+        tail = visit(board, x - 1, y, hop, tail);
+      }
+      if (x + 1 < width) {
+        tail = visit(board, x + 1, y, hop, tail);
+      }
+      if (y + 1 < height) {
+        tail = visit(board, x, y + 1, hop, tail);
+      }
+    }
+
+    return count;
+  }
+
+  private int visit(int[][] board, int x, int y, int hop, int tail) {
+
+    int cell = y * width + x;
+    if (board[y][x] < 0 || stamps[cell] == generation) {
+      return tail;
+    }
+
+    stamps[cell] = generation;
+    hops[cell] = hop;
+    queue[tail] = cell;
+    count++;
+
+    return next(tail);
+  }
+
+  private int next(int index) {
+    return index + 1 == queue.length ? 0 : index + 1;
+  }
+
+  private void prepare(int[][] board) {
+
+    int cells = board.length * board[0].length;
+    if (queue == null || queue.length != cells) {
+      queue = new int[cells];
+      hops = new int[cells];
+      stamps = new int[cells];
+      generation = 0;
+    }
+
+    width = board[0].length;
+    height = board.length;
+    count = 0;
+
+    if (++generation == 0) {
+      // The generation wrapped around, the old stamps can no longer be trusted.
+      Arrays.fill(stamps, 0);
+      generation = 1;
+    }
+  }
+
+  /**
+   * @return The number of cells reached by the last flood, including the source.
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets a reached cell. The cells are ordered by their number of steps from the source, the
+   * source being the first.
+   *
+   * @param index - The order of the cell.
+   * @return The cell, as {@code y * width + x}.
+   */
+  public int getCell(int index) {
+    return queue[index];
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public boolean isReached(int x, int y) {
+    return queue != null && stamps[y * width + x] == generation;
+  }
+
+  /**
+   * @param x - The X coordinate of the cell.
+   * @param y - The Y coordinate of the cell.
+   * @return The number of steps from the source to the cell, or -1 if the cell was not reached.
+   */
+  public int getHops(int x, int y) {
+    return isReached(x, y) ? hops[y * width + x] : -1;
+  }
+
+}
@@ -0,0 +1,376 @@
+package com.system.radius.ai.path;
+
+import java.util.Arrays;
+
+/**
+ * Finds paths over a {@link ClusterGraph}. The source and the target are linked to the nodes of
+ * their clusters, the graph is searched for the sequence of entrances to pass through, and the
+ * path is then refined into cells one cluster at a time. The refinement can stop after the first
+ * segment, for the callers that only need to know where to go next.
+ * <p>
+ * A source and target in the same cluster are first searched within the cluster alone.
+ */
+public class HierarchicalSearch {
+
+  /**
+   * The size of the clusters, in cells per side.
+   */
+  public static final int DEFAULT_CLUSTER_SIZE = 10;
+
+  private final ClusterGraph graph;
+
+  private final PathBuffer segment = new PathBuffer();
+
+  private PathBuffer candidate = new PathBuffer();
+
+  private PathBuffer best = new PathBuffer();
+
+  private final int[] bounds = new int[4];
+
+  private SearchArena arena;
+
+  private int[] gCosts;
+
+  private int[] parents;
+
+  private int[] stamps;
+
+  private int[] sourceCosts;
+
+  private int[] targetCosts;
+
+  private int[] waypoints;
+
+  private IndexedMinHeap openHeap;
+
+  private int generation;
+
+  private int discovered;
+
+  private int expanded;
+
+  public HierarchicalSearch() {
+    this(DEFAULT_CLUSTER_SIZE);
+  }
+
+  public HierarchicalSearch(int clusterSize) {
+    graph = new ClusterGraph(clusterSize);
+  }
+
+  public ClusterGraph getGraph() {
+    return graph;
+  }
+
+  /**
+   * @return The number of graph nodes explored by the last search.
+   */
+  public int getExpanded() {
+    return expanded;
+  }
+
+  /**
+   * Finds a path between two cells, and writes it to the path buffer. The graph is brought up to
+   * date with the board first.
+   *
+   * @param board        - The board with the movement costs.
+   * @param sourceX      - The X coordinate of the source.
+   * @param sourceY      - The Y coordinate of the source.
+   * @param targetX      - The X coordinate of the target.
+   * @param targetY      - The Y coordinate of the target.
+   * @param firstSegment - {@code true} to only refine the path up to the first entrance on the
+   *                     way; {@code false} to refine the whole path.
+   * @param path         - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise, in which case the
+   * path buffer is left empty.
+   */
+  public boolean findPath(int[][] board, int sourceX, int sourceY, int targetX, int targetY,
+                          boolean firstSegment, PathBuffer path) {
+
+    graph.update(board);
+    prepare(board);
+
+    int width = graph.getWidth();
+    int height = graph.getHeight();
+    expanded = 0;
+    path.reset(width, width * height);
+
+    int source = sourceY * width + sourceX;
+    int target = targetY * width + targetX;
+    if (source == target) {
+      path.add(target, 0);
+      return true;
+    }
+
+    if (board[targetY][targetX] < 0) {
+      return false;
+    }
+
+    if (board[sourceY][sourceX] < 0) {
+      // Nothing can move into the source, e.g. the player stands on a bomb, so no entrance can
+      // account for it. The first move is taken from here instead.
+      return findPathFromNeighbors(board, sourceX, sourceY, targetX, targetY, firstSegment,
+          path);
+    }
+
+    int sourceCluster = graph.getCluster(sourceX, sourceY);
+    int targetCluster = graph.getCluster(targetX, targetY);
+    if (sourceCluster == targetCluster) {
+      graph.getBounds(sourceCluster, bounds);
+      if (arena.findPath(board, bounds[0], bounds[1], bounds[2], bounds[3], sourceX, sourceY,
+          targetX, targetY, path)) {
+        return true;
+      }
+    }
+
+    int count = searchGraph(source, target, sourceCluster, targetCluster);
+    if (count < 0) {
+      return false;
+    }
+
+    refine(board, count, source, target, firstSegment, path);
+    return true;
+  }
+
+  private boolean findPathFromNeighbors(int[][] board, int sourceX, int sourceY, int targetX,
+                                        int targetY, boolean firstSegment, PathBuffer path) {
+
+    int width = graph.getWidth();
+    int height = graph.getHeight();
+    int bestCost = ClusterGraph.UNREACHABLE;
+    int bestStep = -1;
+
+    for (int i = 0; i < 4; i++) {
+
+      int x = sourceX + (i == 1 ? -1 : i == 2 ? 1 : 0);
+      int y = sourceY + (i == 0 ? -1 : i == 3 ? 1 : 0);
+      if (x < 0 || x >= width || y < 0 || y >= height || board[y][x] < 0) {
+        continue;
+      }
+
+      // The whole paths are compared, the first move being the only segment.
+      if (!findPath(board, x, y, targetX, targetY, false, candidate)) {
+        continue;
+      }
+
+      int cost = 1 + board[y][x] + (x == targetX && y == targetY ? 0 :
+          candidate.getTotalCost());
+      if (cost < bestCost) {
+        bestCost = cost;
+        bestStep = y * width + x;
+
+        PathBuffer swap = best;
+        best = candidate;
+        candidate = swap;
+      }
+    }
+
+    path.reset(width, width * height);
+    if (bestStep < 0) {
+      return false;
+    }
+
+    int step = bestCost - (bestStep == targetY * width + targetX ? 0 : best.getTotalCost());
+    path.add(bestStep, step);
+    if (!firstSegment && bestStep != targetY * width + targetX) {
+      for (int i = 0; i < best.getLength(); i++) {
+        path.add(best.getCell(i), step + best.getCost(i));
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Searches the graph for the entrances to pass through.
+   *
+   * @return The number of waypoints, from the source to the target, or -1 if the target cannot
+   * be reached.
+   */
+  private int searchGraph(int source, int target, int sourceCluster, int targetCluster) {
+
+    int nodes = graph.getNodeCount();
+    int sourceNode = nodes;
+    int targetNode = nodes + 1;
+
+    linkCluster(sourceCluster, source, false, sourceCosts);
+    linkCluster(targetCluster, target, true, targetCosts);
+
+    open(sourceNode, -1, 0, heuristic(source, target));
+
+    while (!openHeap.isEmpty()) {
+
+      int node = openHeap.poll();
+      if (node == targetNode) {
+        return collectWaypoints(targetNode);
+      }
+
+      expanded++;
+      int g = gCosts[node];
+
+      if (node == sourceNode) {
+        int first = graph.getFirstNode(sourceCluster);
+        for (int i = 0; i < graph.getClusterNodeCount(sourceCluster); i++) {
+          relax(node, first + i, g, sourceCosts[i], target);
+        }
+        continue;
+      }
+
+      int cluster = graph.getNodeCluster(node);
+      int first = graph.getFirstNode(cluster);
+      for (int i = 0; i < graph.getClusterNodeCount(cluster); i++) {
+        if (first + i != node) {
+          relax(node, first + i, g, graph.getIntraCost(node, first + i), target);
+        }
+      }
+
+      int partner = graph.getPartner(node);
+      relax(node, partner, g, 1 + graph.getCost(graph.getNodeCell(partner)), target);
+
+      if (cluster == targetCluster) {
+        relax(node, targetNode, g, targetCosts[node - first], target);
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Computes the costs between a cell and the nodes of its cluster.
+   *
+   * @param cluster - The cluster of the cell.
+   * @param cell    - The cell.
+   * @param reverse - {@code true} for the costs from the nodes to the cell; {@code false} for the
+   *                costs from the cell to the nodes.
+   * @param costs   - The array to receive the costs, by the order of the nodes in the cluster.
+   */
+  private void linkCluster(int cluster, int cell, boolean reverse, int[] costs) {
+
+    graph.spread(cluster, cell, reverse);
+
+    int first = graph.getFirstNode(cluster);
+    for (int i = 0; i < graph.getClusterNodeCount(cluster); i++) {
+      costs[i] = graph.getLocalDistance(graph.getNodeCell(first + i));
+    }
+  }
+
+  private void relax(int parent, int node, int parentG, int cost, int target) {
+
+    if (cost == ClusterGraph.UNREACHABLE) {
+      return;
+    }
+
+    int g = parentG + cost;
+    if (stamps[node] == generation && (g >= gCosts[node] || !openHeap.contains(node))) {
+      return;
+    }
+
+    int cell = node < graph.getNodeCount() ? graph.getNodeCell(node) : target;
+    open(node, parent, g, g + heuristic(cell, target));
+  }
+
+  private void open(int node, int parent, int g, int f) {
+
+    stamps[node] = generation;
+    gCosts[node] = g;
+    parents[node] = parent;
+    openHeap.put(node, ((long) f << 32) | discovered++);
+  }
+
+  private int collectWaypoints(int targetNode) {
+
+    int count = 0;
+    for (int node = targetNode; node >= 0; node = parents[node]) {
+      waypoints[count++] = node;
+    }
+
+    for (int i = 0, j = count - 1; i < j; i++, j--) {
+      int node = waypoints[i];
+      waypoints[i] = waypoints[j];
+      waypoints[j] = node;
+    }
+
+    return count;
+  }
+
+  /**
+   * Turns the waypoints into cells. Crossing an entrance is a single step, while the moves within
+   * a cluster are searched within the cluster alone.
+   */
+  private void refine(int[][] board, int count, int source, int target, boolean firstSegment,
+                      PathBuffer path) {
+
+    int nodes = graph.getNodeCount();
+    int width = graph.getWidth();
+
+    int cell = source;
+    int cost = 0;
+    int previous = -1;
+
+    for (int i = 1; i < count; i++) {
+
+      int node = waypoints[i];
+      int next = node < nodes ? graph.getNodeCell(node) : target;
+      if (next == cell) {
+        previous = node;
+        continue;
+      }
+
+      if (previous >= 0 && previous < nodes && graph.getPartner(previous) == node) {
+        // Crossing the entrance.
+        cost += 1 + board[next / width][next % width];
+        path.add(next, cost);
+      } else {
+        graph.getBounds(graph.getCluster(cell % width, cell / width), bounds);
+        arena.findPath(board, bounds[0], bounds[1], bounds[2], bounds[3], cell % width,
+            cell / width, next % width, next / width, segment);
+
+        for (int j = 0; j < segment.getLength(); j++) {
+          path.add(segment.getCell(j), cost + segment.getCost(j));
+        }
+        cost = path.getTotalCost();
+      }
+
+      cell = next;
+      previous = node;
+
+      if (firstSegment) {
+        return;
+      }
+    }
+  }
+
+  private int heuristic(int cell, int target) {
+
+    int width = graph.getWidth();
+    return Math.abs(cell % width - target % width) + Math.abs(cell / width - target / width);
+  }
+
+  private void prepare(int[][] board) {
+
+    if (arena == null || !arena.fits(board)) {
+      arena = new SearchArena(board[0].length, board.length);
+    }
+
+    int capacity = graph.getNodeCount() + 2;
+    if (gCosts == null || gCosts.length < capacity) {
+      gCosts = new int[capacity];
+      parents = new int[capacity];
+      stamps = new int[capacity];
+      waypoints = new int[capacity];
+      sourceCosts = new int[capacity];
+      targetCosts = new int[capacity];
+      openHeap = new IndexedMinHeap(capacity);
+      generation = 0;
+    }
+
+    openHeap.clear();
+    discovered = 0;
+
+    if (++generation == 0) {
+      // The generation wrapped around, the old stamps can no longer be trusted.
+      Arrays.fill(stamps, 0);
+      generation = 1;
+    }
+  }
+
+}
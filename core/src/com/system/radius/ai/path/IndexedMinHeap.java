@@ -0,0 +1,218 @@
+package com.system.radius.ai.path;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of board cells keyed by a {@code long}. Each cell can only be in the heap
+ * once, and its position is tracked so that its key can be changed in place (decrease-key) or
+ * the cell removed without searching the heap.
+ * <p>
+ * The heap is sized once for the number of cells of a board, and does not allocate while it is
+ * being used.
+ */
+public class IndexedMinHeap {
+
+  /**
+   * The cells in heap order.
+   */
+  private int[] cells;
+
+  /**
+   * The key for each entry in the heap, parallel to {@link #cells}.
+   */
+  private long[] keys;
+
+  /**
+   * The position of each cell in the heap, or -1 if the cell is not in the heap.
+   */
+  private int[] positions;
+
+  private int size;
+
+  public IndexedMinHeap(int capacity) {
+
+    cells = new int[capacity];
+    keys = new long[capacity];
+    positions = new int[capacity];
+
+    Arrays.fill(positions, -1);
+  }
+
+  public int getCapacity() {
+    return positions.length;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean contains(int cell) {
+    return positions[cell] >= 0;
+  }
+
+  /**
+   * Removes every cell from the heap. Only the cells currently in the heap are touched, so this
+   * costs as much as the heap is big rather than as much as the board is big.
+   */
+  public void clear() {
+
+    for (int i = 0; i < size; i++) {
+      positions[cells[i]] = -1;
+    }
+
+    size = 0;
+  }
+
+  /**
+   * Adds the cell with the given key, or changes its key if it is already in the heap.
+   *
+   * @param cell - The cell to be added or updated.
+   * @param key  - The key of the cell, lower keys are polled first.
+   */
+  public void put(int cell, long key) {
+
+    int position = positions[cell];
+    if (position < 0) {
+      position = size++;
+      cells[position] = cell;
+      keys[position] = key;
+      positions[cell] = position;
+      siftUp(position);
+      return;
+    }
+
+    long oldKey = keys[position];
+    keys[position] = key;
+    if (key < oldKey) {
+      siftUp(position);
+    } else if (key > oldKey) {
+      siftDown(position);
+    }
+  }
+
+  /**
+   * Removes the cell from the heap, if it is in there.
+   *
+   * @param cell - The cell to be removed.
+   */
+  public void remove(int cell) {
+
+    int position = positions[cell];
+    if (position < 0) {
+      return;
+    }
+
+    positions[cell] = -1;
+    size--;
+    if (position == size) {
+      return;
+    }
+
+    long oldKey = keys[position];
+    move(size, position);
+    if (keys[position] < oldKey) {
+      siftUp(position);
+    } else {
+      siftDown(position);
+    }
+  }
+
+  /**
+   * @return The cell with the lowest key. The heap should not be empty.
+   */
+  public int peek() {
+    return cells[0];
+  }
+
+  /**
+   * @return The lowest key in the heap. The heap should not be empty.
+   */
+  public long peekKey() {
+    return keys[0];
+  }
+
+  /**
+   * @param cell - A cell that is in the heap.
+   * @return The current key of the cell.
+   */
+  public long getKey(int cell) {
+    return keys[positions[cell]];
+  }
+
+  /**
+   * Removes and returns the cell with the lowest key. The heap should not be empty.
+   *
+   * @return The cell with the lowest key.
+   */
+  public int poll() {
+
+    int top = cells[0];
+    positions[top] = -1;
+    size--;
+
+    if (size > 0) {
+      move(size, 0);
+      siftDown(0);
+    }
+
+    return top;
+  }
+
+  private void move(int from, int to) {
+
+    cells[to] = cells[from];
+    keys[to] = keys[from];
+    positions[cells[to]] = to;
+  }
+
+  private void siftUp(int position) {
+
+    int cell = cells[position];
+    long key = keys[position];
+
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+
+      move(parent, position);
+      position = parent;
+    }
+
+    cells[position] = cell;
+    keys[position] = key;
+    positions[cell] = position;
+  }
+
+  private void siftDown(int position) {
+
+    int cell = cells[position];
+    long key = keys[position];
+    int half = size >>> 1;
+
+    while (position < half) {
+      int child = (position << 1) + 1;
+      int right = child + 1;
+      if (right < size && keys[right] < keys[child]) {
+        child = right;
+      }
+
+      if (key <= keys[child]) {
+        break;
+      }
+
+      move(child, position);
+      position = child;
+    }
+
+    cells[position] = cell;
+    keys[position] = key;
+    positions[cell] = position;
+  }
+
+}
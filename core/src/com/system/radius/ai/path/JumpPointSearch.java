@@ -0,0 +1,332 @@
+package com.system.radius.ai.path;
+
+import java.util.Arrays;
+
+/**
+ * A jump point search (JPS) for boards with cardinal moves only. Most passable cells of a cost
+ * board share the same cost, and every path through such a uniform stretch has many equally cheap
+ * variants. Instead of opening each of those cells, the search jumps in straight lines, and only
+ * stops where a path may have to turn: at cells with forced neighbors, at the target, and next to
+ * any cell of a different cost. Around those cells the neighbors are opened as in a plain A*.
+ * <p>
+ * The paths are made of straight jumps between the cells the search stopped at, and are written
+ * out cell by cell, so they are the same cardinal paths a plain A* would give.
+ * <p>
+ * The uniform cost is taken as the cost shared by most of the passable cells. Any other choice
+ * keeps the paths correct, but makes the search stop more often.
+ */
+public class JumpPointSearch {
+
+  private static final int NO_DIRECTION = -1;
+
+  private static final int[] DX = {0, -1, 1, 0};
+
+  private static final int[] DY = {-1, 0, 0, 1};
+
+  private int width;
+
+  private int height;
+
+  private int[][] board;
+
+  private int uniform;
+
+  private int targetX;
+
+  private int targetY;
+
+  private int[] gCosts;
+
+  private int[] parents;
+
+  private int[] directions;
+
+  private int[] openStamps;
+
+  private int[] closedStamps;
+
+  private IndexedMinHeap openHeap;
+
+  private int generation;
+
+  private int discovered;
+
+  private int expanded;
+
+  /**
+   * @return The number of cells explored by the last search.
+   */
+  public int getExpanded() {
+    return expanded;
+  }
+
+  /**
+   * Finds the cheapest path between two cells, and writes it to the path buffer.
+   *
+   * @param board   - The board with the movement costs.
+   * @param sourceX - The X coordinate of the source.
+   * @param sourceY - The Y coordinate of the source.
+   * @param targetX - The X coordinate of the target.
+   * @param targetY - The Y coordinate of the target.
+   * @param path    - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise, in which case the
+   * path buffer is left empty.
+   */
+  public boolean findPath(int[][] board, int sourceX, int sourceY, int targetX, int targetY,
+                          PathBuffer path) {
+
+    prepare(board);
+    path.reset(width, width * height);
+
+    this.targetX = targetX;
+    this.targetY = targetY;
+    uniform = findUniformCost(board);
+
+    int source = sourceY * width + sourceX;
+    int target = targetY * width + targetX;
+
+    gCosts[source] = 0;
+    parents[source] = -1;
+    directions[source] = NO_DIRECTION;
+    open(source, heuristic(sourceX, sourceY));
+
+    while (!openHeap.isEmpty()) {
+
+      int cell = openHeap.poll();
+      if (cell == target) {
+        writePath(source, target, path);
+        return true;
+      }
+
+      closedStamps[cell] = generation;
+      expanded++;
+
+      int x = cell % width;
+      int y = cell / width;
+      int direction = directions[cell];
+
+      for (int i = 0; i < 4; i++) {
+        if (isSuccessor(x, y, direction, i)) {
+          jumpFrom(cell, x, y, i);
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Checks if a direction is worth following from a cell, given the direction the cell was
+   * reached from.
+   */
+  private boolean isSuccessor(int x, int y, int from, int to) {
+
+    if (from == NO_DIRECTION || isIrregular(x, y)) {
+      // The start, and the cells near a different cost, are expanded as in a plain A*.
+      return true;
+    }
+
+    if (to == 3 - from) {
+      // Never go back.
+      return false;
+    }
+
+    if (DY[from] != 0) {
+      // Moving vertically, the path may keep going or turn to either side.
+      return true;
+    }
+
+    if (to == from) {
+      return true;
+    }
+
+    // Moving horizontally, only turn towards a forced neighbor.
+    return isPlain(x, y + DY[to]) && !isPlain(x - DX[from], y + DY[to]);
+  }
+
+  private void jumpFrom(int parent, int x, int y, int direction) {
+
+    int jumpPoint = jump(x, y, DX[direction], DY[direction]);
+    if (jumpPoint < 0) {
+      return;
+    }
+
+    int jumpX = jumpPoint % width;
+    int jumpY = jumpPoint / width;
+    if (closedStamps[jumpPoint] == generation) {
+      return;
+    }
+
+    int steps = Math.abs(jumpX - x) + Math.abs(jumpY - y);
+    int g = gCosts[parent] + (steps - 1) * (1 + uniform) + 1 + board[jumpY][jumpX];
+    if (openStamps[jumpPoint] == generation && g >= gCosts[jumpPoint]) {
+      return;
+    }
+
+    gCosts[jumpPoint] = g;
+    parents[jumpPoint] = parent;
+    directions[jumpPoint] = direction;
+    open(jumpPoint, g + heuristic(jumpX, jumpY));
+  }
+
+  /**
+   * Moves in a straight line from a cell until a cell worth stopping at is found.
+   *
+   * @return The cell to stop at, or -1 if the line runs into an obstacle first.
+   */
+  private int jump(int x, int y, int dx, int dy) {
+
+    while (true) {
+
+      x += dx;
+      y += dy;
+      if (!isPassable(x, y)) {
+        return -1;
+      }
+
+      if ((x == targetX && y == targetY) || isIrregular(x, y)) {
+        return y * width + x;
+      }
+
+      if (dx != 0) {
+        if ((isPlain(x, y + 1) && !isPlain(x - dx, y + 1)) ||
+            (isPlain(x, y - 1) && !isPlain(x - dx, y - 1))) {
+          return y * width + x;
+        }
+      } else {
+        if ((isPlain(x + 1, y) && !isPlain(x + 1, y - dy)) ||
+            (isPlain(x - 1, y) && !isPlain(x - 1, y - dy))) {
+          return y * width + x;
+        }
+
+        // A vertical move stops where a horizontal move would find something.
+        if (jump(x, y, 1, 0) >= 0 || jump(x, y, -1, 0) >= 0) {
+          return y * width + x;
+        }
+      }
+    }
+  }
+
+  private boolean isPassable(int x, int y) {
+    return x >= 0 && x < width && y >= 0 && y < height && board[y][x] >= 0;
+  }
+
+  private boolean isPlain(int x, int y) {
+    return isPassable(x, y) && board[y][x] == uniform;
+  }
+
+  /**
+   * @return {@code true} if the cell, or any of its neighbors, is passable at a different cost
+   * than the uniform one.
+   */
+  private boolean isIrregular(int x, int y) {
+
+    if (board[y][x] != uniform) {
+      return true;
+    }
+
+    for (int i = 0; i < 4; i++) {
+      int nx = x + DX[i];
+      int ny = y + DY[i];
+      if (isPassable(nx, ny) && board[ny][nx] != uniform) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Finds the cost shared by most of the passable cells, with a majority vote.
+   */
+  private int findUniformCost(int[][] board) {
+
+    int candidate = 0;
+    int votes = 0;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+
+        int value = board[y][x];
+        if (value < 0) {
+          continue;
+        }
+
+        if (votes == 0) {
+          candidate = value;
+          votes = 1;
+        } else {
+          votes += value == candidate ? 1 : -1;
+        }
+      }
+    }
+
+    return candidate;
+  }
+
+  private void open(int cell, int cost) {
+
+    openStamps[cell] = generation;
+    openHeap.put(cell, ((long) cost << 32) | discovered++);
+  }
+
+  /**
+   * Writes the path from the jump points, filling in the cells of each straight jump.
+   */
+  private void writePath(int source, int target, PathBuffer path) {
+
+    if (target == source) {
+      path.add(target, 0);
+      return;
+    }
+
+    // The jump points are written backwards, each followed by the cells leading to it.
+    for (int cell = target; cell != source; cell = parents[cell]) {
+
+      int parent = parents[cell];
+      int dx = Integer.signum(cell % width - parent % width);
+      int dy = Integer.signum(cell / width - parent / width);
+
+      int g = gCosts[cell];
+      for (int step = cell; step != parent; step -= dy * width + dx) {
+        path.add(step, g);
+        g -= 1 + board[step / width][step % width];
+      }
+    }
+
+    path.reverse();
+  }
+
+  private int heuristic(int x, int y) {
+    return Math.abs(x - targetX) + Math.abs(y - targetY);
+  }
+
+  private void prepare(int[][] board) {
+
+    this.board = board;
+    width = board[0].length;
+    height = board.length;
+
+    int cells = width * height;
+    if (gCosts == null || gCosts.length != cells) {
+      gCosts = new int[cells];
+      parents = new int[cells];
+      directions = new int[cells];
+      openStamps = new int[cells];
+      closedStamps = new int[cells];
+      openHeap = new IndexedMinHeap(cells);
+      generation = 0;
+    }
+
+    openHeap.clear();
+    discovered = 0;
+    expanded = 0;
+
+    if (++generation == 0) {
+      // The generation wrapped around, the old stamps can no longer be trusted.
+      Arrays.fill(openStamps, 0);
+      Arrays.fill(closedStamps, 0);
+      generation = 1;
+    }
+  }
+
+}
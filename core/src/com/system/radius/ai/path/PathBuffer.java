@@ -0,0 +1,166 @@
+package com.system.radius.ai.path;
+
+import com.system.radius.ai.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reusable container for a path found by a search, held as board cells instead of nodes. The
+ * source of the search is not part of the path, while the target is its last cell.
+ * <p>
+ * The owner of the buffer keeps it across searches, so finding a path does not allocate anything
+ * once the buffer is big enough for the board.
+ */
+public class PathBuffer {
+
+  /**
+   * The cells of the path in walking order, as {@code y * width + x}.
+   */
+  private int[] cells;
+
+  /**
+   * The accumulated movement cost up to each cell of the path, parallel to {@link #cells}.
+   */
+  private int[] costs;
+
+  /**
+   * The width of the board the cells belong to.
+   */
+  private int width;
+
+  private int length;
+
+  public PathBuffer() {
+    this(0);
+  }
+
+  public PathBuffer(int capacity) {
+    cells = new int[capacity];
+    costs = new int[capacity];
+  }
+
+  /**
+   * Empties the buffer for a new path on a board of the given width.
+   *
+   * @param width    - The width of the board.
+   * @param capacity - The maximum length the path can have.
+   */
+  public void reset(int width, int capacity) {
+
+    this.width = width;
+    this.length = 0;
+
+    if (cells.length < capacity) {
+      cells = new int[capacity];
+      costs = new int[capacity];
+    }
+  }
+
+  /**
+   * Appends a cell at the end of the path.
+   *
+   * @param cell - The cell, as {@code y * width + x}.
+   * @param cost - The accumulated movement cost up to the cell.
+   */
+  public void add(int cell, int cost) {
+    cells[length] = cell;
+    costs[length] = cost;
+    length++;
+  }
+
+  /**
+   * Reverses the order of the path, for searches that write it from the target backwards.
+   */
+  public void reverse() {
+
+    for (int i = 0, j = length - 1; i < j; i++, j--) {
+      int cell = cells[i];
+      cells[i] = cells[j];
+      cells[j] = cell;
+
+      int cost = costs[i];
+      costs[i] = costs[j];
+      costs[j] = cost;
+    }
+  }
+
+  /**
+   * Replaces the path of this buffer with a copy of another path.
+   *
+   * @param other - The path to be copied.
+   */
+  public void copy(PathBuffer other) {
+
+    reset(other.width, other.length);
+    System.arraycopy(other.cells, 0, cells, 0, other.length);
+    System.arraycopy(other.costs, 0, costs, 0, other.length);
+    length = other.length;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public boolean isEmpty() {
+    return length == 0;
+  }
+
+  public int getCell(int index) {
+    return cells[index];
+  }
+
+  public int getX(int index) {
+    return cells[index] % width;
+  }
+
+  public int getY(int index) {
+    return cells[index] / width;
+  }
+
+  /**
+   * @param index - The position in the path.
+   * @return The accumulated movement cost up to the cell at the given position.
+   */
+  public int getCost(int index) {
+    return costs[index];
+  }
+
+  /**
+   * @return The total movement cost of the path, or 0 if the path is empty.
+   */
+  public int getTotalCost() {
+    return length == 0 ? 0 : costs[length - 1];
+  }
+
+  /**
+   * Creates the node form of this path, as used by the actions.
+   *
+   * @return The list of nodes, from the first move up to the target.
+   */
+  public List<Node> toNodes() {
+    return toNodes(length);
+  }
+
+  /**
+   * Creates the node form of the start of this path, e.g. for an action that stops short of the
+   * target.
+   *
+   * @param count - The number of cells to be taken from the start of the path.
+   * @return The list of nodes, from the first move up to the last cell taken.
+   */
+  public List<Node> toNodes(int count) {
+
+    List<Node> path = new ArrayList<>(count);
+
+    Node parent = null;
+    for (int i = 0; i < count; i++) {
+      Node node = new Node(parent, getX(i), getY(i), costs[i], 0);
+      path.add(node);
+      parent = node;
+    }
+
+    return path;
+  }
+
+}
@@ -0,0 +1,168 @@
+package com.system.radius.ai.path;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least-recently-used cache of the paths found on a cost board, keyed by the version of the
+ * board along with the source and target cells. A version stands for one exact content of a cost
+ * board, so a path found for it stays valid for as long as that version is asked for. Unreachable
+ * targets are remembered as well.
+ * <p>
+ * The paths are held in cells and copied in and out of the buffers of the callers, so a hit does
+ * not allocate anything.
+ */
+public class PathCache {
+
+  /**
+   * The version given to the boards that cannot be cached, e.g. the boards copied from a board
+   * whose version is unknown.
+   */
+  public static final long NO_VERSION = -1;
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private final Map<Key, PathBuffer> paths;
+
+  /**
+   * The key reused for the lookups, such that looking up a path does not allocate anything.
+   */
+  private final Key probe = new Key();
+
+  private int hits;
+
+  private int misses;
+
+  public PathCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public PathCache(final int capacity) {
+
+    paths = new LinkedHashMap<Key, PathBuffer>(capacity, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, PathBuffer> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Checks if the path for the given endpoints is known.
+   *
+   * @param version - The version of the cost board.
+   * @param source  - The source cell, as {@code y * width + x}.
+   * @param target  - The target cell, as {@code y * width + x}.
+   * @return {@code true} if the path is cached, counted as a hit; {@code false} otherwise, counted
+   * as a miss.
+   */
+  public boolean contains(long version, int source, int target) {
+
+    if (version != NO_VERSION && paths.containsKey(probe.set(version, source, target))) {
+      hits++;
+      return true;
+    }
+
+    misses++;
+    return false;
+  }
+
+  /**
+   * Gets a cached path.
+   *
+   * @param version - The version of the cost board.
+   * @param source  - The source cell, as {@code y * width + x}.
+   * @param target  - The target cell, as {@code y * width + x}.
+   * @param path    - The buffer to receive a copy of the path.
+   * @return {@code true} if the path was copied; {@code false} if the target is unreachable or
+   * the path is not cached.
+   */
+  public boolean get(long version, int source, int target, PathBuffer path) {
+
+    PathBuffer cached = paths.get(probe.set(version, source, target));
+    if (cached == null) {
+      return false;
+    }
+
+    path.copy(cached);
+    return true;
+  }
+
+  /**
+   * Remembers a path. The path is copied, so the caller may keep using its own buffer.
+   *
+   * @param version - The version of the cost board.
+   * @param source  - The source cell, as {@code y * width + x}.
+   * @param target  - The target cell, as {@code y * width + x}.
+   * @param path    - The path, or {@code null} if the target is unreachable.
+   */
+  public void put(long version, int source, int target, PathBuffer path) {
+
+    if (version == NO_VERSION) {
+      return;
+    }
+
+    PathBuffer cached = null;
+    if (path != null) {
+      cached = new PathBuffer(path.getLength());
+      cached.copy(path);
+    }
+
+    paths.put(new Key().set(version, source, target), cached);
+  }
+
+  public void clear() {
+    paths.clear();
+  }
+
+  public int getHits() {
+    return hits;
+  }
+
+  public int getMisses() {
+    return misses;
+  }
+
+  public int size() {
+    return paths.size();
+  }
+
+  /**
+   * The key of a path, holding the whole version and cell indices so that no two endpoints share
+   * a key, whatever the size of the board. Only the probe is ever set again, the keys in the map
+   * are left as they were put.
+   */
+  private static final class Key {
+
+    private long version;
+
+    private int source;
+
+    private int target;
+
+    Key set(long version, int source, int target) {
+      this.version = version;
+      this.source = source;
+      this.target = target;
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      Key key = (Key) other;
+      return version == key.version && source == key.source && target == key.target;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * Long.hashCode(version) + source) + target;
+    }
+
+  }
+
+}
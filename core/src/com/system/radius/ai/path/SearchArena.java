@@ -0,0 +1,250 @@
+package com.system.radius.ai.path;
+
+import java.util.Arrays;
+
+/**
+ * Preallocated working memory for A* searches on a board of a fixed size. Everything the search
+ * needs is kept in primitive arrays, indexed by board cell ({@code y * width + x}), and is reset
+ * between searches by bumping a generation counter instead of clearing the arrays.
+ * <p>
+ * The movement cost of stepping into a cell is {@code 1 + board[y][x]}, and cells with negative
+ * values cannot be entered.
+ */
+public class SearchArena {
+
+  private final int width;
+
+  private final int height;
+
+  /**
+   * The lowest known movement cost from the source to each cell.
+   */
+  private final int[] gCosts;
+
+  /**
+   * The cell that leads to each cell on its cheapest known path.
+   */
+  private final int[] parents;
+
+  /**
+   * Marks the cells discovered by the current search, by holding its generation.
+   */
+  private final int[] openStamps;
+
+  /**
+   * Marks the cells explored by the current search, by holding its generation.
+   */
+  private final int[] closedStamps;
+
+  private final IndexedMinHeap openHeap;
+
+  private int generation;
+
+  /**
+   * The number of cells discovered so far, used to keep equal costs first-come first-served.
+   */
+  private int discovered;
+
+  /**
+   * The number of cells explored by the last search.
+   */
+  private int expanded;
+
+  /**
+   * The bounds of the current search, inclusive.
+   */
+  private int minX;
+
+  private int minY;
+
+  private int maxX;
+
+  private int maxY;
+
+  public SearchArena(int width, int height) {
+
+    this.width = width;
+    this.height = height;
+
+    int cells = width * height;
+    gCosts = new int[cells];
+    parents = new int[cells];
+    openStamps = new int[cells];
+    closedStamps = new int[cells];
+    openHeap = new IndexedMinHeap(cells);
+  }
+
+  /**
+   * Checks if this arena can be used for the given board.
+   *
+   * @param board - The board to be searched.
+   * @return {@code true} if the board has the same size as this arena; {@code false} otherwise.
+   */
+  public boolean fits(int[][] board) {
+    return board.length == height && board[0].length == width;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * @return The number of cells explored by the last search.
+   */
+  public int getExpanded() {
+    return expanded;
+  }
+
+  /**
+   * Finds the cheapest path between two cells, and writes it to the path buffer.
+   *
+   * @param board   - The board with the movement costs.
+   * @param sourceX - The X coordinate of the source.
+   * @param sourceY - The Y coordinate of the source.
+   * @param targetX - The X coordinate of the target.
+   * @param targetY - The Y coordinate of the target.
+   * @param path    - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise, in which case the
+   * path buffer is left empty.
+   */
+  public boolean findPath(int[][] board, int sourceX, int sourceY, int targetX, int targetY,
+                          PathBuffer path) {
+
+    return findPath(board, 0, 0, width - 1, height - 1, sourceX, sourceY, targetX, targetY,
+        path);
+  }
+
+  /**
+   * Finds the cheapest path between two cells without leaving the given bounds, and writes it to
+   * the path buffer.
+   *
+   * @param board   - The board with the movement costs.
+   * @param minX    - The lowest X coordinate that can be visited.
+   * @param minY    - The lowest Y coordinate that can be visited.
+   * @param maxX    - The highest X coordinate that can be visited.
+   * @param maxY    - The highest Y coordinate that can be visited.
+   * @param sourceX - The X coordinate of the source.
+   * @param sourceY - The Y coordinate of the source.
+   * @param targetX - The X coordinate of the target.
+   * @param targetY - The Y coordinate of the target.
+   * @param path    - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise, in which case the
+   * path buffer is left empty.
+   */
+  public boolean findPath(int[][] board, int minX, int minY, int maxX, int maxY, int sourceX,
+                          int sourceY, int targetX, int targetY, PathBuffer path) {
+
+    this.minX = minX;
+    this.minY = minY;
+    this.maxX = maxX;
+    this.maxY = maxY;
+
+    nextGeneration();
+    path.reset(width, width * height);
+
+    int source = sourceY * width + sourceX;
+    int target = targetY * width + targetX;
+
+    gCosts[source] = 0;
+    parents[source] = -1;
+    open(source, heuristic(sourceX, sourceY, targetX, targetY));
+
+    while (!openHeap.isEmpty()) {
+
+      int cell = openHeap.poll();
+      if (cell == target) {
+        writePath(cell, source, path);
+        return true;
+      }
+
+      closedStamps[cell] = generation;
+      expanded++;
+
+      int x = cell % width;
+      int y = cell / width;
+      int g = gCosts[cell];
+
+      if (y - 1 >= minY) {
+        relax(board, cell, g, x, y - 1, targetX, targetY);
+      }
+      if (x - 1 >= minX) {
+        relax(board, cell, g, x - 1, y, targetX, targetY);
+      }
+      if (x + 1 <= maxX) {
+        relax(board, cell, g, x + 1, y, targetX, targetY);
+      }
+      if (y + 1 <= maxY) {
+        relax(board, cell, g, x, y + 1, targetX, targetY);
+      }
+    }
+
+    return false;
+  }
+
+  private void relax(int[][] board, int parent, int parentG, int x, int y, int targetX,
+                     int targetY) {
+
+    int value = board[y][x];
+    if (value < 0) {
+      return;
+    }
+
+    int cell = y * width + x;
+    if (closedStamps[cell] == generation) {
+      return;
+    }
+
+    int g = parentG + 1 + value;
+    if (openStamps[cell] == generation && g >= gCosts[cell]) {
+      return;
+    }
+
+    gCosts[cell] = g;
+    parents[cell] = parent;
+    open(cell, g + heuristic(x, y, targetX, targetY));
+  }
+
+  private void open(int cell, int cost) {
+
+    openStamps[cell] = generation;
+    openHeap.put(cell, ((long) cost << 32) | discovered++);
+  }
+
+  private void writePath(int target, int source, PathBuffer path) {
+
+    if (target == source) {
+      // The source is the target, the path is the target itself.
+      path.add(target, 0);
+      return;
+    }
+
+    for (int cell = target; cell != source; cell = parents[cell]) {
+      path.add(cell, gCosts[cell]);
+    }
+
+    path.reverse();
+  }
+
+  private void nextGeneration() {
+
+    openHeap.clear();
+    discovered = 0;
+    expanded = 0;
+
+    if (++generation == 0) {
+      // The generation wrapped around, the old stamps can no longer be trusted.
+      Arrays.fill(openStamps, 0);
+      Arrays.fill(closedStamps, 0);
+      generation = 1;
+    }
+  }
+
+  private static int heuristic(int x, int y, int targetX, int targetY) {
+    return Math.abs(x - targetX) + Math.abs(y - targetY);
+  }
+
+}
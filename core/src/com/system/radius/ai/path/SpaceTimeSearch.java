@@ -0,0 +1,222 @@
+package com.system.radius.ai.path;
+
+import com.system.radius.objects.board.DangerMap;
+
+import java.util.Arrays;
+
+/**
+ * An A* search over cells and time. A state is a cell along with the number of moves taken to
+ * arrive at it, and a cell may only be entered when the player would not be on it while it is on
+ * fire, as told by the danger map. The costs are those of the board, such that a cell blocked by
+ * the caller stays blocked, and the timing only takes away the moves that would end in a fire.
+ * <p>
+ * Once every fire on the board is gone, time no longer matters: every state beyond that horizon
+ * collapses into a single layer per cell, so the search is bounded by
+ * {@code cells * (horizon layers + 1)} states and ends as a plain A* past the horizon.
+ * <p>
+ * There is no waiting move, as the path is walked without any timing. Delaying is done by moving
+ * back and forth between cells instead.
+ */
+public class SpaceTimeSearch {
+
+  private int width;
+
+  private int height;
+
+  private int cells;
+
+  /**
+   * The number of time layers, the last of which holds every state beyond the horizon.
+   */
+  private int layers;
+
+  private int[] gCosts;
+
+  private int[] parents;
+
+  private int[] openStamps;
+
+  private int[] closedStamps;
+
+  private IndexedMinHeap openHeap;
+
+  private int generation;
+
+  private int discovered;
+
+  private int expanded;
+
+  /**
+   * @return The number of states explored by the last search.
+   */
+  public int getExpanded() {
+    return expanded;
+  }
+
+  /**
+   * Finds the cheapest path between two cells that never stands in a fire.
+   *
+   * @param board    - The board with the movement costs, where a negative cost cannot be passed.
+   * @param danger   - The timing of the fires.
+   * @param stepTime - The time the player takes to move by one cell.
+   * @param sourceX  - The X coordinate of the source.
+   * @param sourceY  - The Y coordinate of the source.
+   * @param targetX  - The X coordinate of the target.
+   * @param targetY  - The Y coordinate of the target.
+   * @param path     - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise, in which case the
+   * path buffer is left empty.
+   */
+  public boolean findPath(int[][] board, DangerMap danger, float stepTime, int sourceX,
+                          int sourceY, int targetX, int targetY, PathBuffer path) {
+
+    prepare(board, danger.getHorizon(), stepTime);
+    path.reset(width, cells + layers);
+
+    int source = sourceY * width + sourceX;
+    int target = targetY * width + targetX;
+
+    gCosts[source] = 0;
+    parents[source] = -1;
+    open(source, heuristic(source, target));
+
+    while (!openHeap.isEmpty()) {
+
+      int state = openHeap.poll();
+      int cell = state % cells;
+      if (cell == target) {
+        writePath(state, path);
+        return true;
+      }
+
+      closedStamps[state] = generation;
+      expanded++;
+
+      int x = cell % width;
+      int y = cell / width;
+      int layer = state / cells;
+      int nextLayer = Math.min(layer + 1, layers - 1);
+
+      if (y - 1 >= 0) {
+        relax(board, danger, stepTime, state, nextLayer, x, y - 1, target);
+      }
+      if (x - 1 >= 0) {
+        relax(board, danger, stepTime, state, nextLayer, x - 1, y, target);
+      }
+      if (x + 1 < width) {
+        relax(board, danger, stepTime, state, nextLayer, x + 1, y, target);
+      }
+      if (y + 1 < height) {
+        relax(board, danger, stepTime, state, nextLayer, x, y + 1, target);
+      }
+    }
+
+    return false;
+  }
+
+  private void relax(int[][] board, DangerMap danger, float stepTime, int parent, int layer,
+                     int x, int y, int target) {
+
+    int cost = stepCost(board, danger, stepTime, layer, x, y);
+    if (cost < 0) {
+      return;
+    }
+
+    int state = layer * cells + y * width + x;
+    if (closedStamps[state] == generation) {
+      return;
+    }
+
+    int g = gCosts[parent] + cost;
+    if (openStamps[state] == generation && g >= gCosts[state]) {
+      return;
+    }
+
+    gCosts[state] = g;
+    parents[state] = parent;
+    open(state, g + heuristic(state % cells, target));
+  }
+
+  /**
+   * Gets the cost of arriving at a cell after the given number of moves. The player is taken to be
+   * on the cell from half a move before the arrival up to half a move after it.
+   *
+   * @return The cost, or -1 if the cell cannot be entered at that time.
+   */
+  private int stepCost(int[][] board, DangerMap danger, float stepTime, int layer, int x,
+                       int y) {
+
+    int value = board[y][x];
+    if (value < 0) {
+      return -1;
+    }
+
+    if (layer < layers - 1 && danger.isDangerous(x, y)) {
+      float arrival = layer * stepTime;
+      if (danger.getDetonation(x, y) < arrival + stepTime / 2 &&
+          danger.getClearance(x, y) > arrival - stepTime / 2) {
+        // The player would be caught by the fire.
+        return -1;
+      }
+    }
+
+    return 1 + value;
+  }
+
+  private void open(int state, int cost) {
+
+    openStamps[state] = generation;
+    openHeap.put(state, ((long) cost << 32) | discovered++);
+  }
+
+  private void writePath(int target, PathBuffer path) {
+
+    if (parents[target] < 0) {
+      // The source is the target, the path is the target itself.
+      path.add(target % cells, 0);
+      return;
+    }
+
+    for (int state = target; parents[state] >= 0; state = parents[state]) {
+      path.add(state % cells, gCosts[state]);
+    }
+
+    path.reverse();
+  }
+
+  private int heuristic(int cell, int target) {
+    return Math.abs(cell % width - target % width) + Math.abs(cell / width - target / width);
+  }
+
+  private void prepare(int[][] board, float horizon, float stepTime) {
+
+    width = board[0].length;
+    height = board.length;
+    cells = width * height;
+
+    // The first layer whose whole stay on a cell is past the horizon.
+    layers = (int) Math.ceil(horizon / stepTime + 0.5f) + 1;
+
+    int states = cells * layers;
+    if (gCosts == null || gCosts.length < states) {
+      gCosts = new int[states];
+      parents = new int[states];
+      openStamps = new int[states];
+      closedStamps = new int[states];
+      openHeap = new IndexedMinHeap(states);
+      generation = 0;
+    }
+
+    openHeap.clear();
+    discovered = 0;
+    expanded = 0;
+
+    if (++generation == 0) {
+      // The generation wrapped around, the old stamps can no longer be trusted.
+      Arrays.fill(openStamps, 0);
+      Arrays.fill(closedStamps, 0);
+      generation = 1;
+    }
+  }
+
+}
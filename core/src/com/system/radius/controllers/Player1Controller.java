@@ -4,6 +4,7 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputProcessor;
 import com.system.radius.enums.Keys;
 import com.system.radius.objects.players.Player;
+import com.system.radius.utils.ConfigUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,6 +25,7 @@ public class Player1Controller implements InputProcessor {
     keys.put(Keys.DOWN, false);
     keys.put(Keys.QUIT, false);
     keys.put(Keys.BOMB, false);
+    keys.put(Keys.TRIGGER, false);
   }
 
   public Player1Controller(Player player) {
@@ -65,6 +67,10 @@ public class Player1Controller implements InputProcessor {
 
       pressBomb(true);
       return true;
+    } else if (keycode == Input.Keys.E && ConfigUtils.isBombKindsEnabled()) {
+
+      pressTrigger(true);
+      return true;
     } else if (keycode == Input.Keys.ESCAPE) {
 
       pressQuit(true);
@@ -109,6 +115,10 @@ public class Player1Controller implements InputProcessor {
 
       pressBomb(false);
       return true;
+    } else if (keycode == Input.Keys.E && ConfigUtils.isBombKindsEnabled()) {
+
+      pressTrigger(false);
+      return true;
     } else if (keycode == Input.Keys.ESCAPE) {
 
       pressQuit(false);
@@ -206,6 +216,14 @@ public class Player1Controller implements InputProcessor {
     }
   }
 
+  public void pressTrigger(boolean press) {
+    keys.put(Keys.TRIGGER, press);
+
+    if (press) {
+      player.triggerBomb();
+    }
+  }
+
   public void pressQuit(boolean press) {
     keys.put(Keys.QUIT, press);
   }
@@ -12,6 +12,8 @@ public enum Keys {
 
   QUIT,
 
-  BOMB;
+  BOMB,
+
+  TRIGGER;
 
 }
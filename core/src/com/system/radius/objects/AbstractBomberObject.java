@@ -1,5 +1,10 @@
 package com.system.radius.objects;
 
+import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.board.TimingWheel;
+
+import java.nio.ByteBuffer;
+
 /**
  * The abstract game object class for the objeccts related to the Bomberman game.
  */
@@ -22,8 +27,19 @@ public abstract class AbstractBomberObject extends GameObject {
    */
   protected int life;
 
-  public AbstractBomberObject(char charRep, float x, float y) {
+  /**
+   * The state of the board this object is on.
+   */
+  protected final BoardState boardState;
+
+  /**
+   * The timer of this object on the board, created on its first use.
+   */
+  private TimingWheel.Timer timer;
+
+  public AbstractBomberObject(BoardState boardState, char charRep, float x, float y) {
     super(x, y);
+    this.boardState = boardState;
     this.characterRepresentation = charRep;
   }
 
@@ -35,4 +51,88 @@ public abstract class AbstractBomberObject extends GameObject {
   public char getCharacterRepresentation() {
     return characterRepresentation;
   }
+
+  public BoardState getBoardState() {
+    return boardState;
+  }
+
+  /**
+   * Called by the board when the timer of this object goes off. Nothing happens by default.
+   */
+  public void onTimer() {
+  }
+
+  /**
+   * Schedules the timer of this object, replacing the pending one.
+   *
+   * @param delay - The time to wait, in seconds.
+   */
+  protected void schedule(float delay) {
+    boardState.getTimingWheel().schedule(getTimer(), delay);
+  }
+
+  /**
+   * Schedules the timer of this object on a step of the board, or cancels it, for a restore.
+   *
+   * @param deadline - The step to go off on, as given by {@link #getDeadline()}, or -1.
+   */
+  protected void scheduleAt(long deadline) {
+
+    if (deadline < 0) {
+      cancelTimer();
+    } else {
+      boardState.getTimingWheel().scheduleAt(getTimer(), deadline);
+    }
+  }
+
+  protected void cancelTimer() {
+
+    if (timer != null) {
+      boardState.getTimingWheel().cancel(timer);
+    }
+  }
+
+  /**
+   * @return The time left until the timer of this object goes off, zero if it is not pending.
+   */
+  protected float getRemainingTime() {
+    return timer == null ? 0 : boardState.getTimingWheel().getRemainingTime(timer);
+  }
+
+  /**
+   * @return The step the timer of this object goes off on, -1 if it is not pending.
+   */
+  protected long getDeadline() {
+    return timer == null ? -1 : timer.getDeadline();
+  }
+
+  private TimingWheel.Timer getTimer() {
+
+    if (timer == null) {
+      timer = new TimingWheel.Timer(this);
+    }
+
+    return timer;
+  }
+
+  /**
+   * Writes the state of this object that changes over a match, for a snapshot of the board. The
+   * kind and the cell of the object are written by the snapshot itself.
+   *
+   * @param buffer - The buffer to write to.
+   */
+  public void writeState(ByteBuffer buffer) {
+    buffer.put((byte) life);
+  }
+
+  /**
+   * Reads back the state written by {@link #writeState(ByteBuffer)}. Every value that changes
+   * over a match is read, so that an object can be reused for the same kind of object on the same
+   * cell.
+   *
+   * @param buffer - The buffer to read from.
+   */
+  public void readState(ByteBuffer buffer) {
+    life = buffer.get();
+  }
 }
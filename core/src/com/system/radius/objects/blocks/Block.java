@@ -14,6 +14,7 @@ import com.system.radius.objects.board.WorldConstants;
 import com.system.radius.objects.players.Player;
 import com.system.radius.utils.FieldConfig;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public class Block extends AbstractBomberObject implements Disposable {
@@ -39,14 +40,18 @@ public class Block extends AbstractBomberObject implements Disposable {
 
   protected boolean hasBonus;
 
-  protected float burnTimer;
+  /**
+   * The time of the board when this block started burning.
+   */
+  protected float burnStart;
 
   private float width;
 
   private float height;
 
-  public Block(char charRep, float x, float y, float width, float height, boolean hasBonus) {
-    super(charRep, x, y);
+  public Block(BoardState boardState, char charRep, float x, float y, float width, float height,
+               boolean hasBonus) {
+    super(boardState, charRep, x, y);
 
     this.hasBonus = hasBonus;
 
@@ -59,12 +64,13 @@ public class Block extends AbstractBomberObject implements Disposable {
     initialize();
   }
 
-  public Block(char charRep, float x, float y, float width, float height) {
-    this(charRep, x, y, width, height, false);
+  public Block(BoardState boardState, char charRep, float x, float y, float width,
+               float height) {
+    this(boardState, charRep, x, y, width, height, false);
   }
 
-  public Block(float x, float y, float width, float height) {
-    this(WorldConstants.BOARD_PERMA_BLOCK, x, y, width, height);
+  public Block(BoardState boardState, float x, float y, float width, float height) {
+    this(boardState, WorldConstants.BOARD_PERMA_BLOCK, x, y, width, height);
   }
 
   protected void initialize() {
@@ -97,23 +103,64 @@ public class Block extends AbstractBomberObject implements Disposable {
 
   }
 
+  /**
+   * Sets this block on fire, such that it is destroyed once it has burned down.
+   */
+  protected void startBurning() {
+    startBurning(DESTROY_TIMER);
+  }
+
+  /**
+   * Sets this block on fire, such that it is destroyed after a while.
+   *
+   * @param duration - The time the block burns for, in seconds.
+   */
+  protected void startBurning(float duration) {
+
+    burning = true;
+    burnStart = boardState.getTimingWheel().getTime();
+    schedule(duration);
+  }
+
   @Override
-  public void update(float delta) {
+  public void writeState(ByteBuffer buffer) {
 
-    if (!burning) {
+    super.writeState(buffer);
+    buffer.put((byte) ((burning ? 1 : 0) | (hasBonus ? 2 : 0)));
+    if (burning) {
+      buffer.putFloat(burnStart);
+      buffer.putLong(getDeadline());
+    }
+  }
+
+  @Override
+  public void readState(ByteBuffer buffer) {
+
+    super.readState(buffer);
+    byte flags = buffer.get();
+    burning = (flags & 1) != 0;
+    hasBonus = (flags & 2) != 0;
+    burnStart = burning ? buffer.getFloat() : 0;
+    scheduleAt(burning ? buffer.getLong() : -1);
+  }
+
+  @Override
+  public void onTimer() {
+
+    if (!burning || boardState.getObject(boardState.getExactX(this),
+        boardState.getExactY(this)) != this) {
       return;
     }
 
-    burnTimer += delta;
-    animationElapsedTime += delta;
-    if (burnTimer >= DESTROY_TIMER) {
-      BoardState boardState = BoardState.getInstance();
-      boardState.removeFromBoard(this);
-      if (hasBonus) {
-        boardState.addToBoard(Bonus.generateBonus(getX(), getY()));
-      }
+    boardState.removeFromBoard(this);
+    if (hasBonus) {
+      boardState.addToBoard(Bonus.generateBonus(boardState, getX(), getY()));
     }
+  }
 
+  @Override
+  public void update(float delta) {
+    // The burning is timed by the board, see onTimer().
   }
 
   @Override
@@ -124,7 +171,8 @@ public class Block extends AbstractBomberObject implements Disposable {
       return;
     }
 
-    batch.draw(animation.getKeyFrame(animationElapsedTime), getX(), getY(), getWidth(), getHeight());
+    float burnTime = boardState.getTimingWheel().getTime() - burnStart;
+    batch.draw(animation.getKeyFrame(burnTime), getX(), getY(), getWidth(), getHeight());
 
   }
 
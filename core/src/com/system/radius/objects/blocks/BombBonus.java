@@ -1,11 +1,12 @@
 package com.system.radius.objects.blocks;
 
+import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.players.Player;
 
 public class BombBonus extends Bonus {
 
-  public BombBonus(float x, float y, float width, float height) {
-    super(0, x, y, width, height);
+  public BombBonus(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, 0, x, y, width, height);
   }
 
   @Override
@@ -3,8 +3,10 @@ package com.system.radius.objects.blocks;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Intersector;
+import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.board.WorldConstants;
 import com.system.radius.objects.players.Player;
+import com.system.radius.utils.ConfigUtils;
 
 import java.util.Random;
 
@@ -22,8 +24,8 @@ public abstract class Bonus extends Block {
 
   private int bonusIndex;
 
-  public Bonus(int index, float x, float y, float width, float height) {
-    super(WorldConstants.BOARD_BONUS, x, y, width, height);
+  public Bonus(BoardState boardState, int index, float x, float y, float width, float height) {
+    super(boardState, WorldConstants.BOARD_BONUS, x, y, width, height);
     this.life = 1;
     this.bonusIndex = index;
     this.activeCollision = false;
@@ -44,8 +46,8 @@ public abstract class Bonus extends Block {
   @Override
   public void burn() {
 
-    burning = true;
-    burnTimer = 1f;
+    // Picked up or burned, the bonus is gone on the next step.
+    startBurning(0);
 
   }
 
@@ -65,28 +67,71 @@ public abstract class Bonus extends Block {
    */
   public abstract void applyBonus(Player player);
 
+  public int getBonusIndex() {
+    return bonusIndex;
+  }
+
   public static boolean hasBonus() {
 
     return generator.nextInt(100) >= 75;
   }
 
-  public static Bonus generateBonus(float x, float y) {
+  public static Bonus generateBonus(BoardState boardState, float x, float y) {
 
     float scale = WorldConstants.WORLD_SCALE;
-    int bonusChance = generator.nextInt(10);
+    // The bonuses of the other kinds of bombs are only drawn if enabled.
+    int bonusChance = generator.nextInt(ConfigUtils.isBombKindsEnabled() ? 13 : 10);
     Bonus bonus;
 
     if (bonusChance >= 0 && bonusChance < 3) {
-      bonus = new BombBonus(x, y, scale, scale);
+      bonus = new BombBonus(boardState, x, y, scale, scale);
     } else if (bonusChance >= 3 && bonusChance < 6) {
-      bonus = new FireBonus(x, y, scale, scale);
+      bonus = new FireBonus(boardState, x, y, scale, scale);
     } else if (bonusChance >= 6 && bonusChance < 9) {
-      bonus = new SpeedBonus(x, y, scale, scale);
+      bonus = new SpeedBonus(boardState, x, y, scale, scale);
+    } else if (bonusChance == 9) {
+      bonus = new FlashFireBonus(boardState, x, y, scale, scale);
+    } else if (bonusChance == 10) {
+      bonus = new PierceBonus(boardState, x, y, scale, scale);
+    } else if (bonusChance == 11) {
+      bonus = new MineBonus(boardState, x, y, scale, scale);
     } else {
-      bonus = new FlashFireBonus(x, y, scale, scale);
+      bonus = new PowerBonus(boardState, x, y, scale, scale);
     }
 
     return bonus;
   }
 
+  /**
+   * Creates a bonus by its index, the one used for its icon.
+   *
+   * @param boardState - The state of the board the bonus is on.
+   * @param index      - The index of the bonus, as given by {@link #getBonusIndex()}.
+   * @param x          - The X coordinate of the bonus.
+   * @param y          - The Y coordinate of the bonus.
+   * @return The bonus.
+   */
+  public static Bonus createBonus(BoardState boardState, int index, float x, float y) {
+
+    float scale = WorldConstants.WORLD_SCALE;
+    switch (index) {
+      case 0:
+        return new BombBonus(boardState, x, y, scale, scale);
+      case 1:
+        return new FireBonus(boardState, x, y, scale, scale);
+      case 2:
+        return new FlashFireBonus(boardState, x, y, scale, scale);
+      case 3:
+        return new SpeedBonus(boardState, x, y, scale, scale);
+      case 4:
+        return new PierceBonus(boardState, x, y, scale, scale);
+      case 5:
+        return new MineBonus(boardState, x, y, scale, scale);
+      case 6:
+        return new PowerBonus(boardState, x, y, scale, scale);
+      default:
+        throw new IllegalArgumentException("Unknown bonus index: " + index);
+    }
+  }
+
 }
@@ -1,11 +1,12 @@
 package com.system.radius.objects.blocks;
 
+import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.players.Player;
 
 public class FireBonus extends Bonus {
 
-  public FireBonus(float x, float y, float width, float height) {
-    super(1, x, y, width, height);
+  public FireBonus(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, 1, x, y, width, height);
   }
 
   @Override
@@ -1,11 +1,12 @@
 package com.system.radius.objects.blocks;
 
+import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.players.Player;
 
 public class FlashFireBonus extends Bonus {
 
-  public FlashFireBonus(float x, float y, float width, float height) {
-    super(2, x, y, width, height);
+  public FlashFireBonus(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, 2, x, y, width, height);
   }
 
   @Override
@@ -10,8 +10,8 @@ import com.system.radius.utils.FieldConfig;
 
 public class HardBlock extends Block {
 
-  public HardBlock(float x, float y, float width, float height) {
-    super(WorldConstants.BOARD_HARD_BLOCK, x, y, width, height, true);
+  public HardBlock(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, WorldConstants.BOARD_HARD_BLOCK, x, y, width, height, true);
     this.life = 10;
   }
 
@@ -35,13 +35,12 @@ public class HardBlock extends Block {
 
     if (life == 1) {
       // Change the marking of this block as soft block.
-      BoardState boardState = BoardState.getInstance();
       boardState.setChar(boardState.getExactX(this), boardState.getExactY(this),
           WorldConstants.BOARD_SOFT_BLOCK);
     }
 
     if (life == 0) {
-      burning = true;
+      startBurning();
     }
 
   }
@@ -0,0 +1,23 @@
+package com.system.radius.objects.blocks;
+
+import com.system.radius.enums.BombType;
+import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.players.Player;
+
+public class MineBonus extends Bonus {
+
+  public MineBonus(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, 5, x, y, width, height);
+  }
+
+  @Override
+  public void applyBonus(Player player) {
+
+    burn();
+
+    // The bombs planted from now on only go off when the player sets them off.
+    player.setBombType(BombType.MINE);
+
+  }
+
+}
@@ -0,0 +1,24 @@
+package com.system.radius.objects.blocks;
+
+import com.system.radius.enums.BombType;
+import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.players.Player;
+
+public class PierceBonus extends Bonus {
+
+  public PierceBonus(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, 4, x, y, width, height);
+  }
+
+  @Override
+  public void applyBonus(Player player) {
+
+    burn();
+
+    // The fire of a power bomb now also goes through the soft blocks.
+    player.setBombType(BombType.POWER.equals(player.getBombType()) ||
+        BombType.ALL.equals(player.getBombType()) ? BombType.ALL : BombType.PIERCE);
+
+  }
+
+}
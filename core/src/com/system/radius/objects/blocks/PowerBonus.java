@@ -0,0 +1,24 @@
+package com.system.radius.objects.blocks;
+
+import com.system.radius.enums.BombType;
+import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.players.Player;
+
+public class PowerBonus extends Bonus {
+
+  public PowerBonus(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, 6, x, y, width, height);
+  }
+
+  @Override
+  public void applyBonus(Player player) {
+
+    burn();
+
+    // The fire of a pierce bomb now also goes as far as the board allows.
+    player.setBombType(BombType.PIERCE.equals(player.getBombType()) ||
+        BombType.ALL.equals(player.getBombType()) ? BombType.ALL : BombType.POWER);
+
+  }
+
+}
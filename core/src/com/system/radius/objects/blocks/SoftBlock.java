@@ -4,13 +4,15 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.board.WorldConstants;
 import com.system.radius.utils.FieldConfig;
 
 public class SoftBlock extends Block {
 
-  public SoftBlock(float x, float y, float width, float height, boolean hasBonus) {
-    super(WorldConstants.BOARD_SOFT_BLOCK, x, y, width, height, hasBonus);
+  public SoftBlock(BoardState boardState, float x, float y, float width, float height,
+                   boolean hasBonus) {
+    super(boardState, WorldConstants.BOARD_SOFT_BLOCK, x, y, width, height, hasBonus);
     this.life = 1;
   }
 
@@ -31,7 +33,7 @@ public class SoftBlock extends Block {
 
     life--;
     if (life == 0) {
-      burning = true;
+      startBurning();
     }
   }
 
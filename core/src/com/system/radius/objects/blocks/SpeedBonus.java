@@ -1,11 +1,12 @@
 package com.system.radius.objects.blocks;
 
+import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.players.Player;
 
 public class SpeedBonus extends Bonus {
 
-  public SpeedBonus(float x, float y, float width, float height) {
-    super(3, x, y, width, height);
+  public SpeedBonus(BoardState boardState, float x, float y, float width, float height) {
+    super(boardState, 3, x, y, width, height);
   }
 
   @Override
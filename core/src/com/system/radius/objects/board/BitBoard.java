@@ -0,0 +1,442 @@
+package com.system.radius.objects.board;
+
+import com.system.radius.enums.Direction;
+
+import java.util.Arrays;
+
+/**
+ * A set of cells of the board, one bit per cell. Each row takes as many 64-bit words as its
+ * width needs, so the whole-board operations, e.g. the floods and the fire spreads, are done a
+ * word at a time rather than a cell at a time.
+ * <p>
+ * Bit {@code x % 64} of word {@code x / 64} of a row stands for the cell at {@code x}. The bits
+ * past the width of the board are always clear.
+ */
+public class BitBoard {
+
+  private static final Direction[] DIRECTIONS =
+      {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+  private final int width;
+
+  private final int height;
+
+  /**
+   * The number of words per row.
+   */
+  private final int words;
+
+  /**
+   * The bits of the last word of each row that stand for cells of the board.
+   */
+  private final long lastMask;
+
+  private final long[] bits;
+
+  /**
+   * The copy of the bits for the operations that read the previous state while writing.
+   */
+  private long[] scratch;
+
+  public BitBoard(int width, int height) {
+
+    this.width = width;
+    this.height = height;
+
+    words = (width + 63) / 64;
+    lastMask = width % 64 == 0 ? -1L : (1L << (width % 64)) - 1;
+    bits = new long[words * height];
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public boolean get(int x, int y) {
+    return (bits[y * words + (x >> 6)] & (1L << x)) != 0;
+  }
+
+  public void set(int x, int y) {
+    bits[y * words + (x >> 6)] |= 1L << x;
+  }
+
+  public void clear(int x, int y) {
+    bits[y * words + (x >> 6)] &= ~(1L << x);
+  }
+
+  public void clear() {
+    Arrays.fill(bits, 0);
+  }
+
+  /**
+   * Sets a straight run of cells within a row.
+   *
+   * @param y    - The row.
+   * @param from - The X coordinate of the first cell, inclusive.
+   * @param to   - The X coordinate of the last cell, inclusive.
+   */
+  public void setRun(int y, int from, int to) {
+
+    from = Math.max(from, 0);
+    to = Math.min(to, width - 1);
+    for (int w = from >> 6; w <= to >> 6; w++) {
+
+      int low = Math.max(from - (w << 6), 0);
+      int high = Math.min(to - (w << 6), 63);
+      long mask = (high == 63 ? -1L : (1L << (high + 1)) - 1) & (-1L << low);
+      bits[y * words + w] |= mask;
+    }
+  }
+
+  /**
+   * Sets a straight run of cells within a column.
+   *
+   * @param x    - The column.
+   * @param from - The Y coordinate of the first cell, inclusive.
+   * @param to   - The Y coordinate of the last cell, inclusive.
+   */
+  public void setColumnRun(int x, int from, int to) {
+
+    for (int y = Math.max(from, 0); y <= Math.min(to, height - 1); y++) {
+      set(x, y);
+    }
+  }
+
+  /**
+   * Sets the cells with a non-negative value on a cost board, and clears the others.
+   *
+   * @param board - A cost board of the same size.
+   */
+  public void loadPassable(int[][] board) {
+
+    clear();
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        if (board[y][x] >= 0) {
+          set(x, y);
+        }
+      }
+    }
+  }
+
+  public void copy(BitBoard other) {
+    System.arraycopy(other.bits, 0, bits, 0, bits.length);
+  }
+
+  public void or(BitBoard other) {
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] |= other.bits[i];
+    }
+  }
+
+  public void and(BitBoard other) {
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] &= other.bits[i];
+    }
+  }
+
+  public void andNot(BitBoard other) {
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] &= ~other.bits[i];
+    }
+  }
+
+  /**
+   * Flips every cell of the board.
+   */
+  public void invert() {
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] = (i + 1) % words == 0 ? ~bits[i] & lastMask : ~bits[i];
+    }
+  }
+
+  /**
+   * @return The number of cells set.
+   */
+  public int count() {
+
+    int count = 0;
+    for (long word : bits) {
+      count += Long.bitCount(word);
+    }
+
+    return count;
+  }
+
+  /**
+   * Finds the next cell set, in the order of the rows.
+   *
+   * @param from - The first cell to look at, as {@code y * width + x}.
+   * @return The cell, as {@code y * width + x}, or -1 if there is none.
+   */
+  public int nextSetCell(int from) {
+
+    for (int y = from / width, x = from % width; y < height; y++, x = 0) {
+      for (int w = x >> 6; w < words; w++) {
+
+        long word = bits[y * words + w];
+        if (w == x >> 6) {
+          word &= -1L << x;
+        }
+
+        if (word != 0) {
+          return y * width + (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Moves every cell by one step in a direction, dropping the cells leaving the board.
+   *
+   * @param source    - The cells to be moved, may be this board.
+   * @param direction - One of the four straight directions.
+   */
+  public void shift(BitBoard source, Direction direction) {
+
+    long[] from = source.bits;
+    switch (direction) {
+      case UP:
+        System.arraycopy(from, 0, bits, words, bits.length - words);
+        Arrays.fill(bits, 0, words, 0);
+        break;
+      case DOWN:
+        System.arraycopy(from, words, bits, 0, bits.length - words);
+        Arrays.fill(bits, bits.length - words, bits.length, 0);
+        break;
+      case RIGHT:
+        for (int row = 0; row < bits.length; row += words) {
+          long carry = 0;
+          for (int w = 0; w < words; w++) {
+            long word = from[row + w];
+            bits[row + w] = (word << 1) | carry;
+            carry = word >>> 63;
+          }
+          bits[row + words - 1] &= lastMask;
+        }
+        break;
+      case LEFT:
+        for (int row = 0; row < bits.length; row += words) {
+          long carry = 0;
+          for (int w = words - 1; w >= 0; w--) {
+            long word = from[row + w];
+            bits[row + w] = (word >>> 1) | (carry << 63);
+            carry = word & 1;
+          }
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Not a straight direction: " + direction);
+    }
+  }
+
+  /**
+   * Floods the passable cells from a source, and keeps the cells reached. The source is reached
+   * even if it is not passable, as in {@code FloodFill}.
+   *
+   * @param passable - The cells that can be walked through.
+   * @param sourceX  - The X coordinate of the source.
+   * @param sourceY  - The Y coordinate of the source.
+   * @param radius   - The maximum number of steps from the source, or {@link Integer#MAX_VALUE}
+   *                 for no limit.
+   * @return The number of cells reached, including the source.
+   */
+  public int flood(BitBoard passable, int sourceX, int sourceY, int radius) {
+
+    clear();
+    set(sourceX, sourceY);
+
+    if (radius == Integer.MAX_VALUE) {
+      floodUnlimited(passable.bits);
+    } else {
+      floodSteps(passable.bits, radius);
+    }
+
+    return count();
+  }
+
+  /**
+   * Floods step by step, reading the previous step while writing the next one.
+   */
+  private void floodSteps(long[] passable, int radius) {
+
+    if (scratch == null) {
+      scratch = new long[bits.length];
+    }
+
+    for (int step = 0; step < radius; step++) {
+
+      System.arraycopy(bits, 0, scratch, 0, bits.length);
+      boolean changed = false;
+
+      for (int y = 0; y < height; y++) {
+        int row = y * words;
+
+        long carryRight = 0;
+        for (int w = 0; w < words; w++) {
+
+          long word = scratch[row + w];
+          long spread = (word << 1) | carryRight | (word >>> 1);
+          carryRight = word >>> 63;
+          if (w + 1 < words) {
+            spread |= scratch[row + w + 1] << 63;
+          }
+          if (y > 0) {
+            spread |= scratch[row - words + w];
+          }
+          if (y + 1 < height) {
+            spread |= scratch[row + words + w];
+          }
+
+          long next = word | (spread & passable[row + w]);
+          if (next != word) {
+            bits[row + w] = next;
+            changed = true;
+          }
+        }
+      }
+
+      if (!changed) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Floods without counting the steps: every row is filled along its passable runs at once, and
+   * the rows are spread to their neighbors until nothing changes.
+   */
+  private void floodUnlimited(long[] passable) {
+
+    boolean changed = true;
+    while (changed) {
+
+      changed = false;
+      for (int y = 0; y < height; y++) {
+
+        int row = y * words;
+        for (int w = 0; w < words; w++) {
+
+          long word = bits[row + w];
+          if (y > 0) {
+            word |= bits[row - words + w] & passable[row + w];
+          }
+          if (y + 1 < height) {
+            word |= bits[row + words + w] & passable[row + w];
+          }
+
+          if (word != bits[row + w]) {
+            bits[row + w] = word;
+            changed = true;
+          }
+        }
+
+        changed |= fillRow(row, passable);
+      }
+    }
+  }
+
+  /**
+   * Fills a row along its passable runs, from the cells already set.
+   *
+   * @return {@code true} if any cell was set; {@code false} otherwise.
+   */
+  private boolean fillRow(int row, long[] passable) {
+
+    boolean changed = false;
+    boolean rowChanged = true;
+    while (rowChanged) {
+
+      rowChanged = false;
+      for (int w = 0; w < words; w++) {
+
+        long open = passable[row + w];
+        long word = bits[row + w];
+        if (w > 0 && bits[row + w - 1] < 0) {
+          // The last cell of the previous word reaches into this one.
+          word |= open & 1;
+        }
+        if (w + 1 < words && (bits[row + w + 1] & 1) != 0) {
+          word |= open & (1L << 63);
+        }
+
+        word = fillRight(word, open) | fillLeft(word, open);
+        if (word != bits[row + w]) {
+          bits[row + w] = word;
+          rowChanged = true;
+          changed = true;
+        }
+      }
+    }
+
+    return changed;
+  }
+
+  /**
+   * Spreads the set bits towards the higher bits, through the open bits only.
+   */
+  private static long fillRight(long set, long open) {
+
+    set |= open & (set << 1);
+    open &= open << 1;
+    set |= open & (set << 2);
+    open &= open << 2;
+    set |= open & (set << 4);
+    open &= open << 4;
+    set |= open & (set << 8);
+    open &= open << 8;
+    set |= open & (set << 16);
+    open &= open << 16;
+    set |= open & (set << 32);
+    return set;
+  }
+
+  /**
+   * Spreads the set bits towards the lower bits, through the open bits only.
+   */
+  private static long fillLeft(long set, long open) {
+
+    set |= open & (set >>> 1);
+    open &= open >>> 1;
+    set |= open & (set >>> 2);
+    open &= open >>> 2;
+    set |= open & (set >>> 4);
+    open &= open >>> 4;
+    set |= open & (set >>> 8);
+    open &= open >>> 8;
+    set |= open & (set >>> 16);
+    open &= open >>> 16;
+    set |= open & (set >>> 32);
+    return set;
+  }
+
+  /**
+   * Spreads fires from their sources in the four straight directions, and keeps the cells
+   * covered. A fire covers the cell that stops it, and goes no further.
+   *
+   * @param sources  - The cells the fires start from.
+   * @param blockers - The cells that stop the fires.
+   * @param range    - The number of cells covered in each direction, at most.
+   * @param ray      - A board of the same size, used as the scratch for the spread.
+   */
+  public void spreadFire(BitBoard sources, BitBoard blockers, int range, BitBoard ray) {
+
+    copy(sources);
+    for (Direction direction : DIRECTIONS) {
+
+      ray.copy(sources);
+      for (int i = 0; i < range; i++) {
+        ray.shift(ray, direction);
+        or(ray);
+        ray.andNot(blockers);
+      }
+    }
+  }
+
+}
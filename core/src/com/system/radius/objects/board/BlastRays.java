@@ -0,0 +1,177 @@
+package com.system.radius.objects.board;
+
+import com.system.radius.enums.Direction;
+
+/**
+ * Keeps, for every cell and every straight direction, the distance to the next cell that stops a
+ * fire: the blocks, or the edge of the board. The rays are kept up to date through the changes of
+ * the board, and only the row and column of a cell are looked at again when a block appears on it
+ * or disappears from it.
+ * <p>
+ * Directions follow the board: {@link Direction#UP} goes towards the higher Y coordinates.
+ */
+public class BlastRays implements BoardChangeListener {
+
+  private final BoardState boardState;
+
+  private final int width;
+
+  private final int height;
+
+  /**
+   * The distances by direction, indexed by {@link Direction#ordinal()}, then by cell.
+   */
+  private final int[][] distances;
+
+  /**
+   * The number of changes seen on every row and every column, such that the fires can tell when
+   * their cells have changed.
+   */
+  private final long[] rowVersions;
+
+  private final long[] columnVersions;
+
+  BlastRays(BoardState boardState, int width, int height) {
+
+    this.boardState = boardState;
+    this.width = width;
+    this.height = height;
+
+    distances = new int[4][width * height];
+    rowVersions = new long[height];
+    columnVersions = new long[width];
+  }
+
+  /**
+   * Checks if a character stops a fire.
+   *
+   * @param c - The character of a cell.
+   * @return {@code true} if the fire stops at the cell; {@code false} if it goes through.
+   */
+  public static boolean isBlocking(char c) {
+    return c == WorldConstants.BOARD_PERMA_BLOCK || c == WorldConstants.BOARD_HARD_BLOCK ||
+        c == WorldConstants.BOARD_SOFT_BLOCK || c == WorldConstants.BOARD_TO_DESTROY;
+  }
+
+  /**
+   * Gets the distance to the next cell stopping a fire, the edge of the board included.
+   *
+   * @param x         - The X coordinate of the cell.
+   * @param y         - The Y coordinate of the cell.
+   * @param direction - One of the four straight directions.
+   * @return The distance, at least 1.
+   */
+  public int getDistance(int x, int y, Direction direction) {
+    return distances[direction.ordinal()][y * width + x];
+  }
+
+  /**
+   * Gets the reach of a fire in a direction, in the way of the bombs: the number of cells on fire,
+   * counting the cell of the bomb itself and the block that stops the fire, if any.
+   *
+   * @param x         - The X coordinate of the bomb.
+   * @param y         - The Y coordinate of the bomb.
+   * @param direction - One of the four straight directions.
+   * @param range     - The fire power of the bomb.
+   * @return The reach of the fire.
+   */
+  public int getReach(int x, int y, Direction direction, int range) {
+    return 1 + Math.min(getDistance(x, y, direction), range);
+  }
+
+  public static int getDeltaX(Direction direction) {
+    return direction == Direction.LEFT ? -1 : direction == Direction.RIGHT ? 1 : 0;
+  }
+
+  /**
+   * Gets a version of the row and the column of a cell, raised whenever a cell on either changes.
+   * The rays from the cell are the same as long as the version is.
+   *
+   * @param x - The X coordinate of the cell.
+   * @param y - The Y coordinate of the cell.
+   * @return The version of the cross through the cell.
+   */
+  public long getCrossVersion(int x, int y) {
+    return rowVersions[y] + columnVersions[x];
+  }
+
+  public static int getDeltaY(Direction direction) {
+    return direction == Direction.DOWN ? -1 : direction == Direction.UP ? 1 : 0;
+  }
+
+  @Override
+  public void onCellChanged(int x, int y, char previous, char current) {
+
+    // Any change counts, as the kind of the block stopping a fire matters as well.
+    rowVersions[y]++;
+    columnVersions[x]++;
+
+    if (isBlocking(previous) == isBlocking(current)) {
+      // The fire stops at the cell as much as before, only the kind of block changed.
+      return;
+    }
+
+    updateRow(y);
+    updateColumn(x);
+  }
+
+  @Override
+  public void onBoardReset() {
+
+    for (int y = 0; y < height; y++) {
+      rowVersions[y]++;
+      updateRow(y);
+    }
+
+    for (int x = 0; x < width; x++) {
+      columnVersions[x]++;
+      updateColumn(x);
+    }
+  }
+
+  private void updateRow(int y) {
+
+    int[] west = distances[Direction.LEFT.ordinal()];
+    int[] east = distances[Direction.RIGHT.ordinal()];
+    int row = y * width;
+
+    int blocker = -1;
+    for (int x = 0; x < width; x++) {
+      west[row + x] = x - blocker;
+      if (isBlocking(boardState.getChar(x, y))) {
+        blocker = x;
+      }
+    }
+
+    blocker = width;
+    for (int x = width - 1; x >= 0; x--) {
+      east[row + x] = blocker - x;
+      if (isBlocking(boardState.getChar(x, y))) {
+        blocker = x;
+      }
+    }
+  }
+
+  private void updateColumn(int x) {
+
+    int[] south = distances[Direction.DOWN.ordinal()];
+    int[] north = distances[Direction.UP.ordinal()];
+
+    int blocker = -1;
+    for (int y = 0; y < height; y++) {
+      south[y * width + x] = y - blocker;
+      if (isBlocking(boardState.getChar(x, y))) {
+        blocker = y;
+      }
+    }
+
+    blocker = height;
+    for (int y = height - 1; y >= 0; y--) {
+      north[y * width + x] = blocker - y;
+      if (isBlocking(boardState.getChar(x, y))) {
+        blocker = y;
+      }
+    }
+  }
+
+}
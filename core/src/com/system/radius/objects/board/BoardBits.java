@@ -0,0 +1,189 @@
+package com.system.radius.objects.board;
+
+import com.system.radius.objects.bombs.Bomb;
+
+/**
+ * The cells of the board by kind, as bit boards kept up to date with the changes of the board,
+ * for the queries over the whole board, e.g. the safe cells that can be reached from a cell.
+ */
+public class BoardBits implements BoardChangeListener {
+
+  private final BoardState boardState;
+
+  private final int width;
+
+  private final int height;
+
+  /**
+   * The blocks that cannot be burned at once: the perma blocks and the hard blocks.
+   */
+  private final BitBoard walls;
+
+  /**
+   * The soft blocks, including the ones about to be destroyed.
+   */
+  private final BitBoard softBlocks;
+
+  private final BitBoard bombs;
+
+  private final BitBoard bonuses;
+
+  /**
+   * Every cell that cannot be walked through, i.e. anything other than the empty cells and the
+   * bonuses.
+   */
+  private final BitBoard blocked;
+
+  private final BitBoard passable;
+
+  private final BitBoard coverage;
+
+  BoardBits(BoardState boardState, int width, int height) {
+
+    this.boardState = boardState;
+    this.width = width;
+    this.height = height;
+
+    walls = new BitBoard(width, height);
+    softBlocks = new BitBoard(width, height);
+    bombs = new BitBoard(width, height);
+    bonuses = new BitBoard(width, height);
+    blocked = new BitBoard(width, height);
+    passable = new BitBoard(width, height);
+    coverage = new BitBoard(width, height);
+  }
+
+  public BitBoard getWalls() {
+    return walls;
+  }
+
+  public BitBoard getSoftBlocks() {
+    return softBlocks;
+  }
+
+  public BitBoard getBombs() {
+    return bombs;
+  }
+
+  public BitBoard getBonuses() {
+    return bonuses;
+  }
+
+  public BitBoard getBlocked() {
+    return blocked;
+  }
+
+  /**
+   * Finds the cells that can be reached from a cell and that no fire will cover, in the way the
+   * players look for a place to hide: the fires yet to come can be walked through, while the
+   * burning ones cannot.
+   *
+   * @param x      - The X coordinate of the cell to start from.
+   * @param y      - The Y coordinate of the cell to start from.
+   * @param radius - The maximum number of steps from the cell, or {@link Integer#MAX_VALUE} for
+   *               no limit.
+   * @param safe   - The board to receive the safe cells.
+   * @return The number of safe cells.
+   */
+  public int findSafeCells(int x, int y, int radius, BitBoard safe) {
+
+    coverage.clear();
+    for (int cell = bombs.nextSetCell(0); cell >= 0; cell = bombs.nextSetCell(cell + 1)) {
+      Bomb bomb = (Bomb) boardState.getObject(cell % width, cell / width);
+      addFire(coverage, bomb, cell % width, cell / width);
+    }
+
+    passable.copy(blocked);
+    passable.or(boardState.getFireCells());
+    passable.invert();
+
+    safe.flood(passable, x, y, radius);
+    safe.andNot(coverage);
+
+    // The flood always reaches its source, which is no place to hide if nothing can stand on it.
+    safe.andNot(blocked);
+    return safe.count();
+  }
+
+  /**
+   * Marks the cells on fire of every bomb that went off.
+   *
+   * @param fire - The board to receive the cells on fire.
+   */
+  void rasterizeFire(BitBoard fire) {
+
+    fire.clear();
+    for (int cell = bombs.nextSetCell(0); cell >= 0; cell = bombs.nextSetCell(cell + 1)) {
+
+      Bomb bomb = (Bomb) boardState.getObject(cell % width, cell / width);
+      if (bomb.isExploding()) {
+        addFire(fire, bomb, cell % width, cell / width);
+      }
+    }
+  }
+
+  private void addFire(BitBoard fire, Bomb bomb, int x, int y) {
+
+    fire.setRun(y, x - bomb.getRangeWest() + 1, x + bomb.getRangeEast() - 1);
+    fire.setColumnRun(x, y - bomb.getRangeSouth() + 1, y + bomb.getRangeNorth() - 1);
+  }
+
+  @Override
+  public void onCellChanged(int x, int y, char previous, char current) {
+
+    BitBoard from = getKind(previous);
+    if (from != null) {
+      from.clear(x, y);
+    }
+
+    BitBoard to = getKind(current);
+    if (to != null) {
+      to.set(x, y);
+    }
+
+    if (current == WorldConstants.BOARD_EMPTY || current == WorldConstants.BOARD_BONUS) {
+      blocked.clear(x, y);
+    } else {
+      blocked.set(x, y);
+    }
+  }
+
+  @Override
+  public void onBoardReset() {
+
+    walls.clear();
+    softBlocks.clear();
+    bombs.clear();
+    bonuses.clear();
+    blocked.clear();
+
+    // The board is empty after a reset, but not after a restore.
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        char c = boardState.getChar(x, y);
+        if (c != WorldConstants.BOARD_EMPTY) {
+          onCellChanged(x, y, WorldConstants.BOARD_EMPTY, c);
+        }
+      }
+    }
+  }
+
+  private BitBoard getKind(char c) {
+
+    switch (c) {
+      case WorldConstants.BOARD_PERMA_BLOCK:
+      case WorldConstants.BOARD_HARD_BLOCK:
+        return walls;
+      case WorldConstants.BOARD_SOFT_BLOCK:
+      case WorldConstants.BOARD_TO_DESTROY:
+        return softBlocks;
+      case WorldConstants.BOARD_BOMB:
+        return bombs;
+      case WorldConstants.BOARD_BONUS:
+        return bonuses;
+      default:
+        return null;
+    }
+  }
+
+}
@@ -0,0 +1,25 @@
+package com.system.radius.objects.board;
+
+/**
+ * Listens to the changes of the character representation of the board, for keeping the data
+ * derived from it up to date without scanning the whole board again.
+ */
+public interface BoardChangeListener {
+
+  /**
+   * Called after a cell of the board changes its character.
+   *
+   * @param x        - The X coordinate of the cell.
+   * @param y        - The Y coordinate of the cell.
+   * @param previous - The character the cell had.
+   * @param current  - The character the cell now has.
+   */
+  void onCellChanged(int x, int y, char previous, char current);
+
+  /**
+   * Called after the whole board is reset or restored, for which no cell changes are given. The
+   * board is to be read again.
+   */
+  void onBoardReset();
+
+}
@@ -0,0 +1,129 @@
+package com.system.radius.objects.board;
+
+/**
+ * The record of the changes of the character representation of the board, in the order they
+ * were made. Each change is given a sequence number, from which a reader can catch up with the
+ * changes made since it last looked.
+ * <p>
+ * Only the most recent changes are kept. A reader that fell further behind than that should read
+ * the whole board again instead, which it can find out through {@link #isAvailable(long)}.
+ */
+public class BoardJournal {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  private final int mask;
+
+  private final int[] cells;
+
+  private final char[] previousChars;
+
+  private final char[] currentChars;
+
+  private final long[] ticks;
+
+  /**
+   * The sequence number of the next change.
+   */
+  private long sequence;
+
+  /**
+   * The sequence number of the first change since the last reset.
+   */
+  private long start;
+
+  public BoardJournal() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity - The number of changes to be kept, rounded up to a power of two.
+   */
+  public BoardJournal(int capacity) {
+
+    int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    mask = size - 1;
+    cells = new int[size];
+    previousChars = new char[size];
+    currentChars = new char[size];
+    ticks = new long[size];
+  }
+
+  /**
+   * Records a change.
+   *
+   * @param cell     - The cell changed, as {@code y * width + x}.
+   * @param previous - The character the cell had.
+   * @param current  - The character the cell now has.
+   * @param tick     - The update of the board in which the change was made.
+   */
+  void record(int cell, char previous, char current, long tick) {
+
+    int index = (int) sequence & mask;
+    cells[index] = cell;
+    previousChars[index] = previous;
+    currentChars[index] = current;
+    ticks[index] = tick;
+    sequence++;
+  }
+
+  /**
+   * Forgets every change, as the board was reset. The reset takes up a sequence number of its own,
+   * so that every reader sees that it has to read the whole board again.
+   */
+  void reset() {
+    start = ++sequence;
+  }
+
+  /**
+   * @return The sequence number the next change will have, i.e. the point up to which a reader
+   * has caught up once it has read every change before it.
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * @return The sequence number of the oldest change still kept.
+   */
+  public long getOldestSequence() {
+    return Math.max(start, sequence - cells.length);
+  }
+
+  /**
+   * Checks if every change from a sequence number onwards is still kept.
+   *
+   * @param from - The sequence number of the first change to be read.
+   * @return {@code true} if the changes can be read; {@code false} if some of them are gone, in
+   * which case the whole board should be read again.
+   */
+  public boolean isAvailable(long from) {
+    return from >= getOldestSequence() && from <= sequence;
+  }
+
+  public int getCell(long sequence) {
+    return cells[index(sequence)];
+  }
+
+  public char getPreviousChar(long sequence) {
+    return previousChars[index(sequence)];
+  }
+
+  public char getCurrentChar(long sequence) {
+    return currentChars[index(sequence)];
+  }
+
+  public long getTick(long sequence) {
+    return ticks[index(sequence)];
+  }
+
+  private int index(long sequence) {
+
+    if (sequence < getOldestSequence() || sequence >= this.sequence) {
+      throw new IndexOutOfBoundsException("The change " + sequence + " is not kept.");
+    }
+
+    return (int) sequence & mask;
+  }
+
+}
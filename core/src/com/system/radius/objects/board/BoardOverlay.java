@@ -0,0 +1,145 @@
+package com.system.radius.objects.board;
+
+import java.util.Arrays;
+
+/**
+ * Layers of changes over a cost board. The changes are written to the board itself, so the board
+ * can be read and searched as is, while the values they replaced are logged. Discarding a layer
+ * puts those values back, at the cost of the changes made rather than the size of the board.
+ * <p>
+ * Layers nest: a layer pushed over another one is discarded on its own, leaving the layers below
+ * untouched.
+ * <p>
+ * The changes are counted, so that a reader can tell whether the board may have changed since it
+ * last looked.
+ */
+public class BoardOverlay {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private int[][] board;
+
+  /**
+   * The cells changed, as {@code y * width + x}, in the order of the changes.
+   */
+  private int[] cells = new int[INITIAL_CAPACITY];
+
+  /**
+   * The values replaced by the changes, parallel to {@link #cells}.
+   */
+  private int[] values = new int[INITIAL_CAPACITY];
+
+  private int size;
+
+  /**
+   * The size of the log when each layer was pushed.
+   */
+  private int[] marks = new int[8];
+
+  private int depth;
+
+  /**
+   * The number of changes made through this overlay, a discarded layer counting as one. It only
+   * ever grows, across the boards attached as well.
+   */
+  private long changes;
+
+  /**
+   * Starts layering over a board. Any layer still open over the previous board is forgotten, with
+   * its changes left in place. The count of the changes goes on from where it was.
+   *
+   * @param board - The cost board to change.
+   */
+  public void attach(int[][] board) {
+
+    this.board = board;
+    size = 0;
+    depth = 0;
+  }
+
+  public int[][] getBoard() {
+    return board;
+  }
+
+  /**
+   * @return The number of changes made so far. The board is the same as when the count was last
+   * read if the count is still the same.
+   */
+  public long getChanges() {
+    return changes;
+  }
+
+  /**
+   * @return The number of layers currently open.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Opens a new layer, to which the following changes belong.
+   */
+  public void push() {
+
+    if (depth == marks.length) {
+      marks = Arrays.copyOf(marks, depth * 2);
+    }
+
+    marks[depth++] = size;
+  }
+
+  /**
+   * Discards the top layer, putting back the values its changes replaced.
+   */
+  public void pop() {
+
+    if (depth == 0) {
+      throw new IllegalStateException("There is no layer to discard.");
+    }
+
+    int width = board[0].length;
+    int mark = marks[--depth];
+    if (size > mark) {
+      changes++;
+    }
+
+    while (size > mark) {
+      size--;
+      board[cells[size] / width][cells[size] % width] = values[size];
+    }
+  }
+
+  public int get(int x, int y) {
+    return board[y][x];
+  }
+
+  /**
+   * Changes a cell of the board within the top layer.
+   *
+   * @param x     - The X coordinate of the cell.
+   * @param y     - The Y coordinate of the cell.
+   * @param value - The new value of the cell.
+   */
+  public void set(int x, int y, int value) {
+
+    int previous = board[y][x];
+    if (previous == value) {
+      return;
+    }
+
+    if (depth > 0) {
+      if (size == cells.length) {
+        cells = Arrays.copyOf(cells, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+
+      cells[size] = y * board[0].length + x;
+      values[size] = previous;
+      size++;
+    }
+
+    board[y][x] = value;
+    changes++;
+  }
+
+}
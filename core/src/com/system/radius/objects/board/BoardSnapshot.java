@@ -0,0 +1,271 @@
+package com.system.radius.objects.board;
+
+import com.system.radius.objects.AbstractBomberObject;
+import com.system.radius.objects.blocks.Block;
+import com.system.radius.objects.blocks.Bonus;
+import com.system.radius.objects.blocks.HardBlock;
+import com.system.radius.objects.blocks.SoftBlock;
+import com.system.radius.objects.bombs.Bomb;
+import com.system.radius.objects.bombs.NekoBomb;
+import com.system.radius.objects.players.Player;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Writes the state of a match to a buffer and reads it back, for the checkpoints of a match. The
+ * snapshot holds the objects of every cell with their timers, the players with their stats and
+ * positions, their bombs, and the characters of the board.
+ * <p>
+ * The layout is:
+ * <ul>
+ * <li>the header: the magic number, the format version, the width and height of the board, the
+ * tick of the board, and the step and the time since the step of its timing wheel;</li>
+ * <li>the objects, cell by cell, row by row: the kind of the object, the index of a bonus, and
+ * the state of the object;</li>
+ * <li>the players, by id: the state of the player, then the number of their bombs, each with its
+ * cell and state;</li>
+ * <li>the characters of the board, one byte per cell, row by row.</li>
+ * </ul>
+ * The players themselves are not created by a restore, the snapshot is read back into the players
+ * already on the board. The objects already on a cell are reused for the same kind of object.
+ * The timers of the objects are written as the steps they go off on.
+ */
+public class BoardSnapshot {
+
+  /**
+   * The first bytes of every snapshot, "BMSN".
+   */
+  public static final int MAGIC = 0x424D534E;
+
+  /**
+   * The version of the layout, raised on every change of the layout.
+   */
+  public static final short FORMAT_VERSION = 3;
+
+  private static final byte KIND_NONE = 0;
+
+  private static final byte KIND_PERMA_BLOCK = 1;
+
+  private static final byte KIND_HARD_BLOCK = 2;
+
+  private static final byte KIND_SOFT_BLOCK = 3;
+
+  private static final byte KIND_BONUS = 4;
+
+  /**
+   * A bomb, written along with the bombs of its owner.
+   */
+  private static final byte KIND_BOMB = 5;
+
+  private static final int HEADER_SIZE = 30;
+
+  private static final int MAX_OBJECT_SIZE = 16;
+
+  private static final int MAX_PLAYER_SIZE = 48;
+
+  private static final int MAX_BOMB_SIZE = 48;
+
+  private BoardSnapshot() {
+  }
+
+  /**
+   * Gets the size of a buffer large enough for a snapshot of the current state of a board.
+   *
+   * @param boardState - The board state.
+   * @return The size in bytes.
+   */
+  public static int getMaxSize(BoardState boardState) {
+
+    int cells = boardState.getBoardWidth() * boardState.getBoardHeight();
+    int size = HEADER_SIZE + cells * (MAX_OBJECT_SIZE + 1) + 1;
+    for (Player player : boardState.getPlayers()) {
+      size += MAX_PLAYER_SIZE + player.getBombs().size * MAX_BOMB_SIZE;
+    }
+
+    return size;
+  }
+
+  /**
+   * Writes a snapshot of a board to a buffer, from its position on.
+   *
+   * @param boardState - The board state.
+   * @param buffer     - The buffer to write to, see {@link #getMaxSize(BoardState)}.
+   */
+  public static void write(BoardState boardState, ByteBuffer buffer) {
+
+    int width = boardState.getBoardWidth();
+    int height = boardState.getBoardHeight();
+    List<Player> players = boardState.getPlayers();
+
+    buffer.putInt(MAGIC);
+    buffer.putShort(FORMAT_VERSION);
+    buffer.putShort((short) width);
+    buffer.putShort((short) height);
+    buffer.putLong(boardState.getTick());
+    buffer.putLong(boardState.getTimingWheel().getStep());
+    buffer.putFloat(boardState.getTimingWheel().getRemainder());
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+
+        AbstractBomberObject object = boardState.getObject(x, y);
+        byte kind = getKind(object);
+        buffer.put(kind);
+
+        if (kind == KIND_BONUS) {
+          buffer.put((byte) ((Bonus) object).getBonusIndex());
+        }
+
+        if (kind != KIND_NONE && kind != KIND_BOMB) {
+          object.writeState(buffer);
+        }
+      }
+    }
+
+    buffer.put((byte) players.size());
+    for (Player player : players) {
+
+      player.writeState(buffer);
+      buffer.putShort((short) player.getBombs().size);
+      for (Bomb bomb : player.getBombs()) {
+        buffer.putShort((short) boardState.getExactX(bomb));
+        buffer.putShort((short) boardState.getExactY(bomb));
+        bomb.writeState(buffer);
+      }
+    }
+
+    char[] boardRep = boardState.getBoardRep();
+    for (char c : boardRep) {
+      buffer.put((byte) c);
+    }
+  }
+
+  /**
+   * Restores a board from a snapshot, read from the position of the buffer on. The board must
+   * have the same size and the same players as the board the snapshot was taken from.
+   *
+   * @param boardState - The board state to restore.
+   * @param buffer     - The buffer to read from.
+   * @throws IllegalArgumentException If the buffer does not hold a snapshot of this version, or
+   *                                  the snapshot is of a different board.
+   */
+  public static void restore(BoardState boardState, ByteBuffer buffer) {
+
+    int width = boardState.getBoardWidth();
+    int height = boardState.getBoardHeight();
+    List<Player> players = boardState.getPlayers();
+
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a board snapshot.");
+    }
+
+    short version = buffer.getShort();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+    }
+
+    if (buffer.getShort() != width || buffer.getShort() != height) {
+      throw new IllegalArgumentException("The snapshot is of a board of a different size.");
+    }
+
+    long tick = buffer.getLong();
+    long step = buffer.getLong();
+    float remainder = buffer.getFloat();
+    float scale = WorldConstants.WORLD_SCALE;
+    boardState.beginRestore(step, remainder);
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+
+        AbstractBomberObject current = boardState.getObject(x, y);
+        byte kind = buffer.get();
+        if (kind == KIND_NONE || kind == KIND_BOMB) {
+          // The bombs come back with their owners, the current one is kept for reuse until then.
+          boardState.putObject(x, y, kind == KIND_BOMB && current instanceof Bomb ? current : null);
+          continue;
+        }
+
+        AbstractBomberObject object;
+        if (kind == KIND_BONUS) {
+          int index = buffer.get();
+          object = current instanceof Bonus && ((Bonus) current).getBonusIndex() == index ?
+              current : Bonus.createBonus(boardState, index, x * scale, y * scale);
+        } else {
+          object = current != null && getKind(current) == kind ? current :
+              createBlock(boardState, kind, x * scale, y * scale);
+        }
+
+        object.readState(buffer);
+        boardState.putObject(x, y, object);
+      }
+    }
+
+    if (buffer.get() != players.size()) {
+      throw new IllegalArgumentException("The snapshot is of a board with other players.");
+    }
+
+    for (Player player : players) {
+
+      player.readState(buffer);
+      player.getBombs().clear();
+
+      int bombs = buffer.getShort();
+      for (int i = 0; i < bombs; i++) {
+
+        int x = buffer.getShort();
+        int y = buffer.getShort();
+        AbstractBomberObject current = boardState.getObject(x, y);
+        Bomb bomb = current instanceof Bomb && ((Bomb) current).getOwner() == player ?
+            (Bomb) current : new NekoBomb(player, x * scale, y * scale, scale, scale);
+
+        bomb.readState(buffer);
+        boardState.putObject(x, y, bomb);
+        player.getBombs().add(bomb);
+      }
+    }
+
+    char[] boardRep = boardState.getBoardRep();
+    for (int i = 0; i < boardRep.length; i++) {
+      boardRep[i] = (char) buffer.get();
+    }
+
+    boardState.endRestore(tick);
+  }
+
+  private static byte getKind(AbstractBomberObject object) {
+
+    if (object == null) {
+      return KIND_NONE;
+    } else if (object instanceof Bomb) {
+      return KIND_BOMB;
+    } else if (object instanceof Bonus) {
+      return KIND_BONUS;
+    } else if (object instanceof HardBlock) {
+      return KIND_HARD_BLOCK;
+    } else if (object instanceof SoftBlock) {
+      return KIND_SOFT_BLOCK;
+    } else if (object.getClass() == Block.class) {
+      return KIND_PERMA_BLOCK;
+    }
+
+    throw new IllegalStateException("Cannot write a snapshot of " +
+        object.getClass().getSimpleName());
+  }
+
+  private static Block createBlock(BoardState boardState, byte kind, float x, float y) {
+
+    float scale = WorldConstants.WORLD_SCALE;
+    switch (kind) {
+      case KIND_PERMA_BLOCK:
+        return new Block(boardState, x, y, scale, scale);
+      case KIND_HARD_BLOCK:
+        return new HardBlock(boardState, x, y, scale, scale);
+      case KIND_SOFT_BLOCK:
+        return new SoftBlock(boardState, x, y, scale, scale, false);
+      default:
+        throw new IllegalArgumentException("Unknown object kind: " + kind);
+    }
+  }
+
+}
@@ -2,16 +2,15 @@ package com.system.radius.objects.board;
 
 import com.system.radius.objects.AbstractBomberObject;
 import com.system.radius.objects.blocks.Block;
-import com.system.radius.objects.bombs.Bomb;
+import com.system.radius.objects.bombs.BlastKernel;
+import com.system.radius.objects.bombs.ExplosionResolver;
 import com.system.radius.objects.players.Player;
 import com.system.radius.utils.AStarUtils;
-import com.system.radius.utils.Range;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * Represents the current state of the board being played on. Also contains utility methods for
@@ -19,63 +18,189 @@ import java.util.Set;
  */
 public class BoardState {
 
-  private static BoardState instance;
-
-  private AbstractBomberObject[][] board;
+  /**
+   * The objects on the board, row by row.
+   */
+  private AbstractBomberObject[] board;
 
   private List<Player> players;
 
-  private char[][] boardRep;
+  /**
+   * The character representation of the board, row by row.
+   */
+  private char[] boardRep;
 
   private int boardWidth;
 
   private int boardHeight;
 
-  private BoardState(int boardWidth, int boardHeight) {
-    this.boardWidth = boardWidth;
-    this.boardHeight = boardHeight;
-  }
+  /**
+   * The timing of the bomb fires, shared by every player.
+   */
+  private DangerMap dangerMap;
+
+  /**
+   * The timing of the bomb fires as seen by the players owning remote bombs, by id.
+   */
+  private final DangerMap[] ownerMaps = new DangerMap[PlayerOccupancy.MAX_PLAYERS];
+
+  /**
+   * The number of times the objects on the board were updated, used for keeping the shared data
+   * computed once per update.
+   */
+  private long tick;
+
+  /**
+   * The version of the board, raised on every change that may affect the movement costs. It is
+   * never lowered, not even on reset, so a version is never seen twice.
+   */
+  private long version;
+
+  /**
+   * The record of the changes of the character representation.
+   */
+  private final BoardJournal journal = new BoardJournal();
+
+  private final List<BoardChangeListener> listeners = new ArrayList<>();
+
+  /**
+   * The timers of the objects on the board, e.g. the fuses of the bombs and the burning blocks.
+   */
+  private final TimingWheel timingWheel = new TimingWheel();
+
+  /**
+   * The bombs going off in the current update, with the chains they set off.
+   */
+  private final ExplosionResolver explosionResolver = new ExplosionResolver(this);
+
+  /**
+   * The distances to the blocks stopping the fires, kept up to date with the board.
+   */
+  private final BlastRays blastRays;
+
+  /**
+   * The cells of the board by kind, kept up to date with the board.
+   */
+  private final BoardBits boardBits;
+
+  /**
+   * The cells touched by the players, kept up to date as the players move.
+   */
+  private final PlayerOccupancy occupancy;
+
+  /**
+   * The cells on fire, laid out from every bomb that went off, and the version of the board they
+   * were laid out for.
+   */
+  private final BitBoard fireCells;
+
+  private long fireVersion = -1;
 
   /**
-   * Gets a board state instance.
+   * Creates the state of a board. Every match keeps its own board state, such that several
+   * matches can be played at the same time.
    *
-   * @return The BoardState instance
+   * @param boardWidth  - The width of the board, in cells.
+   * @param boardHeight - The height of the board, in cells.
    */
-  public static BoardState getInstance() {
+  public BoardState(int boardWidth, int boardHeight) {
+    this.boardWidth = boardWidth;
+    this.boardHeight = boardHeight;
 
-    if (instance == null) {
-      instance = new BoardState((int) WorldConstants.WORLD_WIDTH,
-          (int) WorldConstants.WORLD_HEIGHT);
-    }
+    blastRays = new BlastRays(this, boardWidth, boardHeight);
+    addChangeListener(blastRays);
 
-    return instance;
+    boardBits = new BoardBits(this, boardWidth, boardHeight);
+    addChangeListener(boardBits);
+
+    occupancy = new PlayerOccupancy(boardWidth, boardHeight, WorldConstants.WORLD_SCALE);
+    fireCells = new BitBoard(boardWidth, boardHeight);
   }
 
-  public char[][] getBoardRep() {
+  /**
+   * @return The character representation of the board, row by row, i.e. the character for a
+   * coordinate is at {@code y * width + x}.
+   */
+  public char[] getBoardRep() {
     return boardRep;
   }
 
+  public int getBoardWidth() {
+    return boardWidth;
+  }
+
+  public int getBoardHeight() {
+    return boardHeight;
+  }
+
   public void reset() {
-    board = new AbstractBomberObject[boardHeight][boardWidth];
-    boardRep = new char[boardHeight][boardWidth];
+    board = new AbstractBomberObject[boardHeight * boardWidth];
+    boardRep = new char[boardHeight * boardWidth];
 
     players = new ArrayList<>();
-
-    for (int i = 0; i < boardHeight; i++) {
-      for (int j = 0; j < boardWidth; j++) {
-        board[i][j] = null;
-        boardRep[i][j] = WorldConstants.BOARD_EMPTY;
-      }
+    timingWheel.clear();
+    occupancy.clear();
+    dangerMap = new DangerMap(boardWidth, boardHeight);
+    Arrays.fill(ownerMaps, null);
+    tick = 0;
+    version++;
+
+    Arrays.fill(boardRep, WorldConstants.BOARD_EMPTY);
+
+    journal.reset();
+    for (BoardChangeListener listener : listeners) {
+      listener.onBoardReset();
     }
   }
 
+  public BlastRays getBlastRays() {
+    return blastRays;
+  }
+
+  public BoardBits getBoardBits() {
+    return boardBits;
+  }
+
+  public BoardJournal getJournal() {
+    return journal;
+  }
+
+  public PlayerOccupancy getOccupancy() {
+    return occupancy;
+  }
+
+  public void addChangeListener(BoardChangeListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeChangeListener(BoardChangeListener listener) {
+    listeners.remove(listener);
+  }
+
   public List<Player> getPlayers() {
 
     return Collections.unmodifiableList(players);
   }
 
   public void addPlayer(Player player) {
+
+    if (players.size() == PlayerOccupancy.MAX_PLAYERS) {
+      throw new IllegalStateException("A board holds up to " + PlayerOccupancy.MAX_PLAYERS +
+          " players.");
+    }
+
+    player.setId(players.size());
     players.add(player);
+    movePlayer(player);
+  }
+
+  /**
+   * Brings the cells touched by a player up to date with their position.
+   *
+   * @param player - A player on this board.
+   */
+  public void movePlayer(Player player) {
+    occupancy.place(player.getId(), player.getX(), player.getY());
   }
 
   public int getExactX(AbstractBomberObject object) {
@@ -103,8 +228,9 @@ public class BoardState {
     int x = getExactX(object);
     int y = getExactY(object);
 
-    board[y][x] = object;
-    boardRep[y][x] = object.getCharacterRepresentation();
+    board[y * boardWidth + x] = object;
+    writeChar(x, y, object.getCharacterRepresentation());
+    markChanged();
 
   }
 
@@ -113,21 +239,23 @@ public class BoardState {
     int x = getExactX(object);
     int y = getExactY(object);
 
-    board[y][x] = null;
-    boardRep[y][x] = WorldConstants.BOARD_EMPTY;
+    board[y * boardWidth + x] = null;
+    writeChar(x, y, WorldConstants.BOARD_EMPTY);
+    markChanged();
 
   }
 
   public void removeFromBoard(int x, int y) {
 
-    board[y][x] = null;
-    boardRep[y][x] = ' ';
+    board[y * boardWidth + x] = null;
+    writeChar(x, y, WorldConstants.BOARD_EMPTY);
+    markChanged();
 
   }
 
   public void burnObject(int x, int y) {
 
-    AbstractBomberObject object = board[y][x];
+    AbstractBomberObject object = board[y * boardWidth + x];
 
     if (object == null) {
       return;
@@ -139,16 +267,16 @@ public class BoardState {
 
   public AbstractBomberObject getObject(int x, int y) {
 
-    return board[y][x];
+    return board[y * boardWidth + x];
   }
 
   public char getChar(int x, int y) {
 
-    if (x < 0 || x >= WorldConstants.WORLD_WIDTH || y < 0 || y >= WorldConstants.WORLD_HEIGHT) {
+    if (x < 0 || x >= boardWidth || y < 0 || y >= boardHeight) {
       return WorldConstants.BOARD_PERMA_BLOCK;
     }
 
-    return boardRep[y][x];
+    return boardRep[y * boardWidth + x];
   }
 
   /**
@@ -160,45 +288,207 @@ public class BoardState {
    * @param c - The character to be set.
    */
   public void setChar(int x, int y, char c) {
-    boardRep[y][x] = c;
+
+    if (writeChar(x, y, c)) {
+      markChanged();
+    }
+  }
+
+  /**
+   * Writes a character to the board. Every change of the characters goes through here, to be
+   * recorded in the journal and told to the listeners.
+   *
+   * @return {@code true} if the character changed; {@code false} if it was already there.
+   */
+  private boolean writeChar(int x, int y, char c) {
+
+    int cell = y * boardWidth + x;
+    char previous = boardRep[cell];
+    if (previous == c) {
+      return false;
+    }
+
+    boardRep[cell] = c;
+    journal.record(cell, previous, c, tick);
+    for (BoardChangeListener listener : listeners) {
+      listener.onCellChanged(x, y, previous, c);
+    }
+
+    return true;
+  }
+
+  /**
+   * Marks the board as changed. This is done by every modification of the board, and should be
+   * called as well on the changes that affect the movement costs without modifying the board,
+   * e.g. a bomb starting to explode.
+   */
+  public void markChanged() {
+
+    version++;
+    dangerMap.invalidate();
+    for (DangerMap ownerMap : ownerMaps) {
+      if (ownerMap != null) {
+        ownerMap.invalidate();
+      }
+    }
+  }
+
+  /**
+   * @return The current version of the board. Equal versions mean that the board did not change
+   * in between.
+   */
+  public long getVersion() {
+    return version;
   }
 
   /**
-   * Checks for the existence of blocks around the specified coordinate, with regards to the fire
-   * power of the player.
+   * Checks for the blocks that a bomb of a given kind would burn, with regards to the fire power
+   * of the player.
    *
-   * @param x     - The X-coordinate for the checking.
-   * @param y     - The Y-coordinate for the checking.
-   * @param range - The fire power / range of the player's bomb.
+   * @param kernel    - The kernel spreading the fire of the bomb.
+   * @param x         - The X-coordinate for the checking.
+   * @param y         - The Y-coordinate for the checking.
+   * @param firePower - The fire power of the player.
    * @return The number of blocks that can be destroyed.
    */
-  public int checkBlocks(int x, int y, int range) {
+  public int checkBlocks(BlastKernel kernel, int x, int y, int firePower) {
+
+    return kernel.countTargets(this, x, y, kernel.getRange(this, firePower));
+  }
+
+  /**
+   * Gets the timing of the bomb fires over the board. The map is computed at most once per update
+   * of the objects, unless the board changes in between.
+   *
+   * @return The danger map for the current state of the board.
+   */
+  public DangerMap getDangerMap() {
+
+    dangerMap.update(this, tick);
+    return dangerMap;
+  }
+
+  /**
+   * Gets the timing of the bomb fires as seen by a player, who knows when their own remote bombs
+   * go off. The shared map is given to the players without any remote bomb on the board.
+   *
+   * @param viewer - The player looking at the board.
+   * @return The danger map for the current state of the board, as seen by the player.
+   */
+  public DangerMap getDangerMap(Player viewer) {
 
-    Range rangeObject = new Range(x, y, range);
-    Map<Character, Boolean> burnTargets = rangeObject.getBurnTargets();
+    if (!viewer.hasRemoteBombs()) {
+      return getDangerMap();
+    }
 
-    int count = 0;
-    Set<Character> keys = burnTargets.keySet();
-    for (char key : keys) {
-      count += burnTargets.get(key) ? 1 : 0;
+    DangerMap ownerMap = ownerMaps[viewer.getId()];
+    if (ownerMap == null || ownerMap.getViewer() != viewer) {
+      ownerMap = new DangerMap(boardWidth, boardHeight, viewer);
+      ownerMaps[viewer.getId()] = ownerMap;
     }
 
-    return count;
+    ownerMap.update(this, tick);
+    return ownerMap;
   }
 
-  public void updateObjects(float delta) {
-    for (int i = 0; i < boardRep.length; i++) {
-      for (int j = 0; j < boardRep[i].length; j++) {
-        if (boardRep[i][j] == WorldConstants.BOARD_BOMB || boardRep[i][j] == WorldConstants.BOARD_EMPTY) {
-          continue;
-        }
+  /**
+   * Gets the cells on fire. The fires of every bomb that went off are laid on one grid, which is
+   * only laid out again once the board changes, e.g. when a bomb goes off or its fire is gone.
+   *
+   * @return The cells on fire.
+   */
+  public BitBoard getFireCells() {
+
+    if (fireVersion != version) {
+      boardBits.rasterizeFire(fireCells);
+      fireVersion = version;
+    }
+
+    return fireCells;
+  }
 
-        board[i][j].update(delta);
+  /**
+   * Burns every player touching a cell on fire.
+   */
+  private void burnPlayers() {
+
+    BitBoard fire = getFireCells();
+    if (fire.nextSetCell(0) < 0) {
+      return;
+    }
 
+    for (Player player : players) {
+      if (occupancy.touches(player.getId(), fire)) {
+        player.burn();
       }
     }
   }
 
+  public TimingWheel getTimingWheel() {
+    return timingWheel;
+  }
+
+  public ExplosionResolver getExplosionResolver() {
+    return explosionResolver;
+  }
+
+  /**
+   * @return The number of times the objects on the board were updated.
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Starts restoring the board from a snapshot. The objects are then put back one by one, and
+   * their characters all at once. The timers are cancelled, the objects schedule them again.
+   *
+   * @param step      - The number of steps gone by on the restored board.
+   * @param remainder - The time gone by since the last step.
+   */
+  void beginRestore(long step, float remainder) {
+    timingWheel.setTime(step, remainder);
+  }
+
+  /**
+   * Puts an object on a cell, leaving the character of the cell alone.
+   */
+  void putObject(int x, int y, AbstractBomberObject object) {
+    board[y * boardWidth + x] = object;
+  }
+
+  /**
+   * Ends restoring the board from a snapshot, once the characters are written. The changes of the
+   * restore are not recorded, the listeners read the whole board again instead.
+   *
+   * @param tick - The number of updates of the restored board.
+   */
+  void endRestore(long tick) {
+
+    this.tick = tick;
+    journal.reset();
+    for (BoardChangeListener listener : listeners) {
+      listener.onBoardReset();
+    }
+
+    markChanged();
+  }
+
+  /**
+   * Moves the board on by a frame: the timers due go off, the bombs due explode along with the
+   * chains they set off, then the players in a fire are burned. The objects on the board have
+   * nothing else to do on their own.
+   *
+   * @param delta - The time gone by, in seconds.
+   */
+  public void updateObjects(float delta) {
+
+    tick++;
+    timingWheel.advance(delta);
+    explosionResolver.resolve();
+    burnPlayers();
+  }
+
   public List<Block> getSurroundingBlocks(Player player) {
 
     int x = getExactX(player);
@@ -208,18 +498,19 @@ public class BoardState {
 
     for (int i = y - 1; i <= y + 1; i++) {
 
-      if (i < 0 || i >= WorldConstants.WORLD_HEIGHT) {
+      if (i < 0 || i >= boardHeight) {
         continue;
       }
 
       for (int j = x - 1; j <= x + 1; j++) {
 
-        if (j < 0 || j >= WorldConstants.WORLD_WIDTH) {
+        if (j < 0 || j >= boardWidth) {
           continue;
         }
 
-        if (board[i][j] instanceof Block) {
-          blocks.add((Block) board[i][j]);
+        AbstractBomberObject object = board[i * boardWidth + j];
+        if (object instanceof Block) {
+          blocks.add((Block) object);
         }
       }
     }
@@ -236,26 +527,23 @@ public class BoardState {
    */
   public final int[][] constructBoardRep(Player player) {
 
-    int worldHeight = (int) WorldConstants.WORLD_HEIGHT;
-    int worldWidth = (int) WorldConstants.WORLD_WIDTH;
-
-    char[][] charBoard = this.getBoardRep();
+    char[] charBoard = this.getBoardRep();
 
-    return updateBoardCost(player, createBoardRep(player, charBoard, worldWidth, worldHeight),
-        charBoard, worldWidth, worldHeight);
+    return updateBoardCost(player, createBoardRep(player, charBoard, boardWidth, boardHeight),
+        charBoard, boardWidth, boardHeight);
   }
 
   /**
    * Creates the first board representation with default costs.
    *
    * @param player      - The current player as basis of the construction.
-   * @param charBoard   - The character-based board which will be the basis for the non-passable
-   *                    terrain.
+   * @param charBoard   - The character-based board, row by row, which will be the basis for the
+   *                    non-passable terrain.
    * @param worldWidth  - The current world's width.
    * @param worldHeight - The current world's height.
    * @return The default integer representation.
    */
-  private int[][] createBoardRep(Player player, char[][] charBoard, int worldWidth,
+  private int[][] createBoardRep(Player player, char[] charBoard, int worldWidth,
                                  int worldHeight) {
 
 
@@ -268,9 +556,9 @@ public class BoardState {
     for (int i = 0; i < worldHeight; i++) {
       for (int j = 0; j < worldWidth; j++) {
 
-        if ((charBoard[i][j] != WorldConstants.BOARD_EMPTY &&
-            charBoard[i][j] != WorldConstants.BOARD_BONUS) ||
-            (charBoard[i][j] == WorldConstants.BOARD_BOMB &&
+        char c = charBoard[i * worldWidth + j];
+        if ((c != WorldConstants.BOARD_EMPTY && c != WorldConstants.BOARD_BONUS) ||
+            (c == WorldConstants.BOARD_BOMB &&
                 ((Block)getObject(i, j)).isActiveCollision(player))) {
           // Mark everything else as unpassable.
           intBoard[i][j] = -1;
@@ -293,41 +581,27 @@ public class BoardState {
    *
    * @param player      - The current player as basis of the construction.
    * @param intBoard    - The default integer board representation.
-   * @param charBoard   - The character-based board representation.
+   * @param charBoard   - The character-based board representation, row by row.
    * @param worldWidth  - The current world's width.
    * @param worldHeight - The current world's height.
    * @return The new board with updated costs.
    */
-  private int[][] updateBoardCost(Player player, int[][] intBoard, char[][] charBoard,
+  private int[][] updateBoardCost(Player player, int[][] intBoard, char[] charBoard,
                                   int worldWidth, int worldHeight) {
 
     int speedLevel = (int) player.getSpeedLevel();
-    int multiSpeedLevel = speedLevel * 10;
-    int playerX = this.getExactX(player);
-    int playerY = this.getExactY(player);
-
-    // Apply the bomb's fire ranges' cost.
-    for (int i = -multiSpeedLevel; i <= multiSpeedLevel; i++) {
-      int y = playerY + i;
-
-      // Out-of-bounds checking
-      if (y < 0 || y >= worldHeight) {
-        continue;
-      }
+    int cost = WorldConstants.FIRE_PATH_COST - (speedLevel * 10);
 
-      for (int j = -multiSpeedLevel; j <= multiSpeedLevel; j++) {
+    // Apply the bomb's fire ranges' cost, the fires themselves cannot be passed.
+    DangerMap danger = getDangerMap(player);
+    for (int y = 0; y < worldHeight; y++) {
+      for (int x = 0; x < worldWidth; x++) {
 
-        int x = playerX + j;
-
-        // Out-of-bounds + object of interest checking.
-        if (x < 0 || x >= worldWidth || charBoard[y][x] != WorldConstants.BOARD_BOMB) {
+        if (intBoard[y][x] < 0 || !danger.isDangerous(x, y)) {
           continue;
         }
 
-        // The object marked by (x, y) is sure to be a bomb instance.
-        Bomb bomb = (Bomb) getObject(x, y);
-        updateBombCost(player, intBoard, bomb);
-
+        intBoard[y][x] = danger.isBurning(x, y) ? -1 : cost;
       }
     }
 
@@ -335,77 +609,50 @@ public class BoardState {
   }
 
   /**
-   * Updates the board cost based on the bomb positions.
+   * Creates a copy of the hypothetical board for the application of the theoretical bombs.
    *
-   * @param player - The current player as basis of construction.
-   * @param board  - The constructed board to be updated.
-   * @param bomb   - The bomb as basis of path update.
+   * @param hypotheticalBoard - The board to be copied.
+   * @return A copy of the hypothetical board.
    */
-  private void updateBombCost(Player player, int[][] board, Bomb bomb) {
+  public int[][] copyBoard(int[][] hypotheticalBoard) {
 
-    int speedLevel = (int) player.getSpeedLevel();
-    bomb.updateBoardCost(board, speedLevel);
+    int h = hypotheticalBoard.length;
+    int w = hypotheticalBoard[0].length;
 
+    return copyBoard(hypotheticalBoard, new int[h][w]);
   }
 
   /**
-   * This method adapts the values from the parent board to the hypothetical board for the
-   * prediction of new path to be traversed after the parent action is done.
-   * All boards to be adapted is supposed to be rectangular in shape.
+   * Copies a board over another one of the same size, e.g. a scratch board, or a board to be
+   * restored from its snapshot.
    *
-   * @param hypotheticalBoard - The base board to be updated.
-   * @param parentBoard       - The parent board whose values will be copied.
+   * @param source      - The board to be copied.
+   * @param destination - The board to receive the values.
+   * @return The destination board.
    */
-  public void adaptBoard(int[][] hypotheticalBoard, int[][] parentBoard) {
+  public int[][] copyBoard(int[][] source, int[][] destination) {
 
-    if (parentBoard == null) {
-      return;
+    for (int i = 0; i < source.length; i++) {
+      System.arraycopy(source[i], 0, destination[i], 0, source[i].length);
     }
 
-    int boardHeight = parentBoard.length;
-    int boardWidth = parentBoard[0].length;
-
-    for (int i = 0; i < boardHeight; i++) {
-      for (int j = 0; j < boardWidth; j++) {
-
-        int parentValue = parentBoard[i][j];
-        if (parentValue == hypotheticalBoard[i][j]) {
-          // If there is no difference to be adapted, skip.
-          continue;
-        }
-
-        hypotheticalBoard[i][j] = parentValue;
-
-      }
-    }
+    return destination;
   }
 
   /**
-   * Creates a copy of the hypothetical board for the application of the theoretical bombs.
+   * Creates a cost board of the size of the world. Its values are all zero, so it is meant to be
+   * copied over, e.g. as one of the hypothetical boards of an action.
    *
-   * @param hypotheticalBoard - The board to be copied.
-   * @return A copy of the hypothetical board.
+   * @return A new board.
    */
-  public int[][] copyBoard(int[][] hypotheticalBoard) {
-
-    int h = hypotheticalBoard.length;
-    int w = hypotheticalBoard[0].length;
-
-    int[][] tempBoard = new int[h][w];
-
-    for (int i = 0; i < h; i++) {
-      for (int j = 0; j < w; j++) {
-        tempBoard[i][j] = hypotheticalBoard[i][j];
-      }
-    }
-
-    return tempBoard;
+  public int[][] createBoard() {
+    return new int[boardHeight][boardWidth];
   }
 
-  public static void printMaze() {
-    for (int y = instance.boardHeight - 1; y >= 0; y--) {
-      for (int x = 0; x < instance.boardWidth; x++) {
-        System.out.print(instance.boardRep[y][x] + " ");
+  public void printMaze() {
+    for (int y = boardHeight - 1; y >= 0; y--) {
+      for (int x = 0; x < boardWidth; x++) {
+        System.out.print(boardRep[y * boardWidth + x] + " ");
       }
 
       System.out.println();
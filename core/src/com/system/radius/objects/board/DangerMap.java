@@ -0,0 +1,312 @@
+package com.system.radius.objects.board;
+
+import com.system.radius.objects.bombs.Bomb;
+import com.system.radius.objects.players.Player;
+
+import java.util.Arrays;
+
+/**
+ * Holds the timing of the bomb fires over the board: for every cell, the time until the earliest
+ * fire reaches it and the time until the last fire covering it is gone. Chain reactions are taken
+ * into account, such that a bomb caught in the fire of another bomb detonates along with it.
+ * <p>
+ * The map is shared by all players, and is only computed again when the board state has moved on
+ * to a new tick or has changed.
+ */
+public class DangerMap {
+
+  /**
+   * The time given for the cells that no fire will reach.
+   */
+  public static final float NO_DANGER = Float.POSITIVE_INFINITY;
+
+  private final int width;
+
+  private final int height;
+
+  /**
+   * The player whose own remote bombs wait for them, or {@code null} for the shared map.
+   */
+  private final Player viewer;
+
+  /**
+   * The time until the earliest fire reaches each cell.
+   */
+  private final float[] detonations;
+
+  /**
+   * The cells on fire now, as opposed to the cells that a remote bomb could set on fire now.
+   */
+  private final boolean[] burning;
+
+  /**
+   * The time until the last fire covering each cell is gone.
+   */
+  private final float[] clearances;
+
+  /**
+   * The bomb on each cell, if any, for the lookup of the bombs caught in a fire.
+   */
+  private final Bomb[] bombCells;
+
+  /**
+   * The time until each bomb on the board detonates, parallel to {@link #bombs}.
+   */
+  private float[] bombTimes;
+
+  private boolean[] settled;
+
+  /**
+   * Whether the time of each bomb is only assumed, as it comes from a remote bomb that may as
+   * well not go off, parallel to {@link #bombs}.
+   */
+  private boolean[] assumed;
+
+  private Bomb[] bombs;
+
+  private int bombCount;
+
+  /**
+   * The time until every fire on the board is gone.
+   */
+  private float horizon;
+
+  private long tick = -1;
+
+  public DangerMap(int width, int height) {
+    this(width, height, null);
+  }
+
+  /**
+   * Creates the map as seen by a player.
+   *
+   * @param width  - The width of the board.
+   * @param height - The height of the board.
+   * @param viewer - The player whose own remote bombs wait for them, or {@code null}.
+   */
+  public DangerMap(int width, int height, Player viewer) {
+
+    this.width = width;
+    this.height = height;
+    this.viewer = viewer;
+
+    int cells = width * height;
+    detonations = new float[cells];
+    burning = new boolean[cells];
+    clearances = new float[cells];
+    bombCells = new Bomb[cells];
+
+    bombs = new Bomb[8];
+    bombTimes = new float[8];
+    settled = new boolean[8];
+    assumed = new boolean[8];
+  }
+
+  /**
+   * Computes the map again if it was not yet computed for the given tick.
+   *
+   * @param boardState - The board state holding the bombs.
+   * @param tick       - The current tick of the board state.
+   */
+  void update(BoardState boardState, long tick) {
+
+    if (this.tick == tick) {
+      return;
+    }
+
+    this.tick = tick;
+    compute(boardState);
+  }
+
+  /**
+   * Marks the map as outdated, such that it is computed again on the next request.
+   */
+  void invalidate() {
+    tick = -1;
+  }
+
+  private void compute(BoardState boardState) {
+
+    Arrays.fill(detonations, NO_DANGER);
+    Arrays.fill(burning, false);
+    Arrays.fill(clearances, 0);
+    Arrays.fill(bombCells, null);
+    horizon = 0;
+
+    collectBombs(boardState);
+
+    // The bombs are settled from the earliest to detonate, as a bomb can only be set off earlier
+    // by a bomb that detonates before it. Of the bombs detonating at once, the ones surely going
+    // off come first, so that the bombs they set off are sure to go off as well.
+    for (int settledCount = 0; settledCount < bombCount; settledCount++) {
+
+      int next = -1;
+      for (int i = 0; i < bombCount; i++) {
+        if (!settled[i] && (next < 0 || bombTimes[i] < bombTimes[next] ||
+            (bombTimes[i] == bombTimes[next] && assumed[next] && !assumed[i]))) {
+          next = i;
+        }
+      }
+
+      settled[next] = true;
+      spreadFire(boardState, bombs[next], bombTimes[next], assumed[next]);
+    }
+  }
+
+  private void collectBombs(BoardState boardState) {
+
+    bombCount = 0;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+
+        if (boardState.getChar(x, y) != WorldConstants.BOARD_BOMB) {
+          continue;
+        }
+
+        Bomb bomb = (Bomb) boardState.getObject(x, y);
+        if (bombCount == bombs.length) {
+          bombs = Arrays.copyOf(bombs, bombCount * 2);
+          bombTimes = Arrays.copyOf(bombTimes, bombCount * 2);
+          settled = Arrays.copyOf(settled, bombCount * 2);
+          assumed = Arrays.copyOf(assumed, bombCount * 2);
+        }
+
+        // The remote bombs of the other players may go off right away.
+        boolean threat = bomb.isRemote() && !bomb.isExploding() && bomb.getOwner() != viewer;
+
+        bombCells[y * width + x] = bomb;
+        bombs[bombCount] = bomb;
+        bombTimes[bombCount] = threat ? 0 : bomb.getTimeToDetonation();
+        settled[bombCount] = false;
+        assumed[bombCount] = threat;
+        bombCount++;
+      }
+    }
+  }
+
+  /**
+   * Marks the cells covered by the fire of the bomb, and sets off the bombs caught in it.
+   *
+   * @param boardState - The board state holding the bombs.
+   * @param bomb       - The bomb whose fire is to be spread.
+   * @param time       - The time until the bomb detonates.
+   * @param threat     - {@code true} if the bomb may go off at the time, but may as well wait.
+   */
+  private void spreadFire(BoardState boardState, Bomb bomb, float time, boolean threat) {
+
+    int x = boardState.getExactX(bomb);
+    int y = boardState.getExactY(bomb);
+
+    // An exploding bomb has only the rest of its fire left, while a bomb that may wait stays a
+    // threat for as long as a fuse would last.
+    float clearance = time + (bomb.isExploding() ? bomb.getRemainingFireTime() :
+        Bomb.EXPLOSION_TIMER);
+    if (threat) {
+      clearance += Bomb.WAIT_TIMER;
+    }
+
+    markCell(x, y, time, clearance, threat);
+    for (int i = 1; i < bomb.getRangeNorth(); i++) {
+      markCell(x, y + i, time, clearance, threat);
+    }
+    for (int i = 1; i < bomb.getRangeSouth(); i++) {
+      markCell(x, y - i, time, clearance, threat);
+    }
+    for (int i = 1; i < bomb.getRangeWest(); i++) {
+      markCell(x - i, y, time, clearance, threat);
+    }
+    for (int i = 1; i < bomb.getRangeEast(); i++) {
+      markCell(x + i, y, time, clearance, threat);
+    }
+  }
+
+  private void markCell(int x, int y, float time, float clearance, boolean threat) {
+
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      return;
+    }
+
+    int cell = y * width + x;
+    detonations[cell] = Math.min(detonations[cell], time);
+    clearances[cell] = Math.max(clearances[cell], clearance);
+    horizon = Math.max(horizon, clearance);
+    if (time <= 0 && !threat) {
+      burning[cell] = true;
+    }
+
+    Bomb caught = bombCells[cell];
+    if (caught == null || caught.isExploding()) {
+      // Fire does not set off a bomb that is already exploding.
+      return;
+    }
+
+    // The bomb caught goes off in the same update, see ExplosionResolver.
+    for (int i = 0; i < bombCount; i++) {
+      if (bombs[i] != caught || settled[i]) {
+        continue;
+      }
+
+      if (time < bombTimes[i]) {
+        bombTimes[i] = time;
+        assumed[i] = threat;
+      } else if (time == bombTimes[i] && !threat) {
+        assumed[i] = false;
+      }
+    }
+  }
+
+  /**
+   * @param x - The X coordinate of the cell.
+   * @param y - The Y coordinate of the cell.
+   * @return The time until the earliest fire reaches the cell, or {@link #NO_DANGER}.
+   */
+  public float getDetonation(int x, int y) {
+    return detonations[y * width + x];
+  }
+
+  /**
+   * @param x - The X coordinate of the cell.
+   * @param y - The Y coordinate of the cell.
+   * @return The time until the last fire covering the cell is gone, or 0 if there is none.
+   */
+  public float getClearance(int x, int y) {
+    return clearances[y * width + x];
+  }
+
+  public boolean isDangerous(int x, int y) {
+    return detonations[y * width + x] != NO_DANGER;
+  }
+
+  /**
+   * @param x - The X coordinate of the cell.
+   * @param y - The Y coordinate of the cell.
+   * @return {@code true} if the cell is currently on fire; {@code false} otherwise, even if a
+   * remote bomb could set it on fire now.
+   */
+  public boolean isBurning(int x, int y) {
+    return burning[y * width + x];
+  }
+
+  /**
+   * @return The player whose own remote bombs wait for them, or {@code null} for the shared map.
+   */
+  public Player getViewer() {
+    return viewer;
+  }
+
+  /**
+   * @return The time until every fire on the board is gone, or 0 if there is no bomb.
+   */
+  public float getHorizon() {
+    return horizon;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+}
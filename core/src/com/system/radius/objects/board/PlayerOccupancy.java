@@ -0,0 +1,240 @@
+package com.system.radius.objects.board;
+
+import java.util.Arrays;
+
+/**
+ * Keeps, for every cell, the players whose burn collision touches it. The burn collision of a
+ * player is half a cell wide, so a player touches at most four cells, and the cell holding the
+ * center of the player is always among them.
+ * <p>
+ * The players are known by their ids, the order in which they joined the board, and the players
+ * of a cell are kept as a bit mask of those ids.
+ */
+public class PlayerOccupancy {
+
+  /**
+   * The number of players that can be kept, one per bit of a mask.
+   */
+  public static final int MAX_PLAYERS = 64;
+
+  private final int width;
+
+  private final int height;
+
+  private final float scale;
+
+  /**
+   * The players touching each cell, row by row.
+   */
+  private final long[] cells;
+
+  /**
+   * The cells touched by each player, as the corners of a rectangle: the lowest X and Y, and the
+   * highest X and Y. A player touching no cell has its lowest coordinates above the highest.
+   */
+  private final int[] minX = new int[MAX_PLAYERS];
+
+  private final int[] minY = new int[MAX_PLAYERS];
+
+  private final int[] maxX = new int[MAX_PLAYERS];
+
+  private final int[] maxY = new int[MAX_PLAYERS];
+
+  /**
+   * The cell holding the center of each player.
+   */
+  private final int[] centers = new int[MAX_PLAYERS];
+
+  PlayerOccupancy(int width, int height, float scale) {
+
+    this.width = width;
+    this.height = height;
+    this.scale = scale;
+
+    cells = new long[width * height];
+    clear();
+  }
+
+  /**
+   * Forgets every player.
+   */
+  void clear() {
+
+    Arrays.fill(cells, 0);
+    Arrays.fill(minX, 0);
+    Arrays.fill(minY, 0);
+    Arrays.fill(maxX, -1);
+    Arrays.fill(maxY, -1);
+    Arrays.fill(centers, -1);
+  }
+
+  /**
+   * Moves a player to a position in the world.
+   *
+   * @param id - The id of the player.
+   * @param x  - The X coordinate of the player, in world units.
+   * @param y  - The Y coordinate of the player, in world units.
+   */
+  void place(int id, float x, float y) {
+
+    // The burn collision spans the middle half of the player, and only counts as touching a cell
+    // when it overlaps the cell, not when it merely reaches its edge.
+    float quarter = scale / 4f;
+    int lowX = Math.max(0, (int) Math.floor((x + quarter) / scale));
+    int lowY = Math.max(0, (int) Math.floor((y + quarter) / scale));
+    int highX = Math.min(width - 1, (int) Math.ceil((x + 3 * quarter) / scale) - 1);
+    int highY = Math.min(height - 1, (int) Math.ceil((y + 3 * quarter) / scale) - 1);
+
+    int centerX = Math.round(x / scale);
+    int centerY = Math.round(y / scale);
+    centers[id] = centerX >= 0 && centerX < width && centerY >= 0 && centerY < height ?
+        centerY * width + centerX : -1;
+
+    if (lowX == minX[id] && lowY == minY[id] && highX == maxX[id] && highY == maxY[id]) {
+      return;
+    }
+
+    mark(id, false);
+    minX[id] = lowX;
+    minY[id] = lowY;
+    maxX[id] = highX;
+    maxY[id] = highY;
+    mark(id, true);
+  }
+
+  private void mark(int id, boolean present) {
+
+    long bit = 1L << id;
+    for (int y = minY[id]; y <= maxY[id]; y++) {
+      for (int x = minX[id]; x <= maxX[id]; x++) {
+        if (present) {
+          cells[y * width + x] |= bit;
+        } else {
+          cells[y * width + x] &= ~bit;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the players touching a cell.
+   *
+   * @param x - The X coordinate of the cell.
+   * @param y - The Y coordinate of the cell.
+   * @return The mask of the player ids, empty for the cells outside the board.
+   */
+  public long get(int x, int y) {
+
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      return 0;
+    }
+
+    return cells[y * width + x];
+  }
+
+  /**
+   * Checks if a player touches any of the marked cells.
+   *
+   * @param id    - The id of the player.
+   * @param marks - The marked cells, e.g. the cells on fire.
+   * @return {@code true} if the player touches a marked cell; {@code false} otherwise.
+   */
+  public boolean touches(int id, BitBoard marks) {
+
+    for (int y = minY[id]; y <= maxY[id]; y++) {
+      for (int x = minX[id]; x <= maxX[id]; x++) {
+        if (marks.get(x, y)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Gets the players touching the cells in a straight line from a cell.
+   *
+   * @param x      - The X coordinate of the first cell.
+   * @param y      - The Y coordinate of the first cell.
+   * @param dx     - The step along the X axis, -1, 0 or 1.
+   * @param dy     - The step along the Y axis, -1, 0 or 1.
+   * @param length - The number of cells in the line.
+   * @return The mask of the player ids.
+   */
+  public long getLine(int x, int y, int dx, int dy, int length) {
+
+    long players = 0;
+    for (int i = 0; i < length; i++) {
+      players |= get(x + dx * i, y + dy * i);
+    }
+
+    return players;
+  }
+
+  /**
+   * Finds the player whose center is the closest to a cell, counting the distance as the larger
+   * of the distances along either axis. The cells are looked at in growing squares around the
+   * cell, so the search stops as soon as no farther player can be any closer.
+   *
+   * @param x          - The X coordinate of the cell.
+   * @param y          - The Y coordinate of the cell.
+   * @param range      - The largest distance to look at.
+   * @param candidates - The mask of the ids of the players to look for.
+   * @return The id of the closest player, the lowest id among the equally close, or -1 if none is
+   * within the range.
+   */
+  public int findNearest(int x, int y, int range, long candidates) {
+
+    int best = -1;
+    int bestDistance = Integer.MAX_VALUE;
+    long remaining = candidates;
+
+    for (int ring = 0; ring <= range && remaining != 0; ring++) {
+
+      // Every player touches the cell of their center, so the players not found yet are at least
+      // the ring away.
+      if (ring > bestDistance) {
+        break;
+      }
+
+      long found = 0;
+      for (int cy = y - ring; cy <= y + ring; cy++) {
+        boolean edgeRow = cy == y - ring || cy == y + ring;
+        for (int cx = x - ring; cx <= x + ring; cx += edgeRow || ring == 0 ? 1 : 2 * ring) {
+          found |= get(cx, cy) & remaining;
+        }
+      }
+
+      remaining &= ~found;
+      for (long mask = found; mask != 0; mask &= mask - 1) {
+
+        int id = Long.numberOfTrailingZeros(mask);
+        int center = centers[id];
+        if (center < 0) {
+          continue;
+        }
+
+        int distance = Math.max(Math.abs(center % width - x), Math.abs(center / width - y));
+        if (distance <= range && (distance < bestDistance || (distance == bestDistance &&
+            id < best))) {
+          best = id;
+          bestDistance = distance;
+        }
+      }
+    }
+
+    return best;
+  }
+
+  /**
+   * Gets the cell holding the center of a player.
+   *
+   * @param id - The id of the player.
+   * @return The index of the cell, row by row, or -1 if the player is not on the board.
+   */
+  public int getCenter(int id) {
+    return centers[id];
+  }
+
+}
@@ -0,0 +1,274 @@
+package com.system.radius.objects.board;
+
+import com.system.radius.objects.AbstractBomberObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the timers of the objects on a board: the fuses of the bombs, the fires, the burning
+ * blocks and the respawns. The time of the board is counted in fixed steps, and every timer is
+ * due on a step. The timers are kept in a ring of slots, one slot per step, so moving the time on
+ * by a step only looks at the timers of a single slot, however many timers are pending.
+ * <p>
+ * A timer due beyond one turn of the ring is kept in its slot until the turn of its step comes.
+ * The timers due on the same step go off in the order they were scheduled.
+ */
+public class TimingWheel {
+
+  /**
+   * The duration of a step of the board, in seconds.
+   */
+  public static final float STEP_DURATION = 1f / 60f;
+
+  /**
+   * The number of slots in the ring, a power of two. A turn of the ring takes a little longer
+   * than the fuse of a bomb.
+   */
+  private static final int SLOT_COUNT = 256;
+
+  private static final int SLOT_MASK = SLOT_COUNT - 1;
+
+  private final Timer[] slots = new Timer[SLOT_COUNT];
+
+  private final Timer[] tails = new Timer[SLOT_COUNT];
+
+  /**
+   * The timers going off on the current step, reused between the steps.
+   */
+  private final List<Timer> due = new ArrayList<>();
+
+  /**
+   * The number of steps gone by.
+   */
+  private long step;
+
+  /**
+   * The time gone by since the last step, always less than a step.
+   */
+  private float remainder;
+
+  /**
+   * Moves the time on, setting off the timers due on every step gone by. A timer may be
+   * scheduled or cancelled from an object whose timer goes off.
+   *
+   * @param delta - The time gone by, in seconds.
+   */
+  public void advance(float delta) {
+
+    remainder += delta;
+    while (remainder >= STEP_DURATION) {
+      remainder -= STEP_DURATION;
+      step++;
+      fire(step);
+    }
+  }
+
+  private void fire(long current) {
+
+    int slot = (int) (current & SLOT_MASK);
+    Timer timer = slots[slot];
+    while (timer != null) {
+      Timer next = timer.next;
+      if (timer.deadline == current) {
+        unlink(timer);
+        timer.due = true;
+        due.add(timer);
+      }
+      timer = next;
+    }
+
+    for (int i = 0; i < due.size(); i++) {
+
+      Timer dueTimer = due.get(i);
+      // A timer scheduled again or cancelled by an earlier one is no longer due.
+      if (dueTimer.due) {
+        dueTimer.due = false;
+        dueTimer.owner.onTimer();
+      }
+    }
+
+    due.clear();
+  }
+
+  /**
+   * Schedules a timer, replacing its pending deadline if it has one. A timer always waits for at
+   * least one step.
+   *
+   * @param timer - The timer.
+   * @param delay - The time to wait, in seconds.
+   */
+  public void schedule(Timer timer, float delay) {
+    scheduleAt(timer, step + Math.max(1, Math.round(delay / STEP_DURATION)));
+  }
+
+  /**
+   * Schedules a timer to go off on a step, replacing its pending deadline if it has one.
+   *
+   * @param timer    - The timer.
+   * @param deadline - The step the timer goes off on, moved to the next step if it has already
+   *                 gone by.
+   */
+  public void scheduleAt(Timer timer, long deadline) {
+
+    cancel(timer);
+
+    timer.deadline = Math.max(deadline, step + 1);
+    int slot = (int) (timer.deadline & SLOT_MASK);
+    timer.previous = tails[slot];
+    if (tails[slot] == null) {
+      slots[slot] = timer;
+    } else {
+      tails[slot].next = timer;
+    }
+    tails[slot] = timer;
+    timer.scheduled = true;
+  }
+
+  /**
+   * Cancels a timer, if it is pending.
+   *
+   * @param timer - The timer.
+   */
+  public void cancel(Timer timer) {
+
+    timer.due = false;
+    if (timer.scheduled) {
+      unlink(timer);
+    }
+  }
+
+  private void unlink(Timer timer) {
+
+    int slot = (int) (timer.deadline & SLOT_MASK);
+    if (timer.previous == null) {
+      slots[slot] = timer.next;
+    } else {
+      timer.previous.next = timer.next;
+    }
+
+    if (timer.next == null) {
+      tails[slot] = timer.previous;
+    } else {
+      timer.next.previous = timer.previous;
+    }
+
+    timer.previous = null;
+    timer.next = null;
+    timer.scheduled = false;
+  }
+
+  /**
+   * Cancels every timer and sets the time back to zero.
+   */
+  public void clear() {
+    setTime(0, 0);
+  }
+
+  /**
+   * Cancels every timer and sets the time of the board, for a restore.
+   *
+   * @param step      - The number of steps gone by.
+   * @param remainder - The time gone by since the last step.
+   */
+  void setTime(long step, float remainder) {
+
+    for (int i = 0; i < SLOT_COUNT; i++) {
+      while (slots[i] != null) {
+        unlink(slots[i]);
+      }
+    }
+
+    this.step = step;
+    this.remainder = remainder;
+  }
+
+  /**
+   * Gets the number of steps gone by.
+   *
+   * @return The current step.
+   */
+  public long getStep() {
+    return step;
+  }
+
+  /**
+   * Gets the time gone by since the last step.
+   *
+   * @return The time in seconds, less than a step.
+   */
+  public float getRemainder() {
+    return remainder;
+  }
+
+  /**
+   * Gets the time gone by on the board.
+   *
+   * @return The time in seconds.
+   */
+  public float getTime() {
+    return (float) (step * (double) STEP_DURATION + remainder);
+  }
+
+  /**
+   * Gets the time left until a timer goes off.
+   *
+   * @param timer - The timer.
+   * @return The time in seconds, or zero if the timer is not pending.
+   */
+  public float getRemainingTime(Timer timer) {
+
+    if (!timer.scheduled) {
+      return 0;
+    }
+
+    return Math.max(0, (timer.deadline - step) * STEP_DURATION - remainder);
+  }
+
+  /**
+   * The timer of an object, pending at most once at a time.
+   */
+  public static final class Timer {
+
+    private final AbstractBomberObject owner;
+
+    private long deadline;
+
+    private boolean scheduled;
+
+    private boolean due;
+
+    private Timer previous;
+
+    private Timer next;
+
+    /**
+     * Creates a timer going off on an object.
+     *
+     * @param owner - The object to notify, see {@link AbstractBomberObject#onTimer()}.
+     */
+    public Timer(AbstractBomberObject owner) {
+      this.owner = owner;
+    }
+
+    /**
+     * Checks if the timer is waiting to go off.
+     *
+     * @return {@code true} if the timer is pending; {@code false} otherwise.
+     */
+    public boolean isScheduled() {
+      return scheduled;
+    }
+
+    /**
+     * Gets the step the timer goes off on.
+     *
+     * @return The step, or -1 if the timer is not pending.
+     */
+    public long getDeadline() {
+      return scheduled ? deadline : -1;
+    }
+
+  }
+
+}
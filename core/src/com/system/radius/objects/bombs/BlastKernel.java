@@ -0,0 +1,228 @@
+package com.system.radius.objects.bombs;
+
+import com.system.radius.enums.BombType;
+import com.system.radius.enums.Direction;
+import com.system.radius.objects.board.BlastRays;
+import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.board.WorldConstants;
+
+/**
+ * Describes how the fire of a kind of bomb spreads. A kernel only decides the reach of the fire in
+ * each straight direction, walking the blast rays of the board from block to block. Everything
+ * else reads the reach: the bombs burning their cells, the fire grid, the danger map and the path
+ * costs of the AI, so a new kind of bomb only needs a new kernel.
+ * <p>
+ * The reach follows {@link BlastRays#getReach(int, int, Direction, int)}: the number of cells on
+ * fire, counting the cell of the bomb and the block that stops the fire, if any.
+ */
+public abstract class BlastKernel {
+
+  /**
+   * The fire stops at the first block.
+   */
+  public static final BlastKernel NORMAL = new NormalKernel(false, false);
+
+  /**
+   * The fire goes through the soft blocks, burning all of them, and stops at the hard blocks.
+   */
+  public static final BlastKernel PIERCE = new PierceKernel(false);
+
+  /**
+   * The fire stops at the first block, and the bomb only goes off when its owner sets it off.
+   */
+  public static final BlastKernel MINE = new NormalKernel(false, true);
+
+  /**
+   * The fire stops at the first block, but goes as far as the board allows.
+   */
+  public static final BlastKernel POWER = new NormalKernel(true, false);
+
+  /**
+   * The fire goes through the soft blocks, as far as the board allows.
+   */
+  public static final BlastKernel ALL = new PierceKernel(true);
+
+  private static final Direction[] DIRECTIONS =
+      {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+  private final boolean fullPower;
+
+  private final boolean remote;
+
+  protected BlastKernel(boolean fullPower, boolean remote) {
+    this.fullPower = fullPower;
+    this.remote = remote;
+  }
+
+  /**
+   * Gets the kernel for a type of bomb.
+   *
+   * @param type - The type of the bomb, {@code null} for the default bomb.
+   * @return The kernel.
+   */
+  public static BlastKernel forType(BombType type) {
+
+    if (type == null) {
+      return NORMAL;
+    }
+
+    switch (type) {
+      case PIERCE:
+        return PIERCE;
+      case MINE:
+        return MINE;
+      case POWER:
+        return POWER;
+      case ALL:
+        return ALL;
+      default:
+        return NORMAL;
+    }
+  }
+
+  /**
+   * Gets the reach of the fire in a direction.
+   *
+   * @param boardState - The board state holding the bomb.
+   * @param x          - The X coordinate of the bomb.
+   * @param y          - The Y coordinate of the bomb.
+   * @param direction  - One of the four straight directions.
+   * @param range      - The range of the bomb, see {@link #getRange(BoardState, int)}.
+   * @return The reach of the fire.
+   */
+  public abstract int getReach(BoardState boardState, int x, int y, Direction direction,
+                               int range);
+
+  /**
+   * Gets the range of a bomb planted by a player.
+   *
+   * @param boardState - The board state holding the bomb.
+   * @param firePower  - The fire power of the player.
+   * @return The number of cells the fire can go in each direction.
+   */
+  public int getRange(BoardState boardState, int firePower) {
+    return fullPower ? Math.max(boardState.getBoardWidth(), boardState.getBoardHeight()) :
+        firePower;
+  }
+
+  /**
+   * Checks if the bombs of this kernel wait for their owner instead of a fuse.
+   *
+   * @return {@code true} if the bombs go off when their owner sets them off; {@code false} if
+   * they have a fuse.
+   */
+  public boolean isRemote() {
+    return remote;
+  }
+
+  /**
+   * Gets the reach of the fire in every direction.
+   *
+   * @param boardState - The board state holding the bomb.
+   * @param x          - The X coordinate of the bomb.
+   * @param y          - The Y coordinate of the bomb.
+   * @param range      - The range of the bomb.
+   * @param reaches    - The array to receive the reaches, by {@link Direction#ordinal()}.
+   */
+  public void getReaches(BoardState boardState, int x, int y, int range, int[] reaches) {
+
+    for (Direction direction : DIRECTIONS) {
+      reaches[direction.ordinal()] = getReach(boardState, x, y, direction, range);
+    }
+  }
+
+  /**
+   * Counts the soft blocks the fire would burn in a direction, walking the rays from block to
+   * block as {@link #markTargets(BoardState, int, int, int[])} does, without marking them.
+   *
+   * @param boardState - The board state holding the bomb.
+   * @param x          - The X coordinate of the bomb.
+   * @param y          - The Y coordinate of the bomb.
+   * @param direction  - One of the four straight directions.
+   * @param range      - The range of the bomb, see {@link #getRange(BoardState, int)}.
+   * @return The number of soft blocks burned that way.
+   */
+  public int countTargets(BoardState boardState, int x, int y, Direction direction, int range) {
+
+    BlastRays rays = boardState.getBlastRays();
+    int dx = BlastRays.getDeltaX(direction);
+    int dy = BlastRays.getDeltaY(direction);
+    int reach = getReach(boardState, x, y, direction, range);
+
+    int count = 0;
+    int travelled = 0;
+    while (true) {
+
+      travelled += rays.getDistance(x + dx * travelled, y + dy * travelled, direction);
+      if (travelled >= reach) {
+        return count;
+      }
+
+      char c = boardState.getChar(x + dx * travelled, y + dy * travelled);
+      if (c == WorldConstants.BOARD_SOFT_BLOCK) {
+        count++;
+      } else if (c != WorldConstants.BOARD_TO_DESTROY) {
+        return count;
+      }
+    }
+  }
+
+  /**
+   * Counts the soft blocks the fire would burn in every direction.
+   *
+   * @param boardState - The board state holding the bomb.
+   * @param x          - The X coordinate of the bomb.
+   * @param y          - The Y coordinate of the bomb.
+   * @param range      - The range of the bomb, see {@link #getRange(BoardState, int)}.
+   * @return The number of soft blocks burned.
+   */
+  public int countTargets(BoardState boardState, int x, int y, int range) {
+
+    int count = 0;
+    for (Direction direction : DIRECTIONS) {
+      count += countTargets(boardState, x, y, direction, range);
+    }
+
+    return count;
+  }
+
+  /**
+   * Marks the soft blocks in the fire to be destroyed, walking from block to block along the
+   * rays.
+   *
+   * @param boardState - The board state holding the bomb.
+   * @param x          - The X coordinate of the bomb.
+   * @param y          - The Y coordinate of the bomb.
+   * @param reaches    - The reaches of the fire, by {@link Direction#ordinal()}.
+   */
+  public void markTargets(BoardState boardState, int x, int y, int[] reaches) {
+
+    BlastRays rays = boardState.getBlastRays();
+    for (Direction direction : DIRECTIONS) {
+
+      int dx = BlastRays.getDeltaX(direction);
+      int dy = BlastRays.getDeltaY(direction);
+      int reach = reaches[direction.ordinal()];
+
+      int travelled = 0;
+      while (true) {
+
+        travelled += rays.getDistance(x + dx * travelled, y + dy * travelled, direction);
+        if (travelled >= reach) {
+          break;
+        }
+
+        int blockX = x + dx * travelled;
+        int blockY = y + dy * travelled;
+        char c = boardState.getChar(blockX, blockY);
+        if (c == WorldConstants.BOARD_SOFT_BLOCK) {
+          boardState.setChar(blockX, blockY, WorldConstants.BOARD_TO_DESTROY);
+        } else if (c != WorldConstants.BOARD_TO_DESTROY) {
+          // No fire goes through the hard blocks, nor past the edge of the board.
+          break;
+        }
+      }
+    }
+  }
+
+}
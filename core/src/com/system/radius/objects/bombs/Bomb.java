@@ -9,14 +9,18 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Circle;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Rectangle;
+import com.system.radius.enums.BombType;
+import com.system.radius.enums.Direction;
 import com.system.radius.objects.blocks.Block;
+import com.system.radius.objects.board.BlastRays;
 import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.board.PlayerOccupancy;
 import com.system.radius.objects.board.WorldConstants;
 import com.system.radius.objects.players.Player;
 import com.system.radius.utils.BombermanLogger;
 import com.system.radius.utils.DebugUtils;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public abstract class Bomb extends Block {
@@ -39,16 +43,36 @@ public abstract class Bomb extends Block {
 
   protected static final float FRAME_DURATION_FIRE = 1f / 7.5f;
 
-  private static final float WAIT_TIMER = 3;
-
-  private static final float EXPLOSION_TIMER = 1;
+  /**
+   * How long a bomb waits after being planted before it detonates.
+   */
+  public static final float WAIT_TIMER = 3;
 
-  private List<Player> players;
+  /**
+   * How long the fire of a bomb stays after it detonates.
+   */
+  public static final float EXPLOSION_TIMER = 1;
 
-  private List<Boolean> activeCollisions;
+  /**
+   * The players this bomb stops, by id. A player standing on the bomb when it is planted walks
+   * through it until they have left it.
+   */
+  private long activeCollisions;
 
   private Player owner;
 
+  /**
+   * The type of this bomb, {@code null} for the default bomb, and the kernel spreading its fire.
+   */
+  private BombType bombType;
+
+  private BlastKernel kernel;
+
+  /**
+   * The reach of the fire in every direction, by {@link Direction#ordinal()}.
+   */
+  private final int[] reaches = new int[4];
+
   private Circle rep;
 
   private Rectangle northRect;
@@ -59,14 +83,21 @@ public abstract class Bomb extends Block {
 
   private Rectangle eastRect;
 
-  private float creationTime;
-
-  private float explosionTime;
+  /**
+   * The version of the row and column of this bomb the reach of the fire was last checked
+   * against, see {@link BlastRays#getCrossVersion(int, int)}.
+   */
+  private long raysVersion = -1;
 
   private boolean exploding;
 
   private boolean exploded;
 
+  /**
+   * Whether this bomb waits on the explosion resolver of the board to go off.
+   */
+  private boolean queued;
+
   private float totalRange;
 
   private float rangeNorth;
@@ -104,11 +135,12 @@ public abstract class Bomb extends Block {
   protected Rectangle fireStreamEastBound;
 
   public Bomb(Player owner, float x, float y, float width, float height) {
-    super(WorldConstants.BOARD_BOMB, x, y, width, height);
+    super(owner.getBoardState(), WorldConstants.BOARD_BOMB, x, y, width, height);
 
     this.owner = owner;
-    this.creationTime = 0;
-    this.totalRange = owner.getFirePower();
+    this.bombType = owner.getBombType();
+    this.kernel = BlastKernel.forType(bombType);
+    this.totalRange = kernel.getRange(boardState, owner.getFirePower());
 
     rep = new Circle(x + (width / 2), y + (height / 2), width / 2);
 
@@ -124,13 +156,15 @@ public abstract class Bomb extends Block {
 
     loadAssets();
 
-    players = BoardState.getInstance().getPlayers();
-
-    Boolean[] tempArray = new Boolean[players.size()];
-    Arrays.fill(tempArray, false);
-
-    activeCollisions = Arrays.asList(tempArray);
+    fireStreamNorthBound = new Rectangle();
+    fireStreamSouthBound = new Rectangle();
+    fireStreamWestBound = new Rectangle();
+    fireStreamEastBound = new Rectangle();
     updateBounds();
+
+    if (!kernel.isRemote()) {
+      schedule(WAIT_TIMER);
+    }
   }
 
   protected void loadAssets() {
@@ -154,58 +188,6 @@ public abstract class Bomb extends Block {
     return new Animation<>(frameDuration, container);
   }
 
-  /**
-   * Update the board cost with a specified cost.
-   *
-   * @param board - The board representation in integer.
-   * @param cost  - The cost to be included for this bomb.
-   */
-  public void updateBoardCostSetCost(int[][] board, int cost) {
-
-    updateBounds();
-    BoardState boardState = BoardState.getInstance();
-
-    int exactX = boardState.getExactX(this);
-    int exactY = boardState.getExactY(this);
-
-    for (int i = 0; i <= totalRange; i++) {
-
-      updateCellCost(board, exactX, exactY + i, cost, (int) rangeNorth, i);
-      updateCellCost(board, exactX, exactY - i, cost, (int) rangeSouth, i);
-      updateCellCost(board, exactX + i, exactY, cost, (int) rangeEast, i);
-      updateCellCost(board, exactX - i, exactY, cost, (int) rangeWest, i);
-
-    }
-
-  }
-
-  /**
-   * Update the board's movement costs based on the specified speed level.
-   *
-   * @param board      - The board representation in integer.
-   * @param speedLevel - The speed level to be the basis of the cost.
-   */
-  public void updateBoardCost(int[][] board, int speedLevel) {
-
-    int cost = WorldConstants.FIRE_PATH_COST - (speedLevel * 10);
-
-    if (this.exploding) {
-      cost = -1;
-    }
-
-    updateBoardCostSetCost(board, cost);
-
-  }
-
-  private void updateCellCost(int[][] board, int x, int y, int cost, int range, int checker) {
-
-    // Do not update the board cost if the current cell is blocked.
-    if (checker < range && board[y][x] >= 0) {
-      board[y][x] = cost;
-    }
-
-  }
-
   public Rectangle getNorthRect() {
     return northRect;
   }
@@ -241,11 +223,15 @@ public abstract class Bomb extends Block {
 
   @Override
   public void burn() {
-
-    creationTime = WAIT_TIMER - 0.1f;
+    // A bomb caught in a fire goes off along with the bomb that set it off.
+    boardState.getExplosionResolver().detonate(this);
   }
 
-  private void explode() {
+  /**
+   * Explodes this bomb, with the reach its fire has right now. The objects in the fire are burned
+   * by the explosion resolver, see {@link ExplosionResolver}.
+   */
+  void explode() {
 
     if (exploding) {
       return;
@@ -256,116 +242,65 @@ public abstract class Bomb extends Block {
 
     updateBounds();
 
-    BoardState boardState = BoardState.getInstance();
-    int exactX = boardState.getExactX(this);
-    int exactY = boardState.getExactY(this);
-
-    float scale = WorldConstants.WORLD_SCALE;
-    fireStreamNorthBound = new Rectangle(exactX * scale, (exactY + 1) * scale, scale,
-        (rangeNorth - 1) * scale);
-    fireStreamSouthBound = new Rectangle(exactX * scale, (exactY - (rangeSouth - 1)) * scale,
-        scale, (rangeSouth - 1) * scale);
-    fireStreamWestBound = new Rectangle((exactX - (rangeWest - 1)) * scale, exactY * scale,
-        (rangeWest - 1) * scale, scale);
-    fireStreamEastBound = new Rectangle((exactX + 1) * scale, exactY * scale,
-        (rangeEast - 1) * scale, scale);
-
-    for (int i = 1; i <= totalRange; i++) {
-
-      burnObject(boardState, i, (int) rangeNorth, exactX, exactY + i);
-      burnObject(boardState, i, (int) rangeSouth, exactX, exactY - i);
-      burnObject(boardState, i, (int) rangeWest, exactX - i, exactY);
-      burnObject(boardState, i, (int) rangeEast, exactX + i, exactY);
-    }
-
+    boardState.markChanged();
     animationElapsedTime = 0;
+    schedule(EXPLOSION_TIMER);
   }
 
-  protected void burnObject(BoardState boardState, int counter, int range, int burnX, int burnY) {
+  /**
+   * The fuse of this bomb has burned down, or its fire is gone.
+   */
+  @Override
+  public void onTimer() {
 
-    if (counter >= range) {
-      return;
+    if (!exploding) {
+      boardState.getExplosionResolver().detonate(this);
+    } else {
+      owner.removeBomb(this);
+      exploded = true;
     }
-
-    boardState.burnObject(burnX, burnY);
-
   }
 
   /**
-   * Attempts to burn the player. The player is actually burned if the burn collision rectangle
-   * touches any of the fire collision rectangle of this bomb.
-   *
-   * @param player - A player to be burned.
+   * Sets the fire bounds to the reach of the fire in every direction.
    */
-  protected void attemptPlayerBurn(Player player) {
+  private void updateFireBounds(int exactX, int exactY) {
 
-    Rectangle rect = player.getBurnCollision();
-    if (Intersector.overlaps(fireStreamEastBound, rect) ||
-        Intersector.overlaps(fireStreamWestBound, rect) ||
-        Intersector.overlaps(fireStreamNorthBound, rect) ||
-        Intersector.overlaps(fireStreamSouthBound, rect) ||
-        Intersector.overlaps(rect, bounds)) {
+    float scale = WorldConstants.WORLD_SCALE;
+    fireStreamNorthBound.set(exactX * scale, (exactY + 1) * scale, scale,
+        (rangeNorth - 1) * scale);
+    fireStreamSouthBound.set(exactX * scale, (exactY - (rangeSouth - 1)) * scale,
+        scale, (rangeSouth - 1) * scale);
+    fireStreamWestBound.set((exactX - (rangeWest - 1)) * scale, exactY * scale,
+        (rangeWest - 1) * scale, scale);
+    fireStreamEastBound.set((exactX + 1) * scale, exactY * scale,
+        (rangeEast - 1) * scale, scale);
+  }
 
-      // The player will only burn if they touch any of the fire bounds.
-      player.burn();
-    }
+  boolean isQueued() {
+    return queued;
+  }
 
+  void setQueued(boolean queued) {
+    this.queued = queued;
   }
 
   private void updateBounds() {
 
-    BoardState boardState = BoardState.getInstance();
     int exactX = boardState.getExactX(this);
     int exactY = boardState.getExactY(this);
 
-    rangeNorth = checkObstacle(boardState, exactX, exactY + 1, 'w', 1);
-    rangeSouth = checkObstacle(boardState, exactX, exactY - 1, 's', 1);
-    rangeWest = checkObstacle(boardState, exactX - 1, exactY, 'a', 1);
-    rangeEast = checkObstacle(boardState, exactX + 1, exactY, 'd', 1);
-
-    float scale = WorldConstants.WORLD_SCALE;
-
-    fireStreamNorthBound = new Rectangle(exactX * scale, (exactY + 1) * scale, scale,
-        (rangeNorth - 1) * scale);
-    fireStreamSouthBound = new Rectangle(exactX * scale, exactY * scale, scale,
-        -(rangeSouth - 1) * scale);
-    fireStreamWestBound = new Rectangle(exactX * scale, exactY * scale, -(rangeWest - 1) * scale,
-        scale);
-    fireStreamEastBound = new Rectangle((exactX + 1) * scale, exactY * scale,
-        (rangeEast - 1) * scale,
-        scale);
-
-  }
-
-  private int checkObstacle(BoardState boardState, int x, int y, char dir, int counter) {
-
-    if (counter > totalRange) {
-      return 1;
-    }
+    kernel.getReaches(boardState, exactX, exactY, (int) totalRange, reaches);
+    kernel.markTargets(boardState, exactX, exactY, reaches);
 
-    if (boardState.getChar(x, y) == WorldConstants.BOARD_PERMA_BLOCK ||
-        boardState.getChar(x, y) == WorldConstants.BOARD_HARD_BLOCK ||
-        boardState.getChar(x, y) == WorldConstants.BOARD_TO_DESTROY) {
-      return 2;
-    }
+    rangeNorth = reaches[Direction.UP.ordinal()];
+    rangeSouth = reaches[Direction.DOWN.ordinal()];
+    rangeWest = reaches[Direction.LEFT.ordinal()];
+    rangeEast = reaches[Direction.RIGHT.ordinal()];
 
-    if (boardState.getChar(x, y) == WorldConstants.BOARD_SOFT_BLOCK) {
-      boardState.setChar(x, y, WorldConstants.BOARD_TO_DESTROY);
-      return 2;
-    }
-
-    switch (dir) {
-      case 'w':
-        return 1 + checkObstacle(boardState, x, y + 1, dir, counter + 1);
-      case 's':
-        return 1 + checkObstacle(boardState, x, y - 1, dir, counter + 1);
-      case 'a':
-        return 1 + checkObstacle(boardState, x - 1, y, dir, counter + 1);
-      case 'd':
-        return 1 + checkObstacle(boardState, x + 1, y, dir, counter + 1);
-    }
+    updateFireBounds(exactX, exactY);
+    raysVersion = boardState.getBlastRays().getCrossVersion(exactX, exactY);
 
-    return 1;
   }
 
   protected void drawFireLength(Batch batch, int counter, int exactX, int exactY) {
@@ -408,8 +343,6 @@ public abstract class Bomb extends Block {
 
   protected void drawFire(Batch batch) {
 
-    BoardState boardState = BoardState.getInstance();
-
     int exactX = boardState.getExactX(this);
     int exactY = boardState.getExactY(this);
 
@@ -425,60 +358,80 @@ public abstract class Bomb extends Block {
   @Override
   public boolean isActiveCollision(Player player) {
 
-    int index = -1;
-    for (int i = 0; i < players.size(); i++) {
-      if (players.get(i).equals(player)) {
-        index = i;
-        break;
-      }
-    }
+    int id = player.getId();
+    return id >= 0 && (activeCollisions >>> id & 1) != 0;
+  }
 
-    return index != -1 && activeCollisions.get(index);
+  public Player getOwner() {
+    return owner;
   }
 
   @Override
-  public void update(float delta) {
-
-    animationElapsedTime += delta;
+  public void writeState(ByteBuffer buffer) {
+
+    super.writeState(buffer);
+    buffer.put((byte) ((exploding ? 1 : 0) | (exploded ? 2 : 0)));
+    buffer.put((byte) (bombType == null ? -1 : bombType.ordinal()));
+    buffer.putLong(getDeadline());
+    buffer.putFloat(animationElapsedTime);
+    buffer.putShort((short) totalRange);
+    buffer.putShort((short) rangeNorth);
+    buffer.putShort((short) rangeSouth);
+    buffer.putShort((short) rangeWest);
+    buffer.putShort((short) rangeEast);
+    buffer.putLong(activeCollisions);
+  }
 
-    if (!exploding) {
+  @Override
+  public void readState(ByteBuffer buffer) {
+
+    super.readState(buffer);
+    byte flags = buffer.get();
+    exploding = (flags & 1) != 0;
+    exploded = (flags & 2) != 0;
+    byte type = buffer.get();
+    bombType = type < 0 ? null : BombType.values()[type];
+    kernel = BlastKernel.forType(bombType);
+    scheduleAt(buffer.getLong());
+    animationElapsedTime = buffer.getFloat();
+    totalRange = buffer.getShort();
+    rangeNorth = buffer.getShort();
+    rangeSouth = buffer.getShort();
+    rangeWest = buffer.getShort();
+    rangeEast = buffer.getShort();
+    activeCollisions = buffer.getLong();
 
-      creationTime += delta;
-      updateBounds();
-      if (creationTime >= WAIT_TIMER) {
-        explode();
-      }
+    if (exploding) {
+      // The fire keeps the reach it had when the bomb went off.
+      updateFireBounds(boardState.getExactX(this), boardState.getExactY(this));
     } else {
-
-      explosionTime += delta;
-      if (explosionTime >= EXPLOSION_TIMER) {
-        owner.removeBomb(this);
-        exploded = true;
-      }
+      raysVersion = -1;
     }
+  }
 
-    if (exploding) {
+  @Override
+  public void update(float delta) {
 
-      // While this bomb is exploding, always attempt to burn players.
-      BoardState boardState = BoardState.getInstance();
-      for (Player player : boardState.getPlayers()) {
-        attemptPlayerBurn(player);
-      }
+    animationElapsedTime += delta;
+
+    // The fuse and the fire are timed by the board, see onTimer(). The reach of the fire only
+    // needs another look once a cell on the row or the column of this bomb has changed.
+    if (!exploding && raysVersion != boardState.getBlastRays().getCrossVersion(
+        boardState.getExactX(this), boardState.getExactY(this))) {
+      updateBounds();
     }
 
-    for (int i = 0; i < players.size(); i++) {
+    // Only the players still walking through this bomb are looked at, including the players who
+    // joined the board after it was planted. Once active, the collision is not reset.
+    List<Player> players = boardState.getPlayers();
+    long everyone = players.size() == PlayerOccupancy.MAX_PLAYERS ? -1L :
+        (1L << players.size()) - 1;
+    for (long passing = everyone & ~activeCollisions; passing != 0; passing &= passing - 1) {
 
-      // If the collision is already active, do not reset.
-      if (activeCollisions.get(i)) {
-        continue;
+      int id = Long.numberOfTrailingZeros(passing);
+      if (!Intersector.overlaps(players.get(id).getBounds(), bounds)) {
+        activeCollisions |= 1L << id;
       }
-
-      Player player = players.get(i);
-      boolean collision = !Intersector.overlaps(player.getBounds(), bounds);
-
-      // Reset the collision status for the player.
-      activeCollisions.set(i, collision);
-
     }
 
   }
@@ -522,6 +475,72 @@ public abstract class Bomb extends Block {
     return exploding;
   }
 
+  /**
+   * A remote bomb goes off when its owner sets it off, so it is taken as a bomb just planted, as
+   * its owner would plan it. The other players must take it as able to go off now, see
+   * {@link com.system.radius.objects.board.DangerMap}.
+   *
+   * @return The time until this bomb detonates, or 0 if it is already exploding.
+   */
+  public float getTimeToDetonation() {
+
+    if (exploding) {
+      return 0;
+    }
+
+    return kernel.isRemote() ? WAIT_TIMER : getRemainingTime();
+  }
+
+  public BombType getBombType() {
+    return bombType;
+  }
+
+  /**
+   * @return {@code true} if this bomb waits for its owner to set it off; {@code false} if it has
+   * a fuse.
+   */
+  public boolean isRemote() {
+    return kernel.isRemote();
+  }
+
+  /**
+   * @return The time until the fire of this bomb is gone, not counting the time until it
+   * detonates.
+   */
+  public float getRemainingFireTime() {
+    return exploding ? getRemainingTime() : EXPLOSION_TIMER;
+  }
+
+  /**
+   * The ranges are the number of cells reached by the fire in each direction, counting the cell of
+   * the bomb itself, as of the last update of this bomb.
+   *
+   * @return The range of the fire going north.
+   */
+  public int getRangeNorth() {
+    return (int) rangeNorth;
+  }
+
+  public int getRangeSouth() {
+    return (int) rangeSouth;
+  }
+
+  public int getRangeWest() {
+    return (int) rangeWest;
+  }
+
+  public int getRangeEast() {
+    return (int) rangeEast;
+  }
+
+  /**
+   * @return The number of cells the fire of this bomb can reach in each direction, counting the
+   * cell of the bomb itself.
+   */
+  public int getTotalRange() {
+    return (int) totalRange;
+  }
+
   public boolean isExploded() {
     return exploded;
   }
@@ -0,0 +1,116 @@
+package com.system.radius.objects.bombs;
+
+import com.system.radius.objects.AbstractBomberObject;
+import com.system.radius.objects.board.BoardState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sets off the bombs of a board, along with every bomb caught in their fire. The bombs due in an
+ * update are gathered first, then resolved in one pass: each bomb of the queue goes off, and the
+ * bombs in its fire join the end of the queue, such that a whole chain goes off in the same
+ * update. The other objects in the fires are burned once the chain is done, in the order the
+ * fires reached them, so the outcome does not depend on the order the players are updated in.
+ */
+public class ExplosionResolver {
+
+  private final BoardState boardState;
+
+  /**
+   * The bombs to set off, in the order they were set off.
+   */
+  private final List<Bomb> queue = new ArrayList<>();
+
+  /**
+   * The cells to burn once the chain is done, as pairs of coordinates.
+   */
+  private int[] burns = new int[64];
+
+  private int burnCount;
+
+  public ExplosionResolver(BoardState boardState) {
+    this.boardState = boardState;
+  }
+
+  /**
+   * Sets off a bomb on the next resolve, unless it is already set off.
+   *
+   * @param bomb - The bomb.
+   */
+  public void detonate(Bomb bomb) {
+
+    if (bomb.isExploding() || bomb.isQueued()) {
+      return;
+    }
+
+    bomb.setQueued(true);
+    queue.add(bomb);
+  }
+
+  /**
+   * Sets off every bomb queued, following the chains, then burns the objects in their fires.
+   */
+  public void resolve() {
+
+    while (!queue.isEmpty()) {
+
+      // The queue grows while the chains are followed.
+      for (int i = 0; i < queue.size(); i++) {
+        Bomb bomb = queue.get(i);
+        bomb.setQueued(false);
+        bomb.explode();
+        collectBurns(bomb);
+      }
+
+      queue.clear();
+      for (int i = 0; i < burnCount; i += 2) {
+        boardState.burnObject(burns[i], burns[i + 1]);
+      }
+
+      burnCount = 0;
+    }
+  }
+
+  private void collectBurns(Bomb bomb) {
+
+    int exactX = boardState.getExactX(bomb);
+    int exactY = boardState.getExactY(bomb);
+
+    // The fire spreads a cell at a time in every direction, as it is drawn.
+    for (int i = 1; i <= bomb.getTotalRange(); i++) {
+
+      collectBurn(i, bomb.getRangeNorth(), exactX, exactY + i);
+      collectBurn(i, bomb.getRangeSouth(), exactX, exactY - i);
+      collectBurn(i, bomb.getRangeWest(), exactX - i, exactY);
+      collectBurn(i, bomb.getRangeEast(), exactX + i, exactY);
+    }
+  }
+
+  private void collectBurn(int counter, int range, int x, int y) {
+
+    if (counter >= range) {
+      return;
+    }
+
+    AbstractBomberObject object = boardState.getObject(x, y);
+    if (object == null) {
+      return;
+    }
+
+    if (object instanceof Bomb) {
+      // The bombs caught in the fire go off in this same pass, and are not burned.
+      detonate((Bomb) object);
+      return;
+    }
+
+    if (burnCount == burns.length) {
+      burns = Arrays.copyOf(burns, burns.length * 2);
+    }
+
+    burns[burnCount++] = x;
+    burns[burnCount++] = y;
+  }
+
+}
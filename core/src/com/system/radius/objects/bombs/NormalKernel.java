@@ -0,0 +1,20 @@
+package com.system.radius.objects.bombs;
+
+import com.system.radius.enums.Direction;
+import com.system.radius.objects.board.BoardState;
+
+/**
+ * The fire stops at the first block it meets, burning it if it is a soft block.
+ */
+public class NormalKernel extends BlastKernel {
+
+  public NormalKernel(boolean fullPower, boolean remote) {
+    super(fullPower, remote);
+  }
+
+  @Override
+  public int getReach(BoardState boardState, int x, int y, Direction direction, int range) {
+    return boardState.getBlastRays().getReach(x, y, direction, range);
+  }
+
+}
@@ -0,0 +1,41 @@
+package com.system.radius.objects.bombs;
+
+import com.system.radius.enums.Direction;
+import com.system.radius.objects.board.BlastRays;
+import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.board.WorldConstants;
+
+/**
+ * The fire goes through the soft blocks, burning every one of them in range, and stops at the
+ * first hard block.
+ */
+public class PierceKernel extends BlastKernel {
+
+  public PierceKernel(boolean fullPower) {
+    super(fullPower, false);
+  }
+
+  @Override
+  public int getReach(BoardState boardState, int x, int y, Direction direction, int range) {
+
+    BlastRays rays = boardState.getBlastRays();
+    int dx = BlastRays.getDeltaX(direction);
+    int dy = BlastRays.getDeltaY(direction);
+
+    // Jump from block to block, the cells in between cannot stop the fire.
+    int travelled = 0;
+    while (true) {
+
+      travelled += rays.getDistance(x + dx * travelled, y + dy * travelled, direction);
+      if (travelled > range) {
+        return 1 + range;
+      }
+
+      char c = boardState.getChar(x + dx * travelled, y + dy * travelled);
+      if (c != WorldConstants.BOARD_SOFT_BLOCK && c != WorldConstants.BOARD_TO_DESTROY) {
+        return 1 + travelled;
+      }
+    }
+  }
+
+}
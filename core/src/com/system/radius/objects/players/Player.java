@@ -17,6 +17,7 @@ import com.system.radius.enums.PlayerState;
 import com.system.radius.objects.AbstractBomberObject;
 import com.system.radius.objects.blocks.Block;
 import com.system.radius.objects.blocks.Bonus;
+import com.system.radius.objects.bombs.BlastKernel;
 import com.system.radius.objects.bombs.Bomb;
 import com.system.radius.objects.bombs.NekoBomb;
 import com.system.radius.objects.board.BoardState;
@@ -25,6 +26,7 @@ import com.system.radius.utils.BombermanLogger;
 import com.system.radius.utils.DebugUtils;
 import com.system.radius.utils.NodeUtils;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public abstract class Player extends AbstractBomberObject implements Disposable {
@@ -103,6 +105,11 @@ public abstract class Player extends AbstractBomberObject implements Disposable
    */
   protected Direction direction = Direction.DOWN;
 
+  /**
+   * The id of this player on the board, given when the player joins the board, or -1 before.
+   */
+  private int id = -1;
+
   /**
    * The top collision bound.
    */
@@ -163,19 +170,14 @@ public abstract class Player extends AbstractBomberObject implements Disposable
    */
   private Node respawnPoint;
 
-  /**
-   * The timer to track the player's death, both dying and dead.
-   */
-  private float deathTimer;
-
   private float thinWidth;
 
   private float thinHeight;
 
   private float thinScale;
 
-  Player(String spriteSheetPath, float x, float y, float scale) {
-    super('P', x, y);
+  Player(BoardState boardState, String spriteSheetPath, float x, float y, float scale) {
+    super(boardState, 'P', x, y);
     LOGGER = new BombermanLogger(this.getClass().getSimpleName());
 
     LOGGER.info("Before respawn: [" + x + ", " + y + "]");
@@ -282,7 +284,6 @@ public abstract class Player extends AbstractBomberObject implements Disposable
     float exactX = getExactX();
     float exactY = getExactY();
 
-    BoardState boardState = BoardState.getInstance();
     if (boardState.getChar((int) (exactX / scale), (int) (exactY / scale)) != WorldConstants.BOARD_EMPTY) {
       return;
     }
@@ -290,13 +291,52 @@ public abstract class Player extends AbstractBomberObject implements Disposable
     Bomb bomb = new NekoBomb(this, exactX, exactY, scale, scale);
     bombs.add(bomb);
 
-    BoardState.getInstance().addToBoard(bomb);
+    boardState.addToBoard(bomb);
+  }
+
+  /**
+   * Sets off the remote bombs of this player. They go off on the next update of the board, along
+   * with the bombs caught in their fire.
+   */
+  public void triggerBomb() {
+
+    if (PlayerState.DYING.equals(playerState) || PlayerState.DEAD.equals(playerState)) {
+      return;
+    }
+
+    detonateRemoteBombs();
+  }
+
+  /**
+   * Queues the remote bombs of this player on the explosion resolver of the board.
+   */
+  private void detonateRemoteBombs() {
+
+    for (Bomb bomb : bombs) {
+      if (bomb.isRemote()) {
+        boardState.getExplosionResolver().detonate(bomb);
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if a bomb of this player waits to be set off; {@code false} otherwise.
+   */
+  public boolean hasRemoteBombs() {
+
+    for (Bomb bomb : bombs) {
+      if (bomb.isRemote()) {
+        return true;
+      }
+    }
+
+    return false;
   }
 
   public void removeBomb(Bomb bomb) {
 
     bombs.removeValue(bomb, false);
-    BoardState.getInstance().removeFromBoard(bomb);
+    boardState.removeFromBoard(bomb);
 
   }
 
@@ -313,6 +353,14 @@ public abstract class Player extends AbstractBomberObject implements Disposable
     return collisionRect;
   }
 
+  public int getId() {
+    return id;
+  }
+
+  public void setId(int id) {
+    this.id = id;
+  }
+
   public float getSpeed() {
     return baseSpeed * speedLevel;
   }
@@ -321,6 +369,19 @@ public abstract class Player extends AbstractBomberObject implements Disposable
     return firePower;
   }
 
+  public BombType getBombType() {
+    return bombType;
+  }
+
+  /**
+   * Sets the type of the bombs planted from now on, see {@link BlastKernel#forType(BombType)}.
+   *
+   * @param bombType - The type of bomb, {@code null} for the default bomb.
+   */
+  public void setBombType(BombType bombType) {
+    this.bombType = bombType;
+  }
+
   protected void updateBounds() {
 
     collisionRect.setPosition(x, y);
@@ -332,6 +393,10 @@ public abstract class Player extends AbstractBomberObject implements Disposable
 
     collisionBurn.setPosition(x + thinScale, y + thinScale);
 
+    if (id >= 0) {
+      boardState.movePlayer(this);
+    }
+
   }
 
   @Override
@@ -542,7 +607,7 @@ public abstract class Player extends AbstractBomberObject implements Disposable
     setVelX(0);
     setVelY(0);
 
-    deathTimer = 0;
+    cancelTimer();
     playerState = PlayerState.IDLE;
 
     // Decrease the life.
@@ -550,6 +615,53 @@ public abstract class Player extends AbstractBomberObject implements Disposable
 
   }
 
+  /**
+   * Writes the position, the stats and the status of this player. The bombs of the player are
+   * written by the snapshot, as they are on the board as well.
+   */
+  @Override
+  public void writeState(ByteBuffer buffer) {
+
+    super.writeState(buffer);
+    buffer.putFloat(x);
+    buffer.putFloat(y);
+    buffer.putFloat(velX);
+    buffer.putFloat(velY);
+    buffer.putFloat(speedLevel);
+    buffer.putShort((short) bombStock);
+    buffer.putShort((short) firePower);
+    buffer.put((byte) playerState.ordinal());
+    buffer.put((byte) direction.ordinal());
+    buffer.put((byte) (bombType == null ? -1 : bombType.ordinal()));
+    buffer.putLong(getDeadline());
+    buffer.putFloat(animationElapsedTime);
+    buffer.putShort((short) respawnPoint.getX());
+    buffer.putShort((short) respawnPoint.getY());
+  }
+
+  @Override
+  public void readState(ByteBuffer buffer) {
+
+    super.readState(buffer);
+    float positionX = buffer.getFloat();
+    float positionY = buffer.getFloat();
+    velX = buffer.getFloat();
+    velY = buffer.getFloat();
+    setSpeed(buffer.getFloat());
+    bombStock = buffer.getShort();
+    firePower = buffer.getShort();
+    playerState = PlayerState.values()[buffer.get()];
+    direction = Direction.values()[buffer.get()];
+    byte type = buffer.get();
+    bombType = type < 0 ? null : BombType.values()[type];
+    scheduleAt(buffer.getLong());
+    animationElapsedTime = buffer.getFloat();
+    respawnPoint = NodeUtils.createNode(buffer.getShort(), buffer.getShort());
+
+    // The bounds follow the position.
+    setPosition(positionX, positionY);
+  }
+
   @Override
   public void burn() {
     // Unless the particular player has a special effect on death, avoid overriding this method.
@@ -562,7 +674,12 @@ public abstract class Player extends AbstractBomberObject implements Disposable
     // Upon being burned, this player is dying.
     playerState = PlayerState.DYING;
 
+    // No one is left to set off the remote bombs, so they go off on the next update instead of
+    // staying on the board for good.
+    detonateRemoteBombs();
+
     animationElapsedTime = 0;
+    schedule(DYING_TIMER);
 
     setVelX(0);
     setVelY(0);
@@ -578,6 +695,7 @@ public abstract class Player extends AbstractBomberObject implements Disposable
       bomb.update(delta);
     }
 
+    // Dying and dead, the player waits on the board for their timer, see onTimer().
     if (!PlayerState.DYING.equals(playerState) && !PlayerState.DEAD.equals(playerState)) {
       // Setting the direction is relevant for walking and idle player states.
       setDirection();
@@ -592,27 +710,25 @@ public abstract class Player extends AbstractBomberObject implements Disposable
       y += velY * delta;
 
       updateBounds();
-      collide(BoardState.getInstance().getSurroundingBlocks(this));
-
-      return;
+      collide(boardState.getSurroundingBlocks(this));
     }
+  }
 
-    deathTimer += delta;
-    if (PlayerState.DYING.equals(playerState) && deathTimer >= DYING_TIMER) {
+  @Override
+  public void onTimer() {
+
+    if (PlayerState.DYING.equals(playerState)) {
       // After the timer for 'dying' has elapsed, this player is dead.
       playerState = PlayerState.DEAD;
-      deathTimer = 0;
+      schedule(DEATH_TIMER);
       return;
     }
 
-    if (PlayerState.DEAD.equals(playerState) && deathTimer >= DEATH_TIMER) {
-      // After the death timer has elapsed, respawn the player.
-      if (life > 0) {
-        // The player can only respawn if they still have life. The respawn will cost one life.
-        respawn();
-      }
+    if (PlayerState.DEAD.equals(playerState) && life > 0) {
+      // After the death timer has elapsed, respawn the player. The player can only respawn if
+      // they still have life. The respawn will cost one life.
+      respawn();
     }
-
   }
 
   @Override
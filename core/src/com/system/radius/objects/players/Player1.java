@@ -4,8 +4,8 @@ import com.system.radius.objects.board.BoardState;
 
 public class Player1 extends Player {
 
-  public Player1(float x, float y, float scale) {
-    super("neko/img/tokoy_sprite_sheet.png", x, y, scale);
+  public Player1(BoardState boardState, float x, float y, float scale) {
+    super(boardState, "neko/img/tokoy_sprite_sheet.png", x, y, scale);
   }
 
   @Override
@@ -77,7 +77,8 @@ public class GameScreen extends AbstractScreen {
     FieldConfig.reset();
     color = allowDebug ? Color.BLACK : FieldConfig.getColorScheme();
 
-    boardState = BoardState.getInstance();
+    // Every match is played on a board state of its own.
+    boardState = new BoardState((int) worldWidth, (int) worldHeight);
     boardState.reset();
 
     float spacing = 2f;
@@ -86,9 +87,9 @@ public class GameScreen extends AbstractScreen {
       for (int y = 0; y < worldHeight; y++) {
 
         if (x == 0 || y == 0 || x + 1 == worldWidth || y + 1 == worldHeight) {
-          boardState.addToBoard(new Block(x * scale, y * scale, scale, scale));
+          boardState.addToBoard(new Block(boardState, x * scale, y * scale, scale, scale));
         } else if (x % spacing == 0 && y % spacing == 0) {
-          boardState.addToBoard(new HardBlock(x * scale, y * scale, scale, scale));
+          boardState.addToBoard(new HardBlock(boardState, x * scale, y * scale, scale, scale));
         }
       }
     }
@@ -106,18 +107,19 @@ public class GameScreen extends AbstractScreen {
     switch (playerCount) {
       case 4:
         //Bottom-right
-        ais.add(new Ai(new Player1((worldWidth - 2) * scale, 1f * scale, scale), 4));
+        ais.add(new Ai(new Player1(boardState, (worldWidth - 2) * scale, 1f * scale, scale), 4));
       case 3:
         // Top-left
-        ais.add(new Ai(new Player1(1f * scale, (worldHeight - 2) * scale, scale), 3));
+        ais.add(new Ai(new Player1(boardState, 1f * scale, (worldHeight - 2) * scale, scale), 3));
       case 2:
         // Top-right
-        ais.add(new Ai(new Player1((worldWidth - 2) * scale, (worldHeight - 2) * scale, scale), 2));
+        ais.add(new Ai(new Player1(boardState, (worldWidth - 2) * scale,
+            (worldHeight - 2) * scale, scale), 2));
       case 1:
       default:
         if (allowPlayer) {
           // Create a player instance if allowed.
-          Player player = new Player1(1f * scale, 1f * scale, scale);
+          Player player = new Player1(boardState, 1f * scale, 1f * scale, scale);
           boardState.addPlayer(player);
 
           player.setSpeed(2);
@@ -127,7 +129,7 @@ public class GameScreen extends AbstractScreen {
 
         // Otherwise, create an AI.
         // Bottom-left
-        ais.add(new Ai(new Player1(1f * scale, 1f * scale, scale), 1));
+        ais.add(new Ai(new Player1(boardState, 1f * scale, 1f * scale, scale), 1));
     }
 
     players = new ArrayList<>(boardState.getPlayers());
@@ -153,7 +155,8 @@ public class GameScreen extends AbstractScreen {
         continue;
       }
 
-      boardState.addToBoard(new SoftBlock(tempX * scale, tempY * scale, scale, scale, Bonus.hasBonus()));
+      boardState.addToBoard(new SoftBlock(boardState, tempX * scale, tempY * scale, scale, scale,
+          Bonus.hasBonus()));
     }
 
   }
@@ -267,7 +270,6 @@ public class GameScreen extends AbstractScreen {
 
   private void drawGrid() {
 
-    BoardState boardState = BoardState.getInstance();
     for (int x = 0; x < worldWidth; x++) {
       for (int y = 0; y < worldHeight; y++) {
 
@@ -284,7 +286,6 @@ public class GameScreen extends AbstractScreen {
 
   private void drawGridDebug() {
 
-    BoardState boardState = BoardState.getInstance();
     for (int x = 0; x < worldWidth; x++) {
       for (int y = 0; y < worldHeight; y++) {
 
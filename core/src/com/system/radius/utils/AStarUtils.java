@@ -1,13 +1,16 @@
 package com.system.radius.utils;
 
 import com.system.radius.ai.Node;
+import com.system.radius.ai.path.FloodFill;
+import com.system.radius.ai.path.PathCache;
+import com.system.radius.ai.path.PathBuffer;
+import com.system.radius.ai.path.SearchArena;
 import com.system.radius.objects.AbstractBomberObject;
 import com.system.radius.objects.board.BoardState;
 import com.system.radius.objects.board.WorldConstants;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Collections;
 
 /**
  * An A* implementation.
@@ -17,215 +20,208 @@ import java.util.Collections;
 public class AStarUtils {
 
   /**
-   * The open list, contains all of the nodes to be explored.
+   * The flood used for searching the available spaces.
    */
-  private final List<Node> openList = new ArrayList<>();
+  private final FloodFill floodFill = new FloodFill();
 
   /**
-   * The closed list, contains all of the nodes that are already explored.
+   * The working memory for the path searches, reused for as long as the board size is the same.
    */
-  private final List<Node> closedList = new ArrayList<>();
+  private SearchArena arena;
 
   /**
-   * The representation of the board through which the search will travel.
+   * The buffer receiving the paths found for the node-based searches.
    */
-  private int[][] maze;
+  private final PathBuffer pathBuffer = new PathBuffer();
 
   /**
-   * The target X coordinate.
+   * The cache of the paths found on the versioned boards, may be shared by several path finders.
    */
-  private int targetX;
-
-  /**
-   * The target Y coordinate.
-   */
-  private int targetY;
+  private PathCache pathCache;
 
   public AStarUtils() {
     // Empty constructor.
   }
 
+  public void setPathCache(PathCache pathCache) {
+    this.pathCache = pathCache;
+  }
+
+  public PathCache getPathCache() {
+    return pathCache;
+  }
+
   public List<Node> findShortestPath(int[][] board, AbstractBomberObject source,
                                      AbstractBomberObject target) {
 
-    return findPathInternal(board, source, target);
+    BoardState boardState = source.getBoardState();
+    return findShortestPath(board,
+        new Node(null, boardState.getExactX(source), boardState.getExactY(source), 0, 0),
+        new Node(null, boardState.getExactX(target), boardState.getExactY(target), 0, 0));
   }
 
   public List<Node> findShortestPath(int[][] board, Node source, Node target) {
 
-    return findPathInternal(board, source.getX(), source.getY(), target.getX(),
-        target.getY());
+    if (!findShortestPath(board, source, target, pathBuffer)) {
+      // The moves are exhausted, and there is no way to reach the target.
+      return null;
+    }
+
+    return pathBuffer.toNodes();
   }
 
   /**
-   * Blindly search for available spaces in the vicinity of the source.
+   * Finds the shortest path on a versioned board, in nodes.
    *
-   * @param board  - The board that serves as the maze to be traversed.
-   * @param source - The source node.
-   * @param depth  - The depth of searching level.
-   * @return The list of available spaces around the source.
+   * @param board   - The board that serves as the maze to be traversed.
+   * @param version - The version of the board, or {@link PathCache#NO_VERSION} if the board is
+   *                not to be cached.
+   * @param source  - The source node.
+   * @param target  - The target node.
+   * @return The path, or {@code null} if the target cannot be reached.
+   * @see #findShortestPath(int[][], long, Node, Node, PathBuffer)
    */
-  public List<Node> searchSpaces(int[][] board, Node source, int depth) {
+  public List<Node> findShortestPath(int[][] board, long version, Node source, Node target) {
 
-    return findSpacesInternal(board, source.getX(), source.getY(), depth);
+    if (!findShortestPath(board, version, source, target, pathBuffer)) {
+      return null;
+    }
+
+    return pathBuffer.toNodes();
   }
 
   /**
-   * Search for empty spaces around the given source coordinates.
+   * Finds the shortest path on a versioned board. The path is taken from the cache if it was
+   * already found for the same version and endpoints, and is cached otherwise.
    *
    * @param board   - The board that serves as the maze to be traversed.
-   * @param sourceX - The X-coordinate of the source.
-   * @param sourceY - The Y-coordinate of the source.
-   * @param depth   - The depth of searching level.
-   * @return The list of available spaces in around the source.
+   * @param version - The version of the board, or {@link PathCache#NO_VERSION} if the board is
+   *                not to be cached.
+   * @param source  - The source node.
+   * @param target  - The target node.
+   * @param path    - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise.
    */
-  private List<Node> findSpacesInternal(int[][] board, int sourceX, int sourceY, int depth) {
-
-    openList.clear();
-    closedList.clear();
+  public boolean findShortestPath(int[][] board, long version, Node source, Node target,
+                                  PathBuffer path) {
 
-    maze = board;
-
-    Node now = new Node(null, sourceX, sourceY, 0, 0);
-    openList.add(now);
-    for (int i = 0; openList.size() > 0; i++) {
-      now = this.openList.remove(0);
-
-      int x = now.getX();
-      int y = now.getY();
-
-      if (i >= depth) {
-        // If the depth level is reached, break from the search.
-        break;
-      }
+    if (pathCache == null || version == PathCache.NO_VERSION) {
+      return findShortestPath(board, source, target, path);
+    }
 
-      closedList.add(now);
+    int width = board[0].length;
+    int sourceCell = source.getY() * width + source.getX();
+    int targetCell = target.getY() * width + target.getX();
 
-//      if (board[y][x] >= 0) {
-        addChildrenToOpenList(now);
-//      }
+    if (pathCache.contains(version, sourceCell, targetCell)) {
+      return pathCache.get(version, sourceCell, targetCell, path);
     }
 
-    return new ArrayList<>(closedList);
-  }
-
-  private List<Node> findPathInternal(int[][] board, AbstractBomberObject source,
-                                      AbstractBomberObject target) {
+    boolean found = findShortestPath(board, source, target, path);
+    pathCache.put(version, sourceCell, targetCell, found ? path : null);
 
-    BoardState boardState = BoardState.getInstance();
-    return findPathInternal(board, boardState.getExactX(source), boardState.getExactY(source),
-        boardState.getExactX(target), boardState.getExactY(target));
+    return found;
   }
 
-  private List<Node> findPathInternal(int[][] board, int sourceX, int sourceY, int targetX,
-                                      int targetY) {
-
-    // Reset the status for the lists.
-    openList.clear();
-    closedList.clear();
-
-    maze = board;
-
-    Node now = new Node(null, sourceX, sourceY, 0, 0);
-    // this.sourceX = sourceX;
-    // this.sourceY = sourceY;
-    this.targetX = targetX;
-    this.targetY = targetY;
-
-    for (openList.add(now); openList.size() > 0; ) {
-
-      now = this.openList.remove(0);
-
-      int x = now.getX();
-      int y = now.getY();
-
-      if (x == targetX && y == targetY) {
-        return fixPath(now);
-      }
-
-      closedList.add(now);
-
-//      if (board[y][x] >= 0) {
-        // Do not expand the node if it is not passable.
-        addChildrenToOpenList(now);
-//      }
-
-    }
+  /**
+   * Finds the first part of the path to the target, for the callers that only need to know where
+   * to go next and will ask again later. A flat search has nothing cheaper to offer than the
+   * whole path, which is what it gives.
+   *
+   * @param board   - The board that serves as the maze to be traversed.
+   * @param version - The version of the board, or {@link PathCache#NO_VERSION} if the board is
+   *                not to be cached.
+   * @param source  - The source node.
+   * @param target  - The target node.
+   * @param path    - The buffer to receive the first part of the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise.
+   */
+  public boolean findFirstSegment(int[][] board, long version, Node source, Node target,
+                                  PathBuffer path) {
 
-    // The moves are exhausted, and there is no way to reach the target.
-    return null;
+    return findShortestPath(board, version, source, target, path);
   }
 
-  private List<Node> fixPath(Node node) {
-
-    List<Node> path = new ArrayList<>();
-    path.add(node);
-    for (Node parent = node.getParent(); parent != null; parent = parent.getParent()) {
-
-      if (parent.getParent() == null) {
-        break;
-      }
-      path.add(0, parent);
-    }
+  /**
+   * Finds the shortest path without creating any node, writing the path into a buffer owned by
+   * the caller instead. This is meant for the searches that are done repeatedly, e.g. for
+   * comparing several candidate targets, where only the winning path needs to become nodes.
+   * <p>
+   * This is the search every other form of the path finding goes through, so it is the one
+   * overridden by the other path finders.
+   *
+   * @param board - The board that serves as the maze to be traversed.
+   * @param source - The source node.
+   * @param target - The target node.
+   * @param path   - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise.
+   */
+  public boolean findShortestPath(int[][] board, Node source, Node target, PathBuffer path) {
 
-    // The target is reachable.
-    return path;
+    return getArena(board).findPath(board, source.getX(), source.getY(), target.getX(),
+        target.getY(), path);
   }
 
-  private void addChildrenToOpenList(Node parent) {
-
-    int parentX = parent.getX();
-    int parentY = parent.getY();
-
-    float parentG = parent.getG();
+  /**
+   * Blindly search for available spaces in the vicinity of the source.
+   *
+   * @param board  - The board that serves as the maze to be traversed.
+   * @param source - The source node.
+   * @param depth  - The maximum number of steps from the source.
+   * @return The list of available spaces around the source, nearest first. The cost of each
+   * space is its number of steps from the source.
+   */
+  public List<Node> searchSpaces(int[][] board, Node source, int depth) {
 
-    BoardState boardState = BoardState.getInstance();
+    return findSpacesInternal(board, source.getX(), source.getY(), depth);
+  }
 
-    for (int y = -1; y <= 1; y++) {
+  /**
+   * Counts the available spaces in the vicinity of the source, without creating any node.
+   *
+   * @param board  - The board that serves as the maze to be traversed.
+   * @param source - The source node.
+   * @param depth  - The maximum number of steps from the source.
+   * @return The number of available spaces around the source, including the source.
+   */
+  public int countSpaces(int[][] board, Node source, int depth) {
 
-      int childY = parentY + y;
-      if (childY < 0 || childY >= maze.length) {
-        continue;
-      }
+    return floodFill.fill(board, source.getX(), source.getY(), depth);
+  }
 
-      for (int x = -1; x <= 1; x++) {
+  /**
+   * Search for empty spaces around the given source coordinates.
+   *
+   * @param board   - The board that serves as the maze to be traversed.
+   * @param sourceX - The X-coordinate of the source.
+   * @param sourceY - The Y-coordinate of the source.
+   * @param depth   - The maximum number of steps from the source.
+   * @return The list of available spaces in around the source.
+   */
+  private List<Node> findSpacesInternal(int[][] board, int sourceX, int sourceY, int depth) {
 
-        int childX = parentX + x;
-        if ((x != 0 && y != 0) || childX < 0 || childX >= maze[0].length ||
-            (maze[childY][childX] < 0)) {
-          continue;
-        }
+    int count = floodFill.fill(board, sourceX, sourceY, depth);
+    int width = floodFill.getWidth();
 
-        Node child = new Node(parent, childX, childY, parentG + 1 + maze[childY][childX],
-            computeHeuristic(childX, childY));
+    List<Node> spaces = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int cell = floodFill.getCell(i);
+      int x = cell % width;
+      int y = cell / width;
 
-        if (!(findInList(openList, child) || findInList(closedList, child))) {
-          openList.add(child);
-        }
-      }
+      spaces.add(new Node(null, x, y, floodFill.getHops(x, y), 0));
     }
 
-    Collections.sort(openList);
-
+    return spaces;
   }
 
-  private float computeHeuristic(int x, int y) {
+  private SearchArena getArena(int[][] board) {
 
-    return (float) Math.abs(x - targetX) + Math.abs(y - targetY);
-  }
-
-  private boolean findInList(List<Node> nodes, Node node) {
-
-    int x = node.getX();
-    int y = node.getY();
-
-    for (Node inList : nodes) {
-      if (x == inList.getX() && y == inList.getY()) {
-        return true;
-      }
+    if (arena == null || !arena.fits(board)) {
+      arena = new SearchArena(board[0].length, board.length);
     }
 
-    return false;
+    return arena;
   }
 
   /**
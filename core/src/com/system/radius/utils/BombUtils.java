@@ -1,7 +1,9 @@
 package com.system.radius.utils;
 
 import com.system.radius.ai.Node;
+import com.system.radius.objects.board.BoardOverlay;
 import com.system.radius.objects.board.WorldConstants;
+import com.system.radius.objects.bombs.BlastKernel;
 import com.system.radius.objects.players.Player;
 
 public class BombUtils {
@@ -9,27 +11,20 @@ public class BombUtils {
   private BombUtils() {
   }
 
-  public static void updateBoardCost(int[][] board, Node position, Player player) {
-
-    int cost = WorldConstants.FIRE_PATH_COST - (int) (player.getSpeedLevel() * 10);
-    updateBoardCost(board, position.getX(), position.getY(), player.getFirePower(), cost);
-
-  }
-
   /**
-   * Updates the path cost for the board. The update is such that a bomb is placed on the
-   * indicated coordinates.
+   * Updates the path cost within the top layer of an overlay, such that the theoretical bomb can
+   * be taken back by discarding the layer.
    *
-   * @param board     - The board with an integer representation of the movement costs.
-   * @param x         - The X coordinate for the theoretical bomb to be placed.
-   * @param y         - The Y coordinate for the theoretical bomb to be placed.
-   * @param fireRange - The range of the theoretical bomb.
-   * @param cost      - The cost of moving through the fire path.
+   * @param overlay  - The overlay over the board with the movement costs.
+   * @param position - The position of the theoretical bomb.
+   * @param player   - The player planting the theoretical bomb.
    */
-  public static void updateBoardCost(int[][] board, int x, int y, int fireRange, int cost) {
+  public static void updateBoardCost(BoardOverlay overlay, Node position, Player player) {
 
-    Range range = new Range(x, y, fireRange);
-    range.updateBoard(board, cost);
+    int cost = WorldConstants.FIRE_PATH_COST - (int) (player.getSpeedLevel() * 10);
+    Range range = new Range(player.getBoardState(), BlastKernel.forType(player.getBombType()),
+        position.getX(), position.getY(), player.getFirePower());
+    range.updateBoard(overlay, cost);
 
   }
 
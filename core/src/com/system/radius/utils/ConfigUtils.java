@@ -15,6 +15,8 @@ public class ConfigUtils {
 
   public static final String WORLD_SCALE = "world_scale";
 
+  public static final String BOMB_KINDS = "bomb_kinds";
+
   private static final Properties properties = new Properties();
 
   private ConfigUtils() {
@@ -39,6 +41,15 @@ public class ConfigUtils {
     return Float.parseFloat(properties.getProperty(key));
   }
 
+  /**
+   * @param key - The key of the property.
+   * @return The value of the property, or {@code false} if it is not set.
+   */
+  public static boolean getBoolean(String key) {
+
+    return Boolean.parseBoolean(properties.getProperty(key));
+  }
+
   public static float getWorldWidth() {
 
     return getFloat(WORLD_WIDTH);
@@ -54,4 +65,13 @@ public class ConfigUtils {
     return getFloat(WORLD_SCALE);
   }
 
+  /**
+   * @return {@code true} if the bonuses of the other kinds of bombs are drawn, and the remote
+   * bombs can be set off; {@code false} for the original game.
+   */
+  public static boolean isBombKindsEnabled() {
+
+    return getBoolean(BOMB_KINDS);
+  }
+
 }
@@ -0,0 +1,55 @@
+package com.system.radius.utils;
+
+import com.system.radius.ai.Node;
+import com.system.radius.ai.path.HierarchicalSearch;
+import com.system.radius.ai.path.PathBuffer;
+
+/**
+ * A hierarchical path finder (HPA*) for the large boards. The board is abstracted into clusters
+ * linked by entrances, which are kept up to date as the board changes, so that a long path costs a
+ * search over the entrances plus the refinement of the path in cells.
+ * <p>
+ * The paths are near-optimal rather than the cheapest, as they pass through the entrances.
+ *
+ * @author Radius Sairo
+ */
+public class HierarchicalAStarUtils extends AStarUtils {
+
+  private final HierarchicalSearch search;
+
+  public HierarchicalAStarUtils() {
+    this(HierarchicalSearch.DEFAULT_CLUSTER_SIZE);
+  }
+
+  public HierarchicalAStarUtils(int clusterSize) {
+    search = new HierarchicalSearch(clusterSize);
+  }
+
+  /**
+   * @return The number of graph nodes explored by the last search.
+   */
+  public int getExpanded() {
+    return search.getExpanded();
+  }
+
+  @Override
+  public boolean findShortestPath(int[][] board, Node source, Node target, PathBuffer path) {
+
+    return search.findPath(board, source.getX(), source.getY(), target.getX(), target.getY(),
+        false, path);
+  }
+
+  /**
+   * Finds the path up to the first entrance on the way to the target. Only that part is refined
+   * into cells, the rest of the way is left to the next call. The segments are not cached, as
+   * they would be taken for the whole paths between the same cells.
+   */
+  @Override
+  public boolean findFirstSegment(int[][] board, long version, Node source, Node target,
+                                  PathBuffer path) {
+
+    return search.findPath(board, source.getX(), source.getY(), target.getX(), target.getY(),
+        true, path);
+  }
+
+}
@@ -0,0 +1,404 @@
+package com.system.radius.utils;
+
+import com.system.radius.ai.Node;
+import com.system.radius.ai.path.IndexedMinHeap;
+import com.system.radius.ai.path.PathBuffer;
+
+import java.util.Arrays;
+
+/**
+ * An incremental path finder based on D* Lite. The search runs backwards from the target, and
+ * its state is kept across calls: when the board only changed in a few cells since the last call,
+ * only the cells affected by the change are repaired instead of searching from scratch. The source
+ * may move freely between calls.
+ * <p>
+ * The state is started over when the target or the board size changes, or when too much of the
+ * board has changed for a repair to be worth it.
+ *
+ * @author Radius Sairo
+ */
+public class IncrementalAStarUtils extends AStarUtils {
+
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+  /**
+   * The portion of the board that may change before the state is started over, as a divisor of
+   * the number of cells.
+   */
+  private static final int REPAIR_LIMIT = 8;
+
+  private int width;
+
+  private int height;
+
+  /**
+   * The copy of the board from the last call, used for finding the cells that changed.
+   */
+  private int[] costs;
+
+  /**
+   * The movement cost from each cell to the target, as of the last expansion of the cell.
+   */
+  private int[] gCosts;
+
+  /**
+   * The one-step lookahead cost from each cell to the target.
+   */
+  private int[] rhsCosts;
+
+  /**
+   * Marks the cells that have costs in the current state, by holding its generation.
+   */
+  private int[] stamps;
+
+  private IndexedMinHeap openHeap;
+
+  private int generation;
+
+  private int target = -1;
+
+  private int start = -1;
+
+  /**
+   * The accumulated heuristic shift from the movement of the source.
+   */
+  private int keyModifier;
+
+  /**
+   * The number of cells expanded since the state was last started over.
+   */
+  private int expanded;
+
+  public IncrementalAStarUtils() {
+    // Empty constructor.
+  }
+
+  /**
+   * @return The number of cells expanded since the search was last started over.
+   */
+  public int getExpanded() {
+    return expanded;
+  }
+
+  @Override
+  public boolean findShortestPath(int[][] board, Node source, Node target, PathBuffer path) {
+
+    int sourceX = source.getX();
+    int sourceY = source.getY();
+
+    boolean restarted = prepareState(board, target.getY() * board[0].length + target.getX()) ||
+        repair(board);
+
+    moveStart(sourceY * width + sourceX);
+    if (restarted) {
+      // The search begins at the target.
+      openHeap.put(this.target, calculateKey(this.target));
+    }
+
+    computeShortestPath();
+
+    return createPath(path);
+  }
+
+  /**
+   * Checks if the current state can be reused for the board and the target, and starts it over if
+   * it cannot.
+   *
+   * @param board     - The board to be searched.
+   * @param newTarget - The target cell.
+   * @return {@code true} if the state was started over; {@code false} if it can be repaired.
+   */
+  private boolean prepareState(int[][] board, int newTarget) {
+
+    if (costs != null && board.length == height && board[0].length == width &&
+        newTarget == target) {
+      return false;
+    }
+
+    height = board.length;
+    width = board[0].length;
+
+    int cells = width * height;
+    if (costs == null || costs.length != cells) {
+      costs = new int[cells];
+      gCosts = new int[cells];
+      rhsCosts = new int[cells];
+      stamps = new int[cells];
+      openHeap = new IndexedMinHeap(cells);
+      generation = 0;
+    }
+
+    restart(board, newTarget);
+    return true;
+  }
+
+  private void restart(int[][] board, int newTarget) {
+
+    for (int y = 0; y < height; y++) {
+      System.arraycopy(board[y], 0, costs, y * width, width);
+    }
+
+    openHeap.clear();
+    if (++generation == 0) {
+      Arrays.fill(stamps, 0);
+      generation = 1;
+    }
+
+    target = newTarget;
+    start = -1;
+    keyModifier = 0;
+    expanded = 0;
+
+    stamp(target);
+    rhsCosts[target] = 0;
+  }
+
+  /**
+   * Applies the changes of the board since the last call. Every change of a cell changes the cost
+   * of moving into it, so the cells around it are updated.
+   *
+   * @param board - The current board.
+   * @return {@code true} if the state had to be started over; {@code false} otherwise.
+   */
+  private boolean repair(int[][] board) {
+
+    int limit = (width * height) / REPAIR_LIMIT;
+    int changes = 0;
+
+    for (int y = 0; y < height; y++) {
+      int[] row = board[y];
+      for (int x = 0; x < width; x++) {
+
+        int cell = y * width + x;
+        if (costs[cell] == row[x]) {
+          continue;
+        }
+
+        if (++changes > limit) {
+          // Too much has changed, searching from scratch is cheaper.
+          restart(board, target);
+          return true;
+        }
+
+        costs[cell] = row[x];
+        updateNeighbors(cell);
+      }
+    }
+
+    return false;
+  }
+
+  private void moveStart(int newStart) {
+
+    if (start >= 0 && start != newStart) {
+      keyModifier += heuristic(start, newStart);
+    }
+
+    start = newStart;
+    stamp(start);
+  }
+
+  private void computeShortestPath() {
+
+    while (!openHeap.isEmpty() &&
+        (openHeap.peekKey() < calculateKey(start) || rhsCosts[start] != gCosts[start])) {
+
+      int cell = openHeap.peek();
+      long oldKey = openHeap.peekKey();
+      long newKey = calculateKey(cell);
+
+      if (oldKey < newKey) {
+        // The key is outdated by the movement of the source.
+        openHeap.put(cell, newKey);
+        continue;
+      }
+
+      openHeap.poll();
+      expanded++;
+
+      if (gCosts[cell] > rhsCosts[cell]) {
+        gCosts[cell] = rhsCosts[cell];
+      } else {
+        gCosts[cell] = INFINITY;
+        updateVertex(cell);
+      }
+
+      updateNeighbors(cell);
+    }
+  }
+
+  /**
+   * Updates the cells that can move into the given cell.
+   *
+   * @param cell - The cell whose cost or distance changed.
+   */
+  private void updateNeighbors(int cell) {
+
+    int x = cell % width;
+    int y = cell / width;
+
+    if (y - 1 >= 0) {
+      updateVertex(cell - width);
+    }
+    if (x - 1 >= 0) {
+      updateVertex(cell - 1);
+    }
+    if (x + 1 < width) {
+      updateVertex(cell + 1);
+    }
+    if (y + 1 < height) {
+      updateVertex(cell + width);
+    }
+  }
+
+  private void updateVertex(int cell) {
+
+    stamp(cell);
+
+    if (cell != target) {
+      rhsCosts[cell] = lookahead(cell);
+    }
+
+    if (gCosts[cell] != rhsCosts[cell]) {
+      openHeap.put(cell, calculateKey(cell));
+    } else {
+      openHeap.remove(cell);
+    }
+  }
+
+  /**
+   * Finds the cheapest cost to the target through the neighbors of the cell.
+   *
+   * @param cell - The cell to be checked.
+   * @return The cheapest cost, or {@link #INFINITY} if no neighbor leads to the target.
+   */
+  private int lookahead(int cell) {
+
+    int x = cell % width;
+    int y = cell / width;
+
+    int best = INFINITY;
+    if (y - 1 >= 0) {
+      best = Math.min(best, stepCost(cell - width));
+    }
+    if (x - 1 >= 0) {
+      best = Math.min(best, stepCost(cell - 1));
+    }
+    if (x + 1 < width) {
+      best = Math.min(best, stepCost(cell + 1));
+    }
+    if (y + 1 < height) {
+      best = Math.min(best, stepCost(cell + width));
+    }
+
+    return best;
+  }
+
+  /**
+   * @param next - The cell to be moved into.
+   * @return The cost of moving into the cell and then to the target from there.
+   */
+  private int stepCost(int next) {
+
+    stamp(next);
+    if (costs[next] < 0 || gCosts[next] >= INFINITY) {
+      return INFINITY;
+    }
+
+    return gCosts[next] + 1 + costs[next];
+  }
+
+  private long calculateKey(int cell) {
+
+    int best = Math.min(gCosts[cell], rhsCosts[cell]);
+    int primary = best >= INFINITY ? INFINITY : best + heuristic(start, cell) + keyModifier;
+
+    return ((long) primary << 32) | best;
+  }
+
+  private void stamp(int cell) {
+
+    if (stamps[cell] != generation) {
+      stamps[cell] = generation;
+      gCosts[cell] = INFINITY;
+      rhsCosts[cell] = INFINITY;
+    }
+  }
+
+  private int heuristic(int from, int to) {
+
+    return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
+  }
+
+  /**
+   * Walks from the source to the target through the cheapest neighbors.
+   *
+   * @param path - The buffer to receive the path.
+   * @return {@code true} if the target can be reached; {@code false} otherwise, in which case the
+   * path buffer is left empty.
+   */
+  private boolean createPath(PathBuffer path) {
+
+    int limit = width * height;
+    path.reset(width, limit);
+
+    if (start == target) {
+      // The source is the target, the path is the target itself.
+      path.add(start, 0);
+      return true;
+    }
+
+    if (gCosts[start] >= INFINITY) {
+      return false;
+    }
+
+    int g = 0;
+    for (int cell = start; cell != target; ) {
+
+      int next = cheapestNeighbor(cell);
+      if (next < 0 || path.getLength() >= limit) {
+        path.reset(width, limit);
+        return false;
+      }
+
+      g += 1 + costs[next];
+      path.add(next, g);
+      cell = next;
+    }
+
+    return true;
+  }
+
+  private int cheapestNeighbor(int cell) {
+
+    int x = cell % width;
+    int y = cell / width;
+
+    int best = -1;
+    if (y - 1 >= 0) {
+      best = cheaper(best, cell - width);
+    }
+    if (x - 1 >= 0) {
+      best = cheaper(best, cell - 1);
+    }
+    if (x + 1 < width) {
+      best = cheaper(best, cell + 1);
+    }
+    if (y + 1 < height) {
+      best = cheaper(best, cell + width);
+    }
+
+    return best;
+  }
+
+  private int cheaper(int best, int next) {
+
+    int cost = stepCost(next);
+    if (cost >= INFINITY || (best >= 0 && cost >= stepCost(best))) {
+      return best;
+    }
+
+    return next;
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.system.radius.utils;
+
+import com.system.radius.ai.Node;
+import com.system.radius.ai.path.JumpPointSearch;
+import com.system.radius.ai.path.PathBuffer;
+
+/**
+ * A path finder that jumps over the open stretches of the board. The cells sharing the plain
+ * movement cost are crossed in straight lines, and only the cells where a path may have to turn
+ * are explored, while the cells around fire costs are explored one by one. The paths are as cheap
+ * as the ones from the plain search, and move cell by cell.
+ *
+ * @author Radius Sairo
+ */
+public class JumpPointAStarUtils extends AStarUtils {
+
+  private final JumpPointSearch search = new JumpPointSearch();
+
+  /**
+   * @return The number of cells explored by the last search.
+   */
+  public int getExpanded() {
+    return search.getExpanded();
+  }
+
+  @Override
+  public boolean findShortestPath(int[][] board, Node source, Node target, PathBuffer path) {
+
+    return search.findPath(board, source.getX(), source.getY(), target.getX(), target.getY(),
+        path);
+  }
+
+}
@@ -2,15 +2,12 @@ package com.system.radius.utils;
 
 import com.system.radius.ai.Node;
 import com.system.radius.objects.AbstractBomberObject;
-import com.system.radius.objects.board.BoardState;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class NodeUtils {
 
-  private static BoardState boardState = BoardState.getInstance();
-
   private NodeUtils() {
   }
 
@@ -22,8 +19,8 @@ public class NodeUtils {
    */
   public static Node createNode(AbstractBomberObject object) {
 
-    int exactX = boardState.getExactX(object);
-    int exactY = boardState.getExactY(object);
+    int exactX = object.getBoardState().getExactX(object);
+    int exactY = object.getBoardState().getExactY(object);
 
     return createNode(exactX, exactY);
   }
@@ -1,17 +1,21 @@
 package com.system.radius.utils;
 
 import com.system.radius.ai.Node;
+import com.system.radius.enums.Direction;
+import com.system.radius.objects.board.BoardOverlay;
 import com.system.radius.objects.board.BoardState;
-import com.system.radius.objects.board.WorldConstants;
-
-import java.util.HashMap;
-import java.util.Map;
+import com.system.radius.objects.bombs.BlastKernel;
 
 public class Range {
 
-  private BoardState boardState = BoardState.getInstance();
+  private final BoardState boardState;
+
+  private final BlastKernel kernel;
 
-  private Map<Character, Boolean> burnTargets = new HashMap<>();
+  /**
+   * The directions whose fire burns a block, as bits by {@link Direction#ordinal()}.
+   */
+  private int burnTargets;
 
   private int x;
 
@@ -27,27 +31,56 @@ public class Range {
 
   private int east;
 
-  public Range(Node position, int range) {
+  public Range(BoardState boardState, Node position, int range) {
 
-    this(position.getX(), position.getY(), range);
+    this(boardState, position.getX(), position.getY(), range);
   }
 
-  public Range(int x, int y, int range) {
+  public Range(BoardState boardState, int x, int y, int range) {
+
+    this(boardState, BlastKernel.NORMAL, x, y, range);
+  }
 
+  /**
+   * Creates the range of a theoretical bomb of a given kind.
+   *
+   * @param boardState - The state of the board the bomb is placed on.
+   * @param kernel     - The kernel spreading the fire of the bomb.
+   * @param x          - The X coordinate of the bomb.
+   * @param y          - The Y coordinate of the bomb.
+   * @param firePower  - The fire power of the player planting the bomb.
+   */
+  public Range(BoardState boardState, BlastKernel kernel, int x, int y, int firePower) {
+
+    this.boardState = boardState;
+    this.kernel = kernel;
     this.x = x;
     this.y = y;
-    this.range = range;
+    this.range = kernel.getRange(boardState, firePower);
 
     updateRange();
   }
 
   public void updateRange() {
 
-    north = checkObstacle(boardState, x, y + 1, 'w', 1);
-    south = checkObstacle(boardState, x, y - 1, 's', 1);
-    east = checkObstacle(boardState, x + 1, y, 'd', 1);
-    west = checkObstacle(boardState, x - 1, y, 'a', 1);
+    north = kernel.getReach(boardState, x, y, Direction.UP, range);
+    south = kernel.getReach(boardState, x, y, Direction.DOWN, range);
+    east = kernel.getReach(boardState, x, y, Direction.RIGHT, range);
+    west = kernel.getReach(boardState, x, y, Direction.LEFT, range);
+
+    burnTargets = 0;
+    markBurnTarget(Direction.UP);
+    markBurnTarget(Direction.DOWN);
+    markBurnTarget(Direction.RIGHT);
+    markBurnTarget(Direction.LEFT);
+
+  }
+
+  private void markBurnTarget(Direction direction) {
 
+    if (kernel.countTargets(boardState, x, y, direction, range) > 0) {
+      burnTargets |= 1 << direction.ordinal();
+    }
   }
 
   public void updateBoard(int[][] board, int cost) {
@@ -63,50 +96,51 @@ public class Range {
 
   }
 
-  private void updateCellCost(int[][] board, int updatedX, int updatedY, int cost,
-                              int directionalRange, int checker) {
+  /**
+   * Applies the fire cost over a layer of the board, such that it can be discarded later on.
+   *
+   * @param overlay - The overlay over the board to be updated.
+   * @param cost    - The cost of moving through the fire path.
+   */
+  public void updateBoard(BoardOverlay overlay, int cost) {
+
+    for (int i = 0; i <= range; i++) {
+
+      updateCellCost(overlay, x, y + i, cost, north, i);
+      updateCellCost(overlay, x, y - i, cost, south, i);
+      updateCellCost(overlay, x + i, y, cost, east, i);
+      updateCellCost(overlay, x - i, y, cost, west, i);
 
-    if (checker < directionalRange && board[updatedY][updatedX] >= 0) {
-      board[updatedY][updatedX] = cost;
     }
 
   }
 
-  private int checkObstacle(BoardState boardState, int x, int y, char dir, int counter) {
+  private void updateCellCost(BoardOverlay overlay, int updatedX, int updatedY, int cost,
+                              int directionalRange, int checker) {
 
-    if (counter > range) {
-      burnTargets.put(dir, false);
-      return 1;
+    if (checker < directionalRange && overlay.get(updatedX, updatedY) >= 0) {
+      overlay.set(updatedX, updatedY, cost);
     }
 
-    if (boardState.getChar(x, y) == WorldConstants.BOARD_PERMA_BLOCK ||
-        boardState.getChar(x, y) == WorldConstants.BOARD_HARD_BLOCK ||
-        boardState.getChar(x, y) == WorldConstants.BOARD_TO_DESTROY) {
-      burnTargets.put(dir, false);
-      return 2;
-    }
+  }
 
-    if (boardState.getChar(x, y) == WorldConstants.BOARD_SOFT_BLOCK) {
-      burnTargets.put(dir, true);
-      return 2;
-    }
+  private void updateCellCost(int[][] board, int updatedX, int updatedY, int cost,
+                              int directionalRange, int checker) {
 
-    switch (dir) {
-      case 'w':
-        return 1 + checkObstacle(boardState, x, y + 1, dir, counter + 1);
-      case 's':
-        return 1 + checkObstacle(boardState, x, y - 1, dir, counter + 1);
-      case 'a':
-        return 1 + checkObstacle(boardState, x - 1, y, dir, counter + 1);
-      case 'd':
-        return 1 + checkObstacle(boardState, x + 1, y, dir, counter + 1);
+    if (checker < directionalRange && board[updatedY][updatedX] >= 0) {
+      board[updatedY][updatedX] = cost;
     }
 
-    return 1;
   }
 
-  public Map<Character, Boolean> getBurnTargets() {
-    return burnTargets;
+  /**
+   * Checks if the fire burns a block in a direction.
+   *
+   * @param direction - One of the four straight directions.
+   * @return {@code true} if a block is burned that way; {@code false} otherwise.
+   */
+  public boolean isBurnTarget(Direction direction) {
+    return (burnTargets & (1 << direction.ordinal())) != 0;
   }
 
   public int getNorth() {
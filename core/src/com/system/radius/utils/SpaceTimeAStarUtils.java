@@ -0,0 +1,54 @@
+package com.system.radius.utils;
+
+import com.system.radius.ai.Node;
+import com.system.radius.ai.path.PathBuffer;
+import com.system.radius.ai.path.SpaceTimeSearch;
+import com.system.radius.objects.board.DangerMap;
+import com.system.radius.objects.board.WorldConstants;
+import com.system.radius.objects.players.Player;
+
+/**
+ * A path finder that plans around the bomb timers. The cells keep the costs of the board, but the
+ * cells that would be burning while the player stands on them are avoided altogether, such that a
+ * path never runs into a fire that the plain search only sees as a costly cell.
+ *
+ * @author Radius Sairo
+ */
+public class SpaceTimeAStarUtils extends AStarUtils {
+
+  private final SpaceTimeSearch search = new SpaceTimeSearch();
+
+  /**
+   * The player walking the paths, whose speed sets the pace of the moves.
+   */
+  private final Player player;
+
+  public SpaceTimeAStarUtils(Player player) {
+    this.player = player;
+  }
+
+  /**
+   * @return The number of states explored by the last search.
+   */
+  public int getExpanded() {
+    return search.getExpanded();
+  }
+
+  @Override
+  public boolean findShortestPath(int[][] board, long version, Node source, Node target,
+                                  PathBuffer path) {
+    // The paths depend on the time as well, they cannot be cached by the board version alone.
+    return findShortestPath(board, source, target, path);
+  }
+
+  @Override
+  public boolean findShortestPath(int[][] board, Node source, Node target, PathBuffer path) {
+
+    DangerMap danger = player.getBoardState().getDangerMap(player);
+    float stepTime = WorldConstants.WORLD_SCALE / player.getSpeed();
+
+    return search.findPath(board, danger, stepTime, source.getX(), source.getY(), target.getX(),
+        target.getY(), path);
+  }
+
+}
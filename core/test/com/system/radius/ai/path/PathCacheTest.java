@@ -0,0 +1,92 @@
+package com.system.radius.ai.path;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PathCacheTest {
+
+  @Test
+  public void keepsCellsAboveSixteenBitsApart() {
+
+    PathCache cache = new PathCache();
+    int source = 0x10001;
+
+    // Each pair shares its low 16 bits with the pair before it.
+    cache.put(1, source, 0x00002, path(2));
+    cache.put(1, source, 0x10002, path(3));
+    cache.put(1, 0x00001, 0x10002, path(4));
+
+    PathBuffer path = new PathBuffer();
+    assertTrue(cache.get(1, source, 0x00002, path));
+    assertEquals(2, path.getX(0));
+    assertTrue(cache.get(1, source, 0x10002, path));
+    assertEquals(3, path.getX(0));
+    assertTrue(cache.get(1, 0x00001, 0x10002, path));
+    assertEquals(4, path.getX(0));
+    assertFalse(cache.contains(1, 0x00001, 0x00002));
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void keepsVersionsAboveThirtyTwoBitsApart() {
+
+    PathCache cache = new PathCache();
+    cache.put(1L << 32, 5, 6, path(7));
+
+    assertFalse(cache.contains(0, 5, 6));
+    assertTrue(cache.contains(1L << 32, 5, 6));
+    PathBuffer path = new PathBuffer();
+    assertTrue(cache.get(1L << 32, 5, 6, path));
+    assertEquals(7, path.getX(0));
+  }
+
+  @Test
+  public void remembersUnreachableTargets() {
+
+    PathCache cache = new PathCache();
+    cache.put(1, 0x12345, 0x23456, null);
+
+    assertTrue(cache.contains(1, 0x12345, 0x23456));
+    assertFalse(cache.get(1, 0x12345, 0x23456, new PathBuffer()));
+  }
+
+  @Test
+  public void doesNotCacheUnversionedBoards() {
+
+    PathCache cache = new PathCache();
+    cache.put(PathCache.NO_VERSION, 1, 2, path(3));
+
+    assertFalse(cache.contains(PathCache.NO_VERSION, 1, 2));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void copiesPathsInAndOut() {
+
+    PathCache cache = new PathCache();
+    PathBuffer path = path(3);
+    cache.put(1, 1, 2, path);
+
+    // Neither the buffer put nor the buffer read share their cells with the cache.
+    path.reset(16, 16);
+    PathBuffer read = new PathBuffer();
+    assertTrue(cache.get(1, 1, 2, read));
+    read.reset(16, 16);
+
+    assertTrue(cache.get(1, 1, 2, path));
+    assertEquals(1, path.getLength());
+    assertEquals(3, path.getX(0));
+  }
+
+  private static PathBuffer path(int x) {
+
+    PathBuffer path = new PathBuffer();
+    path.reset(16, 1);
+    path.add(x, 1);
+    return path;
+  }
+
+}
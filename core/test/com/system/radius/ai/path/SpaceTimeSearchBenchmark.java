@@ -0,0 +1,283 @@
+package com.system.radius.ai.path;
+
+import com.system.radius.ai.Node;
+import com.system.radius.objects.board.DangerMap;
+import com.system.radius.objects.board.WorldConstants;
+import com.system.radius.utils.AStarUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the space-time search against the plain A* search on random boards with bombs going
+ * off at random times. The boards are built the way the AI builds them: the cells in a fire area
+ * are costly, and the cells already burning are blocked. Both searches get the same board; the
+ * benchmark reports the time taken per query, and how many of the plain paths would walk the
+ * player into a fire. A space-time path that does so is an error.
+ * <p>
+ * Run with {@code gradlew core:benchmarkSpaceTime}.
+ */
+public class SpaceTimeSearchBenchmark {
+
+  private static final int WIDTH = 31;
+
+  private static final int HEIGHT = 17;
+
+  private static final int ROUNDS = 200;
+
+  private static final int QUERIES = 60;
+
+  private static final float WAIT_TIMER = 3;
+
+  private static final float EXPLOSION_TIMER = 1;
+
+  public static void main(String[] args) {
+
+    // A first pass warms the code up, only the second one is reported.
+    run(new Random(7), false);
+    run(new Random(3), true);
+  }
+
+  private static void run(Random random, boolean report) {
+
+    AStarUtils plainSearch = new AStarUtils();
+    SpaceTimeSearch timedSearch = new SpaceTimeSearch();
+    PathBuffer path = new PathBuffer();
+
+    long plainTime = 0;
+    long timedTime = 0;
+    long expanded = 0;
+    int queries = 0;
+    int plainCaught = 0;
+    int timedMissing = 0;
+
+    for (int round = 0; round < ROUNDS; round++) {
+
+      int speedLevel = 1 + random.nextInt(3);
+      float stepTime = 1f / (2 * speedLevel);
+
+      int[][] board = createBoard(random, speedLevel);
+      FixedDangerMap danger = new FixedDangerMap(WIDTH, HEIGHT);
+      placeBombs(random, board, danger, speedLevel);
+
+      int source = randomCell(random, board);
+      int sourceX = source % WIDTH;
+      int sourceY = source / WIDTH;
+
+      for (int query = 0; query < QUERIES; query++) {
+
+        int target = randomCell(random, board);
+        if (target == source) {
+          continue;
+        }
+
+        int targetX = target % WIDTH;
+        int targetY = target / WIDTH;
+
+        long start = System.nanoTime();
+        List<Node> plainPath = plainSearch.findShortestPath(board,
+            new Node(null, sourceX, sourceY, 0, 0), new Node(null, targetX, targetY, 0, 0));
+        long middle = System.nanoTime();
+        boolean found = timedSearch.findPath(board, danger, stepTime, sourceX, sourceY, targetX,
+            targetY, path);
+        long end = System.nanoTime();
+
+        plainTime += middle - start;
+        timedTime += end - middle;
+        expanded += timedSearch.getExpanded();
+        queries++;
+
+        if (plainPath != null && isCaught(plainPath, danger, stepTime)) {
+          plainCaught++;
+        }
+
+        if (plainPath != null && !found) {
+          timedMissing++;
+        }
+
+        if (found && isCaught(path.toNodes(), danger, stepTime)) {
+          throw new IllegalStateException("The space-time path runs into a fire.");
+        }
+      }
+    }
+
+    if (!report) {
+      return;
+    }
+
+    System.out.printf("queries: %d%n", queries);
+    System.out.printf("plain A*:   %.1f us/query%n", plainTime / 1000.0 / queries);
+    System.out.printf("space-time: %.1f us/query, %.0f states/query%n",
+        timedTime / 1000.0 / queries, expanded / (double) queries);
+    System.out.printf("plain paths running into a fire: %d%n", plainCaught);
+    System.out.printf("plain paths without a safe timing: %d%n", timedMissing);
+  }
+
+  /**
+   * Creates a board with the hard blocks on the edges and on every other cell, and soft blocks
+   * scattered on a quarter of the remaining cells.
+   */
+  private static int[][] createBoard(Random random, int speedLevel) {
+
+    int[][] board = new int[HEIGHT][WIDTH];
+    int floorCost = 5 - speedLevel;
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+
+        boolean hard = x == 0 || y == 0 || x == WIDTH - 1 || y == HEIGHT - 1 ||
+            (x % 2 == 0 && y % 2 == 0);
+        board[y][x] = hard || random.nextInt(4) == 0 ? -1 : floorCost;
+      }
+    }
+
+    return board;
+  }
+
+  /**
+   * Places a few bombs, some of them already on fire, and prices their fire areas as the AI does.
+   */
+  private static void placeBombs(Random random, int[][] board, FixedDangerMap danger,
+                                 int speedLevel) {
+
+    int fireCost = WorldConstants.FIRE_PATH_COST - speedLevel * 10;
+    int bombs = 3 + random.nextInt(6);
+    int[] bombCells = new int[bombs];
+
+    for (int i = 0; i < bombs; i++) {
+
+      int cell = randomCell(random, board);
+      int x = cell % WIDTH;
+      int y = cell / WIDTH;
+      int range = 2 + random.nextInt(3);
+
+      float detonation = random.nextInt(4) == 0 ? 0 : random.nextFloat() * WAIT_TIMER;
+      float clearance = detonation == 0 ? random.nextFloat() * EXPLOSION_TIMER :
+          detonation + EXPLOSION_TIMER;
+
+      danger.mark(x, y, detonation, clearance);
+      spreadFire(board, danger, x, y, 0, 1, range, detonation, clearance);
+      spreadFire(board, danger, x, y, 0, -1, range, detonation, clearance);
+      spreadFire(board, danger, x, y, -1, 0, range, detonation, clearance);
+      spreadFire(board, danger, x, y, 1, 0, range, detonation, clearance);
+      bombCells[i] = cell;
+    }
+
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        if (board[y][x] >= 0 && danger.isDangerous(x, y)) {
+          board[y][x] = danger.isBurning(x, y) ? -1 : fireCost;
+        }
+      }
+    }
+
+    // The bombs themselves cannot be walked on.
+    for (int cell : bombCells) {
+      board[cell / WIDTH][cell % WIDTH] = -1;
+    }
+  }
+
+  private static void spreadFire(int[][] board, FixedDangerMap danger, int x, int y, int dx,
+                                 int dy, int range, float detonation, float clearance) {
+
+    for (int i = 1; i < range; i++) {
+
+      int fireX = x + dx * i;
+      int fireY = y + dy * i;
+      if (board[fireY][fireX] < 0) {
+        return;
+      }
+
+      danger.mark(fireX, fireY, detonation, clearance);
+    }
+  }
+
+  private static int randomCell(Random random, int[][] board) {
+
+    while (true) {
+      int x = 1 + random.nextInt(WIDTH - 2);
+      int y = 1 + random.nextInt(HEIGHT - 2);
+      if (board[y][x] >= 0) {
+        return y * WIDTH + x;
+      }
+    }
+  }
+
+  /**
+   * Checks if the player walking the path stands on a cell while it is on fire, with the same
+   * timing as the space-time search.
+   */
+  private static boolean isCaught(List<Node> path, DangerMap danger, float stepTime) {
+
+    int moves = 1;
+    for (Node node : path) {
+
+      int x = node.getX();
+      int y = node.getY();
+      float arrival = moves * stepTime;
+      if (danger.isDangerous(x, y) && danger.getDetonation(x, y) < arrival + stepTime / 2 &&
+          danger.getClearance(x, y) > arrival - stepTime / 2) {
+        return true;
+      }
+
+      moves++;
+    }
+
+    return false;
+  }
+
+  /**
+   * A danger map filled by hand instead of from the bombs of a board state.
+   */
+  private static class FixedDangerMap extends DangerMap {
+
+    private final float[] detonations;
+
+    private final float[] clearances;
+
+    private float horizon;
+
+    FixedDangerMap(int width, int height) {
+
+      super(width, height);
+      detonations = new float[width * height];
+      clearances = new float[width * height];
+      Arrays.fill(detonations, NO_DANGER);
+    }
+
+    void mark(int x, int y, float detonation, float clearance) {
+
+      int cell = y * getWidth() + x;
+      detonations[cell] = Math.min(detonations[cell], detonation);
+      clearances[cell] = Math.max(clearances[cell], clearance);
+      horizon = Math.max(horizon, clearance);
+    }
+
+    @Override
+    public float getDetonation(int x, int y) {
+      return detonations[y * getWidth() + x];
+    }
+
+    @Override
+    public float getClearance(int x, int y) {
+      return clearances[y * getWidth() + x];
+    }
+
+    @Override
+    public boolean isDangerous(int x, int y) {
+      return detonations[y * getWidth() + x] != NO_DANGER;
+    }
+
+    @Override
+    public boolean isBurning(int x, int y) {
+      return detonations[y * getWidth() + x] <= 0;
+    }
+
+    @Override
+    public float getHorizon() {
+      return horizon;
+    }
+
+  }
+
+}
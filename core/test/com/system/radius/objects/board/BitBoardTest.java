@@ -0,0 +1,148 @@
+package com.system.radius.objects.board;
+
+import com.system.radius.ai.path.FloodFill;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BitBoardTest {
+
+  private static final int[][] DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+
+  @Test
+  public void floodsTheSameCellsAsTheFloodFill() {
+
+    Random random = new Random(4);
+    FloodFill floodFill = new FloodFill();
+
+    for (int board = 0; board < 2000; board++) {
+      // Some boards are wider than a word, so that the floods cross the word boundaries.
+      int width = 1 + random.nextInt(board % 3 == 0 ? 150 : 40);
+      int height = 1 + random.nextInt(40);
+      int[][] cells = createBoard(random, width, height);
+      int sourceX = random.nextInt(width);
+      int sourceY = random.nextInt(height);
+      int radius = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(30);
+
+      BitBoard passable = new BitBoard(width, height);
+      passable.loadPassable(cells);
+      BitBoard reached = new BitBoard(width, height);
+
+      int count = floodFill.fill(cells, sourceX, sourceY, radius);
+      assertEquals(count, reached.flood(passable, sourceX, sourceY, radius));
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          assertEquals(floodFill.isReached(x, y), reached.get(x, y));
+        }
+      }
+
+      int visited = 0;
+      for (int cell = reached.nextSetCell(0); cell >= 0; cell = reached.nextSetCell(cell + 1)) {
+        assertTrue(reached.get(cell % width, cell / width));
+        visited++;
+      }
+      assertEquals(count, visited);
+    }
+  }
+
+  @Test
+  public void spreadsFireUpToAndIntoTheBlockers() {
+
+    Random random = new Random(9);
+
+    for (int board = 0; board < 2000; board++) {
+      int width = 1 + random.nextInt(board % 3 == 0 ? 150 : 40);
+      int height = 1 + random.nextInt(40);
+      int range = random.nextInt(6);
+
+      BitBoard sources = new BitBoard(width, height);
+      BitBoard blockers = new BitBoard(width, height);
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          if (random.nextInt(10) == 0) {
+            sources.set(x, y);
+          }
+          if (random.nextInt(4) == 0) {
+            blockers.set(x, y);
+          }
+        }
+      }
+
+      BitBoard fire = new BitBoard(width, height);
+      fire.spreadFire(sources, blockers, range, new BitBoard(width, height));
+
+      boolean[][] expected = spreadFire(sources, blockers, range);
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          assertEquals(expected[y][x], fire.get(x, y));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void invertsWithinTheBoard() {
+
+    BitBoard bits = new BitBoard(70, 3);
+    bits.set(0, 0);
+    bits.set(69, 2);
+    bits.invert();
+
+    assertEquals(70 * 3 - 2, bits.count());
+    assertEquals(1, bits.nextSetCell(0));
+  }
+
+  /**
+   * Spreads the fires one cell at a time, the way the explosions do.
+   */
+  private static boolean[][] spreadFire(BitBoard sources, BitBoard blockers, int range) {
+
+    int width = sources.getWidth();
+    int height = sources.getHeight();
+    boolean[][] fire = new boolean[height][width];
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        if (!sources.get(x, y)) {
+          continue;
+        }
+
+        fire[y][x] = true;
+        for (int[] direction : DIRECTIONS) {
+          for (int i = 1; i <= range; i++) {
+            int nextX = x + direction[0] * i;
+            int nextY = y + direction[1] * i;
+            if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height) {
+              break;
+            }
+
+            fire[nextY][nextX] = true;
+            if (blockers.get(nextX, nextY)) {
+              break;
+            }
+          }
+        }
+      }
+    }
+
+    return fire;
+  }
+
+  private static int[][] createBoard(Random random, int width, int height) {
+
+    int[][] cells = new int[height][width];
+    int walls = random.nextInt(60);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        cells[y][x] = random.nextInt(100) < walls ? -1 : 4;
+      }
+    }
+
+    return cells;
+  }
+
+}
@@ -0,0 +1,168 @@
+package com.system.radius.objects.board;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import com.system.radius.objects.blocks.Block;
+import com.system.radius.objects.blocks.HardBlock;
+import com.system.radius.objects.blocks.SoftBlock;
+import com.system.radius.objects.players.Player;
+import com.system.radius.objects.players.Player1;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The blocks and the players load their textures, so the tests run on a headless application with
+ * a mocked GL.
+ */
+public class BoardSnapshotTest {
+
+  private static final int WIDTH = 31;
+
+  private static final int HEIGHT = 17;
+
+  private static final float SCALE = WorldConstants.WORLD_SCALE;
+
+  @BeforeClass
+  public static void createApplication() {
+
+    new HeadlessApplication(new ApplicationAdapter() {
+    });
+    Gdx.gl = Gdx.gl20 = Mockito.mock(GL20.class);
+  }
+
+  @Test
+  public void restoresToTheSameBytes() {
+
+    Random random = new Random(5);
+    BoardState boardState = createBoard(random);
+    List<Player> players = addPlayers(boardState);
+
+    for (int round = 0; round < 100; round++) {
+      play(random, boardState, players, 20, 20);
+
+      ByteBuffer written = write(boardState);
+      char[] chars = boardState.getBoardRep().clone();
+
+      // The game goes on with bombs going off and blocks burning, then is rolled back.
+      play(random, boardState, players, 40, 10);
+      BoardSnapshot.restore(boardState, written.duplicate());
+
+      assertEquals(written, write(boardState));
+      assertTrue(Arrays.equals(chars, boardState.getBoardRep()));
+      for (int y = 0; y < HEIGHT; y++) {
+        for (int x = 0; x < WIDTH; x++) {
+          char value = boardState.getChar(x, y);
+          boolean blocked = value != WorldConstants.BOARD_EMPTY &&
+              value != WorldConstants.BOARD_BONUS;
+          assertEquals(blocked, boardState.getBoardBits().getBlocked().get(x, y));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void restoresTheSameSnapshotTwice() {
+
+    Random random = new Random(8);
+    BoardState boardState = createBoard(random);
+    List<Player> players = addPlayers(boardState);
+
+    play(random, boardState, players, 60, 10);
+    ByteBuffer written = write(boardState);
+
+    play(random, boardState, players, 60, 10);
+    BoardSnapshot.restore(boardState, written.duplicate());
+    play(random, boardState, players, 60, 10);
+    BoardSnapshot.restore(boardState, written.duplicate());
+
+    assertEquals(written, write(boardState));
+  }
+
+  private static ByteBuffer write(BoardState boardState) {
+
+    ByteBuffer buffer = ByteBuffer.allocate(BoardSnapshot.getMaxSize(boardState));
+    BoardSnapshot.write(boardState, buffer);
+    buffer.flip();
+
+    return buffer;
+  }
+
+  /**
+   * Moves the players around at random, planting bombs now and then.
+   *
+   * @param frames     - The number of updates.
+   * @param bombChance - One in how many updates a player plants a bomb.
+   */
+  private static void play(Random random, BoardState boardState, List<Player> players,
+                           int frames, int bombChance) {
+
+    for (int frame = 0; frame < frames; frame++) {
+      for (Player player : players) {
+        if (random.nextInt(bombChance) == 0) {
+          player.plantBomb();
+        }
+
+        player.setVelX((random.nextInt(3) - 1) * 20);
+        player.setVelY((random.nextInt(3) - 1) * 20);
+        player.update(1 / 60f);
+      }
+
+      boardState.updateObjects(1 / 60f);
+    }
+  }
+
+  private static BoardState createBoard(Random random) {
+
+    BoardState boardState = new BoardState(WIDTH, HEIGHT);
+    boardState.reset();
+
+    for (int x = 0; x < WIDTH; x++) {
+      for (int y = 0; y < HEIGHT; y++) {
+        float blockX = x * SCALE;
+        float blockY = y * SCALE;
+        boolean corner = (x < 3 || x > WIDTH - 4) && (y < 3 || y > HEIGHT - 4);
+
+        if (x == 0 || y == 0 || x == WIDTH - 1 || y == HEIGHT - 1) {
+          boardState.addToBoard(new Block(boardState, blockX, blockY, SCALE, SCALE));
+        } else if (x % 2 == 0 && y % 2 == 0) {
+          boardState.addToBoard(new HardBlock(boardState, blockX, blockY, SCALE, SCALE));
+        } else if (!corner && random.nextInt(3) == 0) {
+          boardState.addToBoard(new SoftBlock(boardState, blockX, blockY, SCALE, SCALE,
+              random.nextBoolean()));
+        }
+      }
+    }
+
+    return boardState;
+  }
+
+  private static List<Player> addPlayers(BoardState boardState) {
+
+    int[][] corners = {{1, 1}, {WIDTH - 2, 1}, {1, HEIGHT - 2}, {WIDTH - 2, HEIGHT - 2}};
+
+    List<Player> players = new ArrayList<>();
+    for (int[] corner : corners) {
+      Player player = new Player1(boardState, corner[0] * SCALE, corner[1] * SCALE, SCALE);
+      boardState.addPlayer(player);
+      player.setBombStock(3);
+      player.setFirePower(3);
+      players.add(player);
+    }
+
+    return players;
+  }
+
+}
@@ -0,0 +1,162 @@
+package com.system.radius.objects.board;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import com.system.radius.ai.Node;
+import com.system.radius.enums.PlayerState;
+import com.system.radius.objects.blocks.HardBlock;
+import com.system.radius.objects.blocks.SoftBlock;
+import com.system.radius.objects.players.Player;
+import com.system.radius.objects.players.Player1;
+import com.system.radius.utils.AStarUtils;
+
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the two ways {@code DefenseAction} finds the safe spaces: building the cost board of
+ * the player and searching it, or asking the bit boards of the board state through
+ * {@link BoardBits#findSafeCells(int, int, int, BitBoard)}. The games are played out with random
+ * bombs, and both ways are asked from the same states; a state where they disagree is an error.
+ * <p>
+ * The blocks and the players load their textures, so the benchmark runs on a headless
+ * application with a mocked GL. Run with {@code gradlew core:benchmarkSafeCells}.
+ */
+public class SafeCellsBenchmark {
+
+  private static final int WIDTH = 31;
+
+  private static final int HEIGHT = 17;
+
+  private static final int GAMES = 40;
+
+  private static final int MOVES = 200;
+
+  /**
+   * The queries done on each state, the first of which are not timed.
+   */
+  private static final int REPEATS = 20;
+
+  private static final int WARM_UP = 5;
+
+  public static void main(String[] args) {
+
+    new HeadlessApplication(new ApplicationAdapter() {
+    });
+    Gdx.gl = Gdx.gl20 = Mockito.mock(GL20.class);
+
+    Random random = new Random(4);
+    BoardState boardState = new BoardState(WIDTH, HEIGHT);
+    AStarUtils pathFinder = new AStarUtils();
+    BitBoard safe = new BitBoard(WIDTH, HEIGHT);
+    float scale = WorldConstants.WORLD_SCALE;
+    int detectionRange = Math.max(WIDTH, HEIGHT);
+
+    long searchTime = 0;
+    long bitTime = 0;
+    int queries = 0;
+
+    for (int game = 0; game < GAMES; game++) {
+
+      boardState.reset();
+      fillBoard(random, boardState, game * 2);
+
+      Player player = new Player1(boardState, scale, scale, scale);
+      boardState.addPlayer(player);
+      player.setBombStock(8);
+      player.setFirePower(1 + random.nextInt(5));
+
+      for (int move = 0; move < MOVES; move++) {
+
+        int x = 1 + random.nextInt(WIDTH - 2);
+        int y = 1 + random.nextInt(HEIGHT - 2);
+        if (boardState.getChar(x, y) != WorldConstants.BOARD_EMPTY) {
+          continue;
+        }
+
+        player.setX(x * scale);
+        player.setY(y * scale);
+        if (random.nextInt(4) == 0) {
+          player.plantBomb();
+        }
+
+        int frames = random.nextInt(20);
+        for (int frame = 0; frame < frames; frame++) {
+          boardState.updateObjects(1 / 60f);
+          player.update(1 / 60f);
+        }
+
+        PlayerState playerState = player.getPlayerState();
+        if (PlayerState.DYING.equals(playerState) || PlayerState.DEAD.equals(playerState)) {
+          // The AI does not look for a place to hide while its player is burned.
+          continue;
+        }
+
+        int playerX = boardState.getExactX(player);
+        int playerY = boardState.getExactY(player);
+        int movementCost = (int) Player.SPEED_COUNTER - (int) player.getSpeedLevel();
+
+        for (int repeat = 0; repeat < REPEATS; repeat++) {
+
+          long start = System.nanoTime();
+          int[][] board = boardState.constructBoardRep(player);
+          List<Node> spaces = pathFinder.searchSpaces(board,
+              new Node(null, playerX, playerY, 0, 0), detectionRange);
+          int searched = 0;
+          for (Node space : spaces) {
+            if (board[space.getY()][space.getX()] == movementCost) {
+              searched++;
+            }
+          }
+
+          long middle = System.nanoTime();
+          int found = boardState.getBoardBits().findSafeCells(playerX, playerY, detectionRange,
+              safe);
+          long end = System.nanoTime();
+
+          if (searched != found) {
+            throw new IllegalStateException("The safe cells differ in game " + game + ": " +
+                searched + " searched, " + found + " found.");
+          }
+
+          if (repeat >= WARM_UP) {
+            searchTime += middle - start;
+            bitTime += end - middle;
+            queries++;
+          }
+        }
+      }
+    }
+
+    System.out.printf("queries: %d%n", queries);
+    System.out.printf("cost board + search: %.2f us/query%n", searchTime / 1000.0 / queries);
+    System.out.printf("bit boards:          %.2f us/query%n", bitTime / 1000.0 / queries);
+
+    Gdx.app.exit();
+  }
+
+  /**
+   * Lays the hard blocks on the edges and on every other cell, and soft blocks on a share of the
+   * remaining cells, away from the corner of the player.
+   */
+  private static void fillBoard(Random random, BoardState boardState, int softPercent) {
+
+    float scale = WorldConstants.WORLD_SCALE;
+    for (int x = 0; x < WIDTH; x++) {
+      for (int y = 0; y < HEIGHT; y++) {
+
+        if (x == 0 || y == 0 || x == WIDTH - 1 || y == HEIGHT - 1 || (x % 2 == 0 && y % 2 == 0)) {
+          boardState.addToBoard(new HardBlock(boardState, x * scale, y * scale, scale, scale));
+        } else if (random.nextInt(100) < softPercent && !(x < 3 && y < 3)) {
+          boardState.addToBoard(new SoftBlock(boardState, x * scale, y * scale, scale, scale,
+              false));
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,199 @@
+package com.system.radius.objects.board;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.system.radius.objects.AbstractBomberObject;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+  @Test
+  public void firesOnTheDeadlinesKeptApart() {
+
+    Random random = new Random(3);
+    TimingWheel wheel = new TimingWheel();
+    List<Integer> fired = new ArrayList<>();
+    TimingWheel.Timer[] timers = createTimers(500, fired);
+
+    // The deadlines are also kept apart, -1 for a timer that is not pending.
+    long[] deadlines = new long[timers.length];
+    Arrays.fill(deadlines, -1);
+
+    for (int round = 0; round < 5000; round++) {
+      for (int i = 0; i < 5; i++) {
+        int id = random.nextInt(timers.length);
+        if (random.nextInt(4) == 0) {
+          wheel.cancel(timers[id]);
+          deadlines[id] = -1;
+        } else {
+          // Some of the delays are beyond a turn of the ring.
+          wheel.schedule(timers[id], random.nextFloat() * 10);
+          deadlines[id] = timers[id].getDeadline();
+        }
+      }
+
+      long before = wheel.getStep();
+      wheel.advance(random.nextFloat() * 0.05f);
+
+      for (int id : fired) {
+        assertTrue(deadlines[id] > before && deadlines[id] <= wheel.getStep());
+        deadlines[id] = -1;
+      }
+      fired.clear();
+
+      for (int id = 0; id < timers.length; id++) {
+        assertEquals(deadlines[id] >= 0, timers[id].isScheduled());
+        assertTrue(deadlines[id] < 0 || deadlines[id] > wheel.getStep());
+      }
+    }
+  }
+
+  @Test
+  public void firesTheSameStepInTheScheduledOrder() {
+
+    TimingWheel wheel = new TimingWheel();
+    List<Integer> fired = new ArrayList<>();
+    TimingWheel.Timer[] timers = createTimers(4, fired);
+
+    wheel.schedule(timers[2], 0.5f);
+    wheel.schedule(timers[0], 0.5f);
+    wheel.schedule(timers[3], 0.5f);
+    wheel.schedule(timers[1], 0.25f);
+    wheel.advance(0.6f);
+
+    assertEquals(Arrays.asList(1, 2, 0, 3), fired);
+  }
+
+  @Test
+  public void cancelsATimerDueOnTheStepBeingFired() {
+
+    final TimingWheel wheel = new TimingWheel();
+    List<Integer> fired = new ArrayList<>();
+    final TimingWheel.Timer[] timers = createTimers(2, fired);
+    final TimingWheel.Timer first = new TimingWheel.Timer(new Owner(-1, fired) {
+      @Override
+      public void onTimer() {
+        super.onTimer();
+        wheel.cancel(timers[0]);
+      }
+    });
+
+    wheel.schedule(first, 1);
+    wheel.schedule(timers[0], 1);
+    wheel.schedule(timers[1], 1);
+    wheel.advance(1.01f);
+
+    assertEquals(Arrays.asList(-1, 1), fired);
+    assertFalse(timers[0].isScheduled());
+  }
+
+  @Test
+  public void reschedulesATimerDueOnTheStepBeingFired() {
+
+    final TimingWheel wheel = new TimingWheel();
+    List<Integer> fired = new ArrayList<>();
+    final TimingWheel.Timer[] timers = createTimers(1, fired);
+    final TimingWheel.Timer first = new TimingWheel.Timer(new Owner(-1, fired) {
+      @Override
+      public void onTimer() {
+        super.onTimer();
+        // A chained bomb going off sooner moves another one, already due, on.
+        wheel.schedule(timers[0], 0.5f);
+      }
+    });
+
+    wheel.schedule(first, 1);
+    wheel.schedule(timers[0], 1);
+    wheel.advance(1.01f);
+
+    assertEquals(Arrays.asList(-1), fired);
+    assertTrue(timers[0].isScheduled());
+    assertEquals(wheel.getStep() + 30, timers[0].getDeadline());
+
+    wheel.advance(0.5f);
+    assertEquals(Arrays.asList(-1, 0), fired);
+  }
+
+  @Test
+  public void reschedulesItselfFromItsOwnTimer() {
+
+    final TimingWheel wheel = new TimingWheel();
+    final List<Integer> fired = new ArrayList<>();
+    final TimingWheel.Timer[] self = new TimingWheel.Timer[1];
+    self[0] = new TimingWheel.Timer(new Owner(0, fired) {
+      @Override
+      public void onTimer() {
+        super.onTimer();
+        if (fired.size() < 3) {
+          wheel.schedule(self[0], 0);
+        }
+      }
+    });
+
+    wheel.schedule(self[0], 0);
+    wheel.advance(1);
+
+    // A timer always waits for at least one step, so it fires once per step.
+    assertEquals(Arrays.asList(0, 0, 0), fired);
+    assertFalse(self[0].isScheduled());
+  }
+
+  private static TimingWheel.Timer[] createTimers(int count, List<Integer> fired) {
+
+    TimingWheel.Timer[] timers = new TimingWheel.Timer[count];
+    for (int id = 0; id < count; id++) {
+      timers[id] = new TimingWheel.Timer(new Owner(id, fired));
+    }
+
+    return timers;
+  }
+
+  /**
+   * An object that only notes down when its timer goes off.
+   */
+  private static class Owner extends AbstractBomberObject {
+
+    private final int id;
+
+    private final List<Integer> fired;
+
+    Owner(int id, List<Integer> fired) {
+      super(null, WorldConstants.BOARD_EMPTY, 0, 0);
+      this.id = id;
+      this.fired = fired;
+    }
+
+    @Override
+    public void onTimer() {
+      fired.add(id);
+    }
+
+    @Override
+    public void burn() {
+    }
+
+    @Override
+    public void update(float delta) {
+    }
+
+    @Override
+    public void draw(Batch batch) {
+    }
+
+    @Override
+    public void drawDebug(ShapeRenderer shapeRenderer) {
+    }
+
+  }
+
+}
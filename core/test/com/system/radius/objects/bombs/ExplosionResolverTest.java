@@ -0,0 +1,171 @@
+package com.system.radius.objects.bombs;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import com.system.radius.objects.blocks.Block;
+import com.system.radius.objects.blocks.SoftBlock;
+import com.system.radius.objects.board.BoardState;
+import com.system.radius.objects.board.WorldConstants;
+import com.system.radius.objects.players.Player;
+import com.system.radius.objects.players.Player1;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The bombs and the blocks load their textures, so the tests run on a headless application with
+ * a mocked GL.
+ */
+public class ExplosionResolverTest {
+
+  private static final float SCALE = WorldConstants.WORLD_SCALE;
+
+  @BeforeClass
+  public static void createApplication() {
+
+    new HeadlessApplication(new ApplicationAdapter() {
+    });
+    Gdx.gl = Gdx.gl20 = Mockito.mock(GL20.class);
+  }
+
+  @Test
+  public void setsOffTheChainInQueueOrder() {
+
+    BoardState boardState = createBoard();
+    Player player = createPlayer(boardState, 2);
+    List<Integer> exploded = new ArrayList<>();
+
+    // Each bomb is in the fire of its neighbours, and the chain starts from the middle.
+    Bomb[] bombs = new Bomb[5];
+    for (int i = 0; i < bombs.length; i++) {
+      bombs[i] = plant(player, 1 + 2 * i, 1, exploded);
+    }
+
+    bombs[2].burn();
+    boardState.getExplosionResolver().resolve();
+
+    // A fire looks west before it looks east, and the bombs it meets join the end of the queue.
+    assertEquals(Arrays.asList(5, 3, 7, 1, 9), exploded);
+    for (Bomb bomb : bombs) {
+      assertTrue(bomb.isExploding());
+      assertFalse(bomb.isQueued());
+    }
+  }
+
+  @Test
+  public void setsOffEachBombOnce() {
+
+    BoardState boardState = createBoard();
+    Player player = createPlayer(boardState, 4);
+    List<Integer> exploded = new ArrayList<>();
+
+    Bomb west = plant(player, 1, 1, exploded);
+    Bomb middle = plant(player, 3, 1, exploded);
+    Bomb east = plant(player, 5, 1, exploded);
+
+    // The middle bomb is in both fires, and is also set off on its own.
+    west.burn();
+    east.burn();
+    middle.burn();
+    west.burn();
+    boardState.getExplosionResolver().resolve();
+
+    assertEquals(Arrays.asList(1, 5, 3), exploded);
+
+    // A bomb already going off is not queued again.
+    middle.burn();
+    boardState.getExplosionResolver().resolve();
+    assertEquals(3, exploded.size());
+  }
+
+  @Test
+  public void burnsTheBlocksOnceTheChainIsDone() {
+
+    BoardState boardState = createBoard();
+    Player player = createPlayer(boardState, 2);
+    List<Integer> exploded = new ArrayList<>();
+
+    // The soft block shields the last bomb, and still does so while the chain goes off.
+    SoftBlock block = new SoftBlock(boardState, 5 * SCALE, SCALE, SCALE, SCALE, false);
+    boardState.addToBoard(block);
+    Bomb first = plant(player, 1, 1, exploded);
+    plant(player, 3, 1, exploded);
+    Bomb shielded = plant(player, 7, 1, exploded);
+
+    first.burn();
+    boardState.getExplosionResolver().resolve();
+
+    assertEquals(Arrays.asList(1, 3), exploded);
+    assertFalse(shielded.isExploding());
+    assertSame(block, boardState.getObject(5, 1));
+  }
+
+  private static BoardState createBoard() {
+
+    BoardState boardState = new BoardState(15, 5);
+    boardState.reset();
+    for (int x = 0; x < 15; x++) {
+      for (int y = 0; y < 5; y++) {
+        if (x == 0 || y == 0 || x == 14 || y == 4) {
+          boardState.addToBoard(new Block(boardState, x * SCALE, y * SCALE, SCALE, SCALE));
+        }
+      }
+    }
+
+    return boardState;
+  }
+
+  private static Player createPlayer(BoardState boardState, int firePower) {
+
+    Player player = new Player1(boardState, SCALE, 3 * SCALE, SCALE);
+    boardState.addPlayer(player);
+    player.setFirePower(firePower);
+
+    return player;
+  }
+
+  private static Bomb plant(Player player, int x, int y, List<Integer> exploded) {
+
+    Bomb bomb = new RecordingBomb(player, x, y, exploded);
+    player.getBoardState().addToBoard(bomb);
+
+    return bomb;
+  }
+
+  /**
+   * A bomb noting down its column when it goes off.
+   */
+  private static class RecordingBomb extends NekoBomb {
+
+    private final List<Integer> exploded;
+
+    RecordingBomb(Player owner, int x, int y, List<Integer> exploded) {
+      super(owner, x * SCALE, y * SCALE, SCALE, SCALE);
+      this.exploded = exploded;
+    }
+
+    @Override
+    void explode() {
+
+      if (!isExploding()) {
+        exploded.add(getBoardState().getExactX(this));
+      }
+
+      super.explode();
+    }
+
+  }
+
+}
@@ -0,0 +1,113 @@
+package com.system.radius.utils;
+
+import com.system.radius.ai.Node;
+import com.system.radius.ai.path.PathBuffer;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalAStarUtilsTest {
+
+  @Test
+  public void repairsToTheCostOfAFreshSearch() {
+
+    Random random = new Random(5);
+    AStarUtils reference = new AStarUtils();
+    PathBuffer expected = new PathBuffer();
+    PathBuffer path = new PathBuffer();
+
+    for (int board = 0; board < 200; board++) {
+      int width = 10 + random.nextInt(40);
+      int height = 10 + random.nextInt(30);
+      int[][] cells = createBoard(random, width, height);
+      Node target = new Node(null, random.nextInt(width), random.nextInt(height), 0, 0);
+
+      // The target stays put, while the source moves and a few cells change between calls.
+      IncrementalAStarUtils pathFinder = new IncrementalAStarUtils();
+      for (int call = 0; call < 30; call++) {
+        for (int i = random.nextInt(6); i > 0; i--) {
+          cells[random.nextInt(height)][random.nextInt(width)] = randomCost(random);
+        }
+
+        Node source = new Node(null, random.nextInt(width), random.nextInt(height), 0, 0);
+        boolean reachable = reference.findShortestPath(cells, source, target, expected);
+
+        assertEquals(reachable, pathFinder.findShortestPath(cells, source, target, path));
+        if (reachable) {
+          assertEquals(expected.getTotalCost(), path.getTotalCost());
+          assertWalkable(cells, source, target, path);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void repairsWithLessWorkThanAFreshSearch() {
+
+    int[][] cells = new int[16][16];
+    Node target = new Node(null, 15, 15, 0, 0);
+    PathBuffer path = new PathBuffer();
+
+    IncrementalAStarUtils pathFinder = new IncrementalAStarUtils();
+    assertTrue(pathFinder.findShortestPath(cells, new Node(null, 0, 0, 0, 0), target, path));
+    int expanded = pathFinder.getExpanded();
+
+    // A single wall only needs a repair around it.
+    cells[8][0] = -1;
+    Node source = new Node(null, 0, 1, 0, 0);
+    assertTrue(pathFinder.findShortestPath(cells, source, target, path));
+    assertEquals(29, path.getTotalCost());
+
+    IncrementalAStarUtils fresh = new IncrementalAStarUtils();
+    assertTrue(fresh.findShortestPath(cells, source, target, path));
+    assertTrue(pathFinder.getExpanded() - expanded < fresh.getExpanded());
+  }
+
+  private static void assertWalkable(int[][] cells, Node source, Node target, PathBuffer path) {
+
+    int x = source.getX();
+    int y = source.getY();
+    int cost = 0;
+    for (int i = 0; i < path.getLength(); i++) {
+      int nextX = path.getX(i);
+      int nextY = path.getY(i);
+      if (nextX == x && nextY == y) {
+        // Only the path to the source itself starts on the source.
+        continue;
+      }
+
+      assertEquals(1, Math.abs(nextX - x) + Math.abs(nextY - y));
+      assertTrue(cells[nextY][nextX] >= 0);
+      cost += 1 + cells[nextY][nextX];
+      x = nextX;
+      y = nextY;
+    }
+
+    assertEquals(target.getX(), x);
+    assertEquals(target.getY(), y);
+    assertEquals(path.getTotalCost(), cost);
+  }
+
+  private static int[][] createBoard(Random random, int width, int height) {
+
+    int[][] cells = new int[height][width];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        cells[y][x] = randomCost(random);
+      }
+    }
+
+    return cells;
+  }
+
+  private static int randomCost(Random random) {
+
+    int value = random.nextInt(10);
+    return value < 3 ? -1 : (value < 4 ? 50 : 4);
+  }
+
+}